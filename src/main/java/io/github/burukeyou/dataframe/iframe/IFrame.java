@@ -2,11 +2,13 @@ package io.github.burukeyou.dataframe.iframe;
 
 import io.github.burukeyou.dataframe.iframe.function.*;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
 import io.github.burukeyou.dataframe.iframe.window.Sorter;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.function.*;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
@@ -244,6 +246,31 @@ public interface IFrame<T> extends ISummaryFrame<T>, IWhereFrame<T>, IJoinFrame<
      */
     IFrame<T> defaultScale(int scale, RoundingMode roundingMode);
 
+    /**
+     * Set numeric mode of summation and average,  default is BIG_DECIMAL
+     * @see NumericMode
+     */
+    IFrame<T> numericMode(NumericMode numericMode);
+
+    /**
+     * Group in parallel with {@link java.util.concurrent.ForkJoinPool#commonPool()}
+     *      the data is split into chunks,  each chunk is aggregated into its own hash table and then merged in order,
+     *      so the result is the same as sequential.  the key and value functions must be thread safe.
+     *      window functions also sort and evaluate the partitions concurrently,  small partitions are packed into one task by rows
+     */
+    IFrame<T> parallel();
+
+    /**
+     * Group in parallel with the executor
+     * @param executor      executor to aggregate the chunks and evaluate the window partitions
+     */
+    IFrame<T> parallel(Executor executor);
+
+    /**
+     * Group in sequential,  it is the default mode
+     */
+    IFrame<T> sequential();
+
     /**
      * ===========================   Frame Info =====================================
      **/
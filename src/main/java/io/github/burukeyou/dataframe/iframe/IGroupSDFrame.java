@@ -2,15 +2,22 @@ package io.github.burukeyou.dataframe.iframe;
 
 import io.github.burukeyou.dataframe.iframe.function.ListToOneValueFunction;
 import io.github.burukeyou.dataframe.iframe.function.NumberFunction;
+import io.github.burukeyou.dataframe.iframe.group.Agg;
 import io.github.burukeyou.dataframe.iframe.group.GroupConcat;
+import io.github.burukeyou.dataframe.iframe.item.AggRow;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.item.FI3;
 import io.github.burukeyou.dataframe.iframe.item.FI4;
+import io.github.burukeyou.dataframe.iframe.item.GroupingRow;
 import io.github.burukeyou.dataframe.iframe.support.MaxMin;
+import io.github.burukeyou.dataframe.iframe.window.Sorter;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
 
 /**
  * @author      caizhihao
@@ -41,6 +48,21 @@ public interface IGroupSDFrame<T>  extends IGroupFrame<T> {
      */
     <K,J,H> SDFrame<FI4<K,J,H,List<T>>> group3(Function<T, K> key, Function<T,J> key2, Function<T,H> key3);
 
+    /**
+     * Group list by any number of keys
+     *      all keys are hashed as one composite key,  the group key of result is the list of the field values in the same order of keys
+     *      groups with the same first key are adjacent in the first-seen order of the first key,  then of the second key and so on
+     * @param keys       group fields
+     */
+    SDFrame<FI2<List<Object>,List<T>>> groupN(List<Function<T,?>> keys);
+
+    /**
+     * Group by any number of keys and aggregate each group with the collector
+     * @param keys       group fields
+     * @param collector  aggregate collector of the group
+     */
+    <V> SDFrame<FI2<List<Object>,V>> groupN(List<Function<T,?>> keys, Collector<? super T,?,V> collector);
+
     /**
      * Group list
      * @param key               group field
@@ -75,6 +97,27 @@ public interface IGroupSDFrame<T>  extends IGroupFrame<T> {
      */
     <K,R extends Number> SDFrame<FI2<K, BigDecimal>> groupBySum(Function<T, K> key, NumberFunction<T,R> value);
 
+    /**
+     * Group summation with primitive long,  no BigDecimal is created
+     * @param key       group field
+     * @param value     Aggregated field
+     */
+    <K> SDFrame<FI2<K,Long>> groupBySumLong(Function<T, K> key, ToLongFunction<T> value);
+
+    /**
+     * Group summation with primitive double and compensated summation
+     * @param key       group field
+     * @param value     Aggregated field
+     */
+    <K> SDFrame<FI2<K,Double>> groupBySumDouble(Function<T, K> key, ToDoubleFunction<T> value);
+
+    /**
+     * Group average with primitive double
+     * @param key       group field
+     * @param value     Aggregated field
+     */
+    <K> SDFrame<FI2<K,BigDecimal>> groupByAvgDouble(Function<T, K> key, ToDoubleFunction<T> value);
+
     /**
      * Group summation
      * @param key       group field
@@ -118,6 +161,37 @@ public interface IGroupSDFrame<T>  extends IGroupFrame<T> {
      */
     <K, J, H> SDFrame<FI4<K, J, H, Long>> group3ByCount(Function<T, K> key, Function<T, J> key2, Function<T, H> key3);
 
+    /**
+     * Group approximate distinct count by HyperLogLog with default precision
+     * @param key       group field
+     * @param value     counted field
+     */
+    <K> SDFrame<FI2<K, Long>> groupByApproxCountDistinct(Function<T, K> key, Function<T, ?> value);
+
+    /**
+     * Group approximate distinct count by HyperLogLog
+     * @param key           group field
+     * @param value         counted field
+     * @param precision     between 4 and 18,  memory is 2^precision bytes per group
+     */
+    <K> SDFrame<FI2<K, Long>> groupByApproxCountDistinct(Function<T, K> key, Function<T, ?> value, int precision);
+
+    /**
+     * Group approximate percentile by t-digest,  exact if the group has at most 500 values
+     * @param key       group field
+     * @param value     aggregated field
+     * @param q         quantile between 0 and 1,  such as 0.5 for median and 0.99 for p99
+     */
+    <K,R extends Number> SDFrame<FI2<K, BigDecimal>> groupByPercentile(Function<T, K> key, NumberFunction<T,R> value, double q);
+
+    /**
+     * Group multi approximate percentile by t-digest in one pass,  exact if the group has at most 500 values
+     * @param key       group field
+     * @param value     aggregated field
+     * @param qs        quantiles between 0 and 1,  the result list is in the same order
+     */
+    <K,R extends Number> SDFrame<FI2<K, List<BigDecimal>>> groupByPercentile(Function<T, K> key, NumberFunction<T,R> value, double... qs);
+
     /**
      * Group sum and count together
      *
@@ -137,6 +211,49 @@ public interface IGroupSDFrame<T>  extends IGroupFrame<T> {
      */
     <K, J,R extends Number> SDFrame<FI4<K, J, BigDecimal, Long>> group2BySumCount(Function<T, K> key, Function<T, J> key2, NumberFunction<T,R> value);
 
+    /**
+     * Group and compute multi aggregate functions in one pass
+     *      such as groupByAgg(key, Arrays.asList(Agg.sum(f), Agg.count(), Agg.avg(g), Agg.max(h)))
+     * @param key           group field
+     * @param aggs          aggregate functions,  use the same Agg instance to get the result from the row
+     */
+    <K> SDFrame<AggRow<K>> groupByAgg(Function<T, K> key, List<? extends Agg<T,?>> aggs);
+
+    /**
+     * Group and compute multi aggregate functions in one pass
+     * @param key           group field
+     * @param key2          secondary level group field
+     * @param aggs          aggregate functions,  use the same Agg instance to get the result from the row
+     * @return              row key is FI2(key, key2)
+     */
+    <K, J> SDFrame<AggRow<FI2<K, J>>> group2ByAgg(Function<T, K> key, Function<T, J> key2, List<? extends Agg<T,?>> aggs);
+
+    /**
+     * Rollup in one pass,  same as GROUP BY ROLLUP(key1, key2, ...) of sql
+     *      rollup(a,b,c) output the subtotal of (a,b,c), (a,b), (a) and the grand total,
+     *      only the finest level is aggregated from the data and the coarser levels are merged from its partial aggregates
+     * @param keys          group fields
+     * @param aggs          aggregate functions,  use the same Agg instance to get the result from the row
+     * @return              the value of rolled-up field is null and it is marked by GroupingRow.isGrouping
+     */
+    SDFrame<GroupingRow> rollup(List<Function<T,?>> keys, List<? extends Agg<T,?>> aggs);
+
+    /**
+     * Cube in one pass,  same as GROUP BY CUBE(key1, key2, ...) of sql
+     *      output the subtotal of every combination of group fields
+     * @param keys          group fields
+     * @param aggs          aggregate functions,  use the same Agg instance to get the result from the row
+     */
+    SDFrame<GroupingRow> cube(List<Function<T,?>> keys, List<? extends Agg<T,?>> aggs);
+
+    /**
+     * Grouping sets in one pass,  same as GROUP BY GROUPING SETS(...) of sql
+     * @param keys          all group fields
+     * @param sets          index of group fields of each grouping set,  empty array for the grand total.  such as Arrays.asList(new int[]{0, 1}, new int[]{0}, new int[]{})
+     * @param aggs          aggregate functions,  use the same Agg instance to get the result from the row
+     */
+    SDFrame<GroupingRow> groupingSets(List<Function<T,?>> keys, List<int[]> sets, List<? extends Agg<T,?>> aggs);
+
 
     /**
      * Group average
@@ -265,6 +382,16 @@ public interface IGroupSDFrame<T>  extends IGroupFrame<T> {
                                                                                          Function<T, J> key2,
                                                                                          Function<T, V> value);
 
+    /**
+     * Group top N rankings element
+     *          The same value is considered to have the same ranking, so more than n elements may be kept when the last ranking is tied.
+     *          a bounded heap of size n is kept per group,  the element list is sorted by the sorter
+     * @param key       group field
+     * @param sorter    the ranking sorter
+     * @param n         the top n
+     */
+    <K> SDFrame<FI2<K, List<T>>> groupByTopN(Function<T, K> key, Sorter<T> sorter, int n);
+
     /**
      * Group Concat
      * @param key                          group field
@@ -1,10 +1,16 @@
 package io.github.burukeyou.dataframe.iframe;
 
+import io.github.burukeyou.dataframe.iframe.function.CompareTwo;
 import io.github.burukeyou.dataframe.iframe.support.DefaultJoin;
 import io.github.burukeyou.dataframe.iframe.support.Join;
+import io.github.burukeyou.dataframe.iframe.support.JoinIndex;
 import io.github.burukeyou.dataframe.iframe.support.JoinOn;
 import io.github.burukeyou.dataframe.iframe.support.VoidJoin;
 
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
 /**
  * @author  caizhihao
  *
@@ -174,4 +180,604 @@ public interface IJoinSDFrame<T> extends IJoinFrame<T> {
      */
     <K> SDFrame<T> rightJoinOnceVoid(IFrame<K> other, JoinOn<T,K> on, VoidJoin<T,K> join);
 
+
+    /**
+     * inner join Frame by key,  use hash join
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> join(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * inner join Frame by key,  use hash join
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> joinOnce(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * just Execute inner join operation by key， will not change the data of the frame
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> joinVoid(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, VoidJoin<T,K> join);
+
+    /**
+     * just Execute inner join operation by key， will not change the data of the frame
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> joinOnceVoid(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, VoidJoin<T,K> join);
+
+    /**
+     * left join Frame by key,  use hash join
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> leftJoin(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * left join Frame by key,  use hash join
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> leftJoinOnce(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * just Execute left join operation by key， will not change the data of the frame
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> leftJoinVoid(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, VoidJoin<T,K> join);
+
+    /**
+     * just Execute left join operation by key， will not change the data of the frame
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> leftJoinOnceVoid(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, VoidJoin<T,K> join);
+
+    /**
+     * right join Frame by key,  use hash join
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> rightJoin(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * right join Frame by key,  use hash join
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> rightJoinOnce(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * just Execute right join operation by key， will not change the data of the frame
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> rightJoinVoid(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, VoidJoin<T,K> join);
+
+    /**
+     * just Execute right join operation by key， will not change the data of the frame
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> rightJoinOnceVoid(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, VoidJoin<T,K> join);
+
+
+    /**
+     * inner join Frame by sort merge join
+     *      this frame and other frame must already be sorted in ascending order consistent with the comparator,  such as sortAsc by the join key
+     *      scan both frame only once,  suitable for large sorted input
+     * @param other         other frame
+     * @param on            compare the join key of this frame and other frame,  such as CompareTwo.on(T::getId, K::getId)
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     */
+    <R,K> SDFrame<R> mergeJoin(IFrame<K> other, CompareTwo<T,K> on, Join<T,K,R> join);
+
+    /**
+     * left join Frame by sort merge join,  the input must already be sorted such as {@link IFrame#mergeJoin(IFrame, CompareTwo, Join)}
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param other         other frame
+     * @param on            compare the join key of this frame and other frame,  such as CompareTwo.on(T::getId, K::getId)
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     */
+    <R,K> SDFrame<R> leftMergeJoin(IFrame<K> other, CompareTwo<T,K> on, Join<T,K,R> join);
+
+    /**
+     * right join Frame by sort merge join,  the input must already be sorted such as {@link IFrame#mergeJoin(IFrame, CompareTwo, Join)}
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     * @param other         other frame
+     * @param on            compare the join key of this frame and other frame,  such as CompareTwo.on(T::getId, K::getId)
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     */
+    <R,K> SDFrame<R> rightMergeJoin(IFrame<K> other, CompareTwo<T,K> on, Join<T,K,R> join);
+
+    /**
+     * full join Frame by sort merge join,  the input must already be sorted such as {@link IFrame#mergeJoin(IFrame, CompareTwo, Join)}
+     *      if no record matched, The callback value T or K for Join will be null， always keep T and K
+     * @param other         other frame
+     * @param on            compare the join key of this frame and other frame,  such as CompareTwo.on(T::getId, K::getId)
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     */
+    <R,K> SDFrame<R> fullMergeJoin(IFrame<K> other, CompareTwo<T,K> on, Join<T,K,R> join);
+
+
+    /**
+     * inner join Frame by key in parallel
+     *      both frame are hash partitioned by key into buckets,  every bucket is joined in the {@link java.util.concurrent.ForkJoinPool#commonPool()},  keep the order of this frame
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> joinParallel(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * inner join Frame by key in parallel
+     *      both frame are hash partitioned by key into buckets,  every bucket is joined in the executor
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param executor      executor to join the buckets,  if null use the ForkJoinPool.commonPool()
+     * @param isKeepOrder   whether keep the order of this frame,  if false the result is concatenated by bucket which is faster
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> joinParallel(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join, Executor executor, boolean isKeepOrder);
+
+    /**
+     * left join Frame by key in parallel
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     *      both frame are hash partitioned by key into buckets,  every bucket is joined in the {@link java.util.concurrent.ForkJoinPool#commonPool()},  keep the order of this frame
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> leftJoinParallel(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * left join Frame by key in parallel
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     *      both frame are hash partitioned by key into buckets,  every bucket is joined in the executor
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param executor      executor to join the buckets,  if null use the ForkJoinPool.commonPool()
+     * @param isKeepOrder   whether keep the order of this frame,  if false the result is concatenated by bucket which is faster
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> leftJoinParallel(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join, Executor executor, boolean isKeepOrder);
+
+
+    /**
+     * semi join,  keep the rows of this frame whose key exists in other
+     *      the key set of other is built once,  so it is O(n+m),  and the rows of this frame will not be repeated
+     * @param other         other frame or collection
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other
+     * @param <K>           other element type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> semiJoin(Iterable<K> other, Function<T,V> leftKey, Function<K,V> rightKey);
+
+    /**
+     * semi join in parallel,  such as {@link IFrame#semiJoin(Iterable, Function, Function)},  but filter this frame in parallel and still keep the order
+     * @param other         other frame or collection
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other
+     * @param <K>           other element type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> semiJoinParallel(Iterable<K> other, Function<T,V> leftKey, Function<K,V> rightKey);
+
+    /**
+     * anti join,  keep the rows of this frame whose key not exists in other
+     *      the key set of other is built once,  so it is O(n+m)
+     * @param other         other frame or collection
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other
+     * @param <K>           other element type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> antiJoin(Iterable<K> other, Function<T,V> leftKey, Function<K,V> rightKey);
+
+    /**
+     * anti join in parallel,  such as {@link IFrame#antiJoin(Iterable, Function, Function)},  but filter this frame in parallel and still keep the order
+     * @param other         other frame or collection
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other
+     * @param <K>           other element type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> antiJoinParallel(Iterable<K> other, Function<T,V> leftKey, Function<K,V> rightKey);
+
+
+    /**
+     * inner join Frame by prebuilt index
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> join(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * inner join Frame by prebuilt index
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> joinOnce(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * just Execute inner join operation by prebuilt index， will not change the data of the frame
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> joinVoid(JoinIndex<K,V> index, Function<T,V> leftKey, VoidJoin<T,K> join);
+
+    /**
+     * just Execute inner join operation by prebuilt index， will not change the data of the frame
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> joinOnceVoid(JoinIndex<K,V> index, Function<T,V> leftKey, VoidJoin<T,K> join);
+
+    /**
+     * left join Frame by prebuilt index
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> leftJoin(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * left join Frame by prebuilt index
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> leftJoinOnce(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * just Execute left join operation by prebuilt index， will not change the data of the frame
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> leftJoinVoid(JoinIndex<K,V> index, Function<T,V> leftKey, VoidJoin<T,K> join);
+
+    /**
+     * just Execute left join operation by prebuilt index， will not change the data of the frame
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> leftJoinOnceVoid(JoinIndex<K,V> index, Function<T,V> leftKey, VoidJoin<T,K> join);
+
+    /**
+     * right join Frame by prebuilt index
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     *      matched rows follow the order of this frame,  the unmatched rows of the index are at the end
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> rightJoin(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * right join Frame by prebuilt index
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     *      matched rows follow the order of this frame,  the unmatched rows of the index are at the end
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> rightJoinOnce(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * just Execute right join operation by prebuilt index， will not change the data of the frame
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> rightJoinVoid(JoinIndex<K,V> index, Function<T,V> leftKey, VoidJoin<T,K> join);
+
+    /**
+     * just Execute right join operation by prebuilt index， will not change the data of the frame
+     *      if no record matched, The callback value T for Join will be null， always keep K
+     *      If successfully associated with other Frame record, it will only be associated once
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          join operation
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> rightJoinOnceVoid(JoinIndex<K,V> index, Function<T,V> leftKey, VoidJoin<T,K> join);
+
+    /**
+     * inner join Frame by prebuilt index in parallel,  keep the order of this frame
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> joinParallel(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * left join Frame by prebuilt index in parallel,  keep the order of this frame
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> leftJoinParallel(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+    /**
+     * semi join by prebuilt index,  keep the rows of this frame whose key exists in the index
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> semiJoin(JoinIndex<K,V> index, Function<T,V> leftKey);
+
+    /**
+     * anti join by prebuilt index,  keep the rows of this frame whose key not exists in the index
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <K,V> SDFrame<T> antiJoin(JoinIndex<K,V> index, Function<T,V> leftKey);
+
+    /**
+     * full join Frame by prebuilt index
+     *      if no record matched, The callback value T or K for Join will be null， always keep T and K
+     *      the unmatched rows of the index are after all the rows of this frame
+     * @param index         prebuilt index of other frame,  see {@link JoinIndex#of(IFrame, Function)}
+     * @param leftKey       join key of this frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> fullJoin(JoinIndex<K,V> index, Function<T,V> leftKey, Join<T,K,R> join);
+
+
+    /**
+     * as of join Frame
+     *      each row of this frame joins the latest row of other whose time is less than or equal to its time,  such as the price effective at the trade time
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param other         other frame
+     * @param leftTime      time of this frame
+     * @param rightTime     effective time of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           time type
+     */
+    <R,K,V extends Comparable<? super V>> SDFrame<R> asOfJoin(IFrame<K> other, Function<T,V> leftTime, Function<K,V> rightTime, Join<T,K,R> join);
+
+    /**
+     * as of join Frame in each partition
+     *      each row of this frame joins the latest row of other in the same partition whose time is less than or equal to its time,  such as the FX rate of the currency effective at the trade time
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param other             other frame
+     * @param leftTime          time of this frame
+     * @param rightTime         effective time of other frame
+     * @param leftPartition     partition key of this frame
+     * @param rightPartition    partition key of other frame
+     * @param join              Connection logic
+     * @param <R>               new Frame type
+     * @param <K>               other Frame type
+     * @param <V>               time type
+     * @param <P>               partition key type
+     */
+    <R,K,V extends Comparable<? super V>,P> SDFrame<R> asOfJoin(IFrame<K> other, Function<T,V> leftTime, Function<K,V> rightTime,
+                                                           Function<T,P> leftPartition, Function<K,P> rightPartition, Join<T,K,R> join);
+
+    /**
+     * range join Frame
+     *      each row of this frame joins the rows of other whose range [start, end] contains its value,  null start or end means unbounded
+     * @param other         other frame
+     * @param leftValue     value of this frame
+     * @param rightStart    range start of other frame, inclusive
+     * @param rightEnd      range end of other frame, inclusive
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           value type
+     */
+    <R,K,V extends Comparable<? super V>> SDFrame<R> rangeJoin(IFrame<K> other, Function<T,V> leftValue, Function<K,V> rightStart, Function<K,V> rightEnd, Join<T,K,R> join);
+
+
+    /**
+     * full join Frame by key,  use hash join
+     *      if no record matched, The callback value T or K for Join will be null， always keep T and K
+     *      the unmatched rows of other are after all the rows of this frame
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new Frame type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> SDFrame<R> fullJoin(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * inner join by key,  but return a lazy stream instead of frame
+     *      only the hash table of other is built eagerly,  the joined rows are produced while consuming the stream,  so there is no need to materialize all the result
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new element type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> Stream<R> joinStream(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * left join by key,  but return a lazy stream instead of frame,  such as {@link #joinStream(IFrame, Function, Function, Join)}
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new element type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> Stream<R> leftJoinStream(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
+    /**
+     * full join by key,  but return a lazy stream instead of frame,  such as {@link #joinStream(IFrame, Function, Function, Join)}
+     *      the unmatched rows of other are produced after all the rows of this frame are consumed,
+     *      the joined rows are always pulled in order by one thread at a time,  so parallel() only parallelizes the downstream operations
+     * @param other         other frame
+     * @param leftKey       join key of this frame
+     * @param rightKey      join key of other frame
+     * @param join          Connection logic
+     * @param <R>           new element type
+     * @param <K>           other Frame type
+     * @param <V>           join key type
+     */
+    <R,K,V> Stream<R> fullJoinStream(IFrame<K> other, Function<T,V> leftKey, Function<K,V> rightKey, Join<T,K,R> join);
+
 }
@@ -82,6 +82,7 @@ public interface IOperationFrame<T> {
 
     /**
      * Retains only the elements in this list that are contained in the specified collection
+     *      compare with every element of other,  if just compare by equal key use {@link IJoinFrame#semiJoin(Iterable, java.util.function.Function, java.util.function.Function)} which is O(n+m)
      * @return                   other collection
      * @param comparator         repetitive judgment comparator
      */
@@ -150,6 +151,7 @@ public interface IOperationFrame<T> {
     /**
      * different other collection
      *      Elements that are not within the other frame
+     *      compare with every element of other,  if just compare by equal key use {@link IJoinFrame#antiJoin(Iterable, java.util.function.Function, java.util.function.Function)} which is O(n+m)
      * @return                   other collection
      * @param comparator         repetitive judgment comparator
      */
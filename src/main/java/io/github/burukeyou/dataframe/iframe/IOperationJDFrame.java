@@ -148,6 +148,7 @@ public interface IOperationJDFrame<T>  extends IOperationFrame<T> {
     /**
      * different other collection
      *      Elements that are not within the other frame
+     *      compare with every element of other,  if just compare by equal key use {@link IJoinFrame#antiJoin(Iterable, java.util.function.Function, java.util.function.Function)} which is O(n+m)
      * @return                   other collection
      * @param comparator         repetitive judgment comparator
      */
@@ -150,6 +150,7 @@ public interface IOperationSDFrame<T> extends IOperationFrame<T> {
     /**
      * different other collection
      *      Elements that are not within the other frame
+     *      compare with every element of other,  if just compare by equal key use {@link IJoinFrame#antiJoin(Iterable, java.util.function.Function, java.util.function.Function)} which is O(n+m)
      * @return                   other collection
      * @param comparator         repetitive judgment comparator
      */
@@ -0,0 +1,68 @@
+package io.github.burukeyou.dataframe.iframe;
+
+import io.github.burukeyou.dataframe.iframe.function.NumberFunction;
+import io.github.burukeyou.dataframe.iframe.item.WindowDoubles;
+import io.github.burukeyou.dataframe.iframe.item.WindowInts;
+import io.github.burukeyou.dataframe.iframe.window.Window;
+
+import java.util.function.Function;
+
+/**
+ * Window functions whose result is not a frame
+ *      the primitive result is an array aligned with the rows in the window order,  no tuple is created per row
+ *
+ * @author  caizhihao
+ * @param <T>
+ */
+public interface IOverFrame<T> {
+
+    /**
+     * rowNumber window function with primitive result
+     * @param overParam           window param
+     */
+    WindowInts<T> overRowNumberInts(Window<T> overParam);
+
+    /**
+     * rank window function with primitive result
+     * @param overParam           window param
+     */
+    WindowInts<T> overRankInts(Window<T> overParam);
+
+    /**
+     * denseRank window function with primitive result
+     * @param overParam           window param
+     */
+    WindowInts<T> overDenseRankInts(Window<T> overParam);
+
+    /**
+     * sum window function with primitive result,  null value is 0 and empty window is NaN
+     *      computed by double prefix sums,  use overSum for exact decimal
+     * @param overParam           window param
+     * @param field               field value
+     */
+    <R extends Number> WindowDoubles<T> overSumDoubles(Window<T> overParam, NumberFunction<T,R> field);
+
+    /**
+     * avg window function with primitive result,  null value is 0 and empty window is NaN
+     * @param overParam           window param
+     * @param field               field value
+     */
+    <R extends Number> WindowDoubles<T> overAvgDoubles(Window<T> overParam, NumberFunction<T,R> field);
+
+    /**
+     * median window function with primitive result,  null value is ignored and empty window is NaN
+     *      the median of even size is the mean of the two middle values.
+     *      maintained incrementally as the window slides,  O(n log w)
+     * @param overParam           window param
+     * @param field               field value
+     */
+    <R extends Number> WindowDoubles<T> overMedianDoubles(Window<T> overParam, NumberFunction<T,R> field);
+
+    /**
+     * distinct count window function with primitive result,  null value is ignored
+     *      maintained incrementally as the window slides,  O(n)
+     * @param overParam           window param
+     * @param field               field value
+     */
+    <F> WindowInts<T> overCountDistinctInts(Window<T> overParam, Function<T,F> field);
+}
@@ -1,5 +1,6 @@
 package io.github.burukeyou.dataframe.iframe;
 
+import io.github.burukeyou.dataframe.iframe.function.Monoid;
 import io.github.burukeyou.dataframe.iframe.function.SetFunction;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.window.Window;
@@ -11,7 +12,7 @@ import java.util.function.Function;
  * @author  caizhihao
  * @param <T>
  */
-public interface IOverSDFrame<T> {
+public interface IOverSDFrame<T> extends IOverFrame<T> {
 
 
     /**
@@ -299,6 +300,43 @@ public interface IOverSDFrame<T> {
      */
     <F> SDFrame<T> overSumS(SetFunction<T,BigDecimal> setFunction, Function<T,F> field);
 
+    /**
+     * Custom aggregate window function
+     *         combine the field values within the window range by an associative monoid,  null value is the identity
+     *         each window costs O(1) for invertible monoid,  otherwise O(log n)
+     * @param overParam                  window param
+     * @param field                      field value
+     * @param monoid                     associative aggregate
+     */
+    <V> SDFrame<FI2<T,V>> overAggregate(Window<T> overParam, Function<T,V> field, Monoid<V> monoid);
+
+    /**
+     * Custom aggregate window function
+     *         combine the field values within the window range by an associative monoid
+     * @param field                      field value
+     * @param monoid                     associative aggregate
+     */
+    <V> SDFrame<FI2<T,V>> overAggregate(Function<T,V> field, Monoid<V> monoid);
+
+    /**
+     * Custom aggregate window function
+     *         combine the field values within the window range by an associative monoid
+     * @param setFunction                function result accept
+     * @param overParam                  window param
+     * @param field                      field value
+     * @param monoid                     associative aggregate
+     */
+    <V> SDFrame<T> overAggregateS(SetFunction<T,V> setFunction, Window<T> overParam, Function<T,V> field, Monoid<V> monoid);
+
+    /**
+     * Custom aggregate window function
+     *         combine the field values within the window range by an associative monoid
+     * @param setFunction                function result accept
+     * @param field                      field value
+     * @param monoid                     associative aggregate
+     */
+    <V> SDFrame<T> overAggregateS(SetFunction<T,V> setFunction, Function<T,V> field, Monoid<V> monoid);
+
     /**
      * avg window function
      *         calculate the avg value within the window range
@@ -423,6 +461,139 @@ public interface IOverSDFrame<T> {
      */
     SDFrame<T> overCountS(SetFunction<T,Integer> setFunction);
 
+    /**
+     * percentile window function
+     *         calculate the exact percentile within the window range,  linear interpolation between the closest ranks,
+     *         same as the median when q is 0.5
+     * @param overParam                  window param
+     * @param field                      field value
+     * @param q                          quantile between 0 and 1
+     */
+    <F extends Number> SDFrame<FI2<T,BigDecimal>> overPercentile(Window<T> overParam, Function<T,F> field, double q);
+
+    /**
+     * percentile window function
+     *         calculate the percentile within the window range,  same as overPercentile(overParam, field, q)
+     * @param field                      field value
+     * @param q                          quantile between 0 and 1
+     */
+    <F extends Number> SDFrame<FI2<T,BigDecimal>> overPercentile(Function<T,F> field, double q);
+
+    /**
+     * percentile window function
+     *         calculate the percentile within the window range,  same as overPercentile(overParam, field, q)
+     * @param setFunction                function result accept
+     * @param overParam                  window param
+     * @param field                      field value
+     * @param q                          quantile between 0 and 1
+     */
+    <F extends Number> SDFrame<T> overPercentileS(SetFunction<T,BigDecimal> setFunction, Window<T> overParam, Function<T,F> field, double q);
+
+    /**
+     * percentile window function
+     *         calculate the percentile within the window range,  same as overPercentile(overParam, field, q)
+     * @param setFunction                function result accept
+     * @param field                      field value
+     * @param q                          quantile between 0 and 1
+     */
+    <F extends Number> SDFrame<T> overPercentileS(SetFunction<T,BigDecimal> setFunction, Function<T,F> field, double q);
+
+    /**
+     * Median window function
+     *         calculate the median within the window range,  null value is ignored and empty window is null
+     * @param overParam                  window param
+     * @param field                      field value
+     */
+    <F extends Number> SDFrame<FI2<T,BigDecimal>> overMedian(Window<T> overParam, Function<T,F> field);
+
+    /**
+     * Median window function
+     *         calculate the median within the window range,  null value is ignored and empty window is null
+     * @param field                      field value
+     */
+    <F extends Number> SDFrame<FI2<T,BigDecimal>> overMedian(Function<T,F> field);
+
+    /**
+     * Median window function
+     *         calculate the median within the window range,  null value is ignored and empty window is null
+     * @param setFunction                function result accept
+     * @param overParam                  window param
+     * @param field                      field value
+     */
+    <F extends Number> SDFrame<T> overMedianS(SetFunction<T,BigDecimal> setFunction, Window<T> overParam, Function<T,F> field);
+
+    /**
+     * Median window function
+     *         calculate the median within the window range,  null value is ignored and empty window is null
+     * @param setFunction                function result accept
+     * @param field                      field value
+     */
+    <F extends Number> SDFrame<T> overMedianS(SetFunction<T,BigDecimal> setFunction, Function<T,F> field);
+
+    /**
+     * CountDistinct window function
+     *         calculate the number of distinct values within the window range,  null value is ignored
+     * @param overParam                  window param
+     * @param field                      field value
+     */
+    <F> SDFrame<FI2<T,Integer>> overCountDistinct(Window<T> overParam, Function<T,F> field);
+
+    /**
+     * CountDistinct window function
+     *         calculate the number of distinct values within the window range,  null value is ignored
+     * @param field                      field value
+     */
+    <F> SDFrame<FI2<T,Integer>> overCountDistinct(Function<T,F> field);
+
+    /**
+     * CountDistinct window function
+     *         calculate the number of distinct values within the window range,  null value is ignored
+     * @param setFunction                function result accept
+     * @param overParam                  window param
+     * @param field                      field value
+     */
+    <F> SDFrame<T> overCountDistinctS(SetFunction<T,Integer> setFunction, Window<T> overParam, Function<T,F> field);
+
+    /**
+     * CountDistinct window function
+     *         calculate the number of distinct values within the window range,  null value is ignored
+     * @param setFunction                function result accept
+     * @param field                      field value
+     */
+    <F> SDFrame<T> overCountDistinctS(SetFunction<T,Integer> setFunction, Function<T,F> field);
+
+    /**
+     * Mode window function
+     *         the most frequent value within the window range,  the smallest value wins on tie,  null value is ignored
+     * @param overParam                  window param
+     * @param field                      field value
+     */
+    <F extends Comparable<? super F>> SDFrame<FI2<T,F>> overMode(Window<T> overParam, Function<T,F> field);
+
+    /**
+     * Mode window function
+     *         the most frequent value within the window range,  the smallest value wins on tie,  null value is ignored
+     * @param field                      field value
+     */
+    <F extends Comparable<? super F>> SDFrame<FI2<T,F>> overMode(Function<T,F> field);
+
+    /**
+     * Mode window function
+     *         the most frequent value within the window range,  the smallest value wins on tie,  null value is ignored
+     * @param setFunction                function result accept
+     * @param overParam                  window param
+     * @param field                      field value
+     */
+    <F extends Comparable<? super F>> SDFrame<T> overModeS(SetFunction<T,F> setFunction, Window<T> overParam, Function<T,F> field);
+
+    /**
+     * Mode window function
+     *         the most frequent value within the window range,  the smallest value wins on tie,  null value is ignored
+     * @param setFunction                function result accept
+     * @param field                      field value
+     */
+    <F extends Comparable<? super F>> SDFrame<T> overModeS(SetFunction<T,F> setFunction, Function<T,F> field);
+
     /**
      * Ntile window function
      *         assign bucket numbers evenly to windows, starting from 1
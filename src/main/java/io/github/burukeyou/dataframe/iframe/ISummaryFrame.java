@@ -5,6 +5,8 @@ import io.github.burukeyou.dataframe.iframe.support.MaxMin;
 import java.math.BigDecimal;
 import java.util.Comparator;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Summary Frame data
@@ -25,6 +27,24 @@ public interface ISummaryFrame<T> {
      */
     <R> BigDecimal avg(Function<T, R> function);
 
+    /**
+     * Sum the values of the field with primitive long,  no BigDecimal is created
+     * @param function      the  field
+     */
+    long sumLong(ToLongFunction<T> function);
+
+    /**
+     * Sum the values of the field with primitive double and compensated summation
+     * @param function      the  field
+     */
+    double sumDouble(ToDoubleFunction<T> function);
+
+    /**
+     * average the values of the field with primitive double,  null if empty
+     * @param function      the  field
+     */
+    BigDecimal avgDouble(ToDoubleFunction<T> function);
+
     /**
      * Finding the maximum and minimum element
      * @param function      the  field
@@ -75,4 +95,34 @@ public interface ISummaryFrame<T> {
      * Calculate the quantity after deduplication
      */
     <R extends Comparable<R>> long countDistinct(Function<T, R> function);
+
+    /**
+     * Approximate count of distinct not null value by HyperLogLog with default precision,  the standard error is about 0.81%
+     * @param function      the  field
+     */
+    long approxCountDistinct(Function<T, ?> function);
+
+    /**
+     * Approximate count of distinct not null value by HyperLogLog with bounded memory
+     * @param function      the  field
+     * @param precision     between 4 and 18,  memory is 2^precision bytes and standard error is about 1.04 / sqrt(2^precision)
+     */
+    long approxCountDistinct(Function<T, ?> function, int precision);
+
+    /**
+     * Approximate percentile by t-digest with default compression,  exact if there are at most 500 values
+     * @param function      the  field
+     * @param q             quantile between 0 and 1,  such as 0.5 for median and 0.99 for p99
+     * @return              the percentile with the scale of frame,  null if all value is null
+     */
+    <R extends Number> BigDecimal percentile(Function<T, R> function, double q);
+
+    /**
+     * Approximate percentile by t-digest with bounded memory
+     * @param function      the  field
+     * @param q             quantile between 0 and 1
+     * @param compression   at least 10,  larger is more accurate.  exact if there are at most 5 * compression values
+     * @return              the percentile with the scale of frame,  null if all value is null
+     */
+    <R extends Number> BigDecimal percentile(Function<T, R> function, double q, double compression);
 }
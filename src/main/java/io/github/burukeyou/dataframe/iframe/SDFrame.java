@@ -4,6 +4,7 @@ import io.github.burukeyou.dataframe.iframe.function.*;
 import io.github.burukeyou.dataframe.iframe.impl.SDFrameImpl;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.item.FI3;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
 import io.github.burukeyou.dataframe.iframe.window.Sorter;
 import io.github.burukeyou.dataframe.iframe.window.Window;
 import io.github.burukeyou.dataframe.util.FrameUtil;
@@ -14,6 +15,7 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -105,6 +107,30 @@ public interface SDFrame<T> extends ConfigurableSDFrame<T> {
      */
     SDFrame<T> defaultScale(int scale, RoundingMode roundingMode);
 
+    /**
+     * Set numeric mode of summation and average,  default is BIG_DECIMAL
+     * @see NumericMode
+     */
+    SDFrame<T> numericMode(NumericMode numericMode);
+
+    /**
+     * Group in parallel with {@link java.util.concurrent.ForkJoinPool#commonPool()}
+     *      the data is split into chunks,  each chunk is aggregated into its own hash table and then merged in order,
+     *      so the result is the same as sequential.  the key and value functions must be thread safe
+     */
+    SDFrame<T> parallel();
+
+    /**
+     * Group in parallel with the executor
+     * @param executor      executor to aggregate the chunks
+     */
+    SDFrame<T> parallel(Executor executor);
+
+    /**
+     * Group in sequential,  it is the default mode
+     */
+    SDFrame<T> sequential();
+
 
     /**
      * ===========================   Frame Info =====================================
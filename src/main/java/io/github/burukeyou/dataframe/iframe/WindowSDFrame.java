@@ -1,7 +1,10 @@
 package io.github.burukeyou.dataframe.iframe;
 
+import io.github.burukeyou.dataframe.iframe.function.Monoid;
 import io.github.burukeyou.dataframe.iframe.function.SetFunction;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
+import io.github.burukeyou.dataframe.iframe.window.WindowFunction;
+import io.github.burukeyou.dataframe.iframe.window.WindowPlan;
 
 import java.math.BigDecimal;
 import java.util.function.Function;
@@ -175,6 +178,23 @@ public interface WindowSDFrame<T> extends SDFrame<T>  {
      */
     <F> WindowSDFrame<T> overSumS(SetFunction<T,BigDecimal> setFunction, Function<T,F> field);
 
+    /**
+     * custom aggregate window function
+     *         combine the field values within the window range by an associative monoid
+     * @param field                      field value
+     * @param monoid                     associative aggregate
+     */
+    <V> SDFrame<FI2<T,V>> overAggregate(Function<T,V> field, Monoid<V> monoid);
+
+    /**
+     * custom aggregate window function
+     *         combine the field values within the window range by an associative monoid
+     * @param setFunction                function result accept
+     * @param field                      field value
+     * @param monoid                     associative aggregate
+     */
+    <V> WindowSDFrame<T> overAggregateS(SetFunction<T,V> setFunction, Function<T,V> field, Monoid<V> monoid);
+
     /**
      * avg window function
      *         calculate the avg value within the window range
@@ -234,6 +254,69 @@ public interface WindowSDFrame<T> extends SDFrame<T>  {
      */
     WindowSDFrame<T> overCountS(SetFunction<T,Integer> setFunction);
 
+    /**
+     * percentile window function
+     *         calculate the exact percentile within the window range,  linear interpolation between the closest ranks,
+     *         same as the median when q is 0.5
+     * @param field                      field value
+     * @param q                          quantile between 0 and 1
+     */
+    <F extends Number> SDFrame<FI2<T,BigDecimal>> overPercentile(Function<T,F> field, double q);
+
+    /**
+     * percentile window function
+     *         calculate the percentile within the window range,  same as overPercentile(field, q)
+     * @param setFunction                function result accept
+     * @param field                      field value
+     * @param q                          quantile between 0 and 1
+     */
+    <F extends Number> WindowSDFrame<T> overPercentileS(SetFunction<T,BigDecimal> setFunction, Function<T,F> field, double q);
+
+    /**
+     * median window function
+     *         calculate the median within the window range,  null value is ignored and empty window is null
+     * @param field                      field value
+     */
+    <F extends Number> SDFrame<FI2<T,BigDecimal>> overMedian(Function<T,F> field);
+
+    /**
+     * median window function
+     *         calculate the median within the window range,  null value is ignored and empty window is null
+     * @param setFunction                function result accept
+     * @param field                      field value
+     */
+    <F extends Number> WindowSDFrame<T> overMedianS(SetFunction<T,BigDecimal> setFunction, Function<T,F> field);
+
+    /**
+     * countDistinct window function
+     *         calculate the number of distinct values within the window range,  null value is ignored
+     * @param field                      field value
+     */
+    <F> SDFrame<FI2<T,Integer>> overCountDistinct(Function<T,F> field);
+
+    /**
+     * countDistinct window function
+     *         calculate the number of distinct values within the window range,  null value is ignored
+     * @param setFunction                function result accept
+     * @param field                      field value
+     */
+    <F> WindowSDFrame<T> overCountDistinctS(SetFunction<T,Integer> setFunction, Function<T,F> field);
+
+    /**
+     * mode window function
+     *         the most frequent value within the window range,  the smallest value wins on tie,  null value is ignored
+     * @param field                      field value
+     */
+    <F extends Comparable<? super F>> SDFrame<FI2<T,F>> overMode(Function<T,F> field);
+
+    /**
+     * mode window function
+     *         the most frequent value within the window range,  the smallest value wins on tie,  null value is ignored
+     * @param setFunction                function result accept
+     * @param field                      field value
+     */
+    <F extends Comparable<? super F>> WindowSDFrame<T> overModeS(SetFunction<T,F> setFunction, Function<T,F> field);
+
     /**
      * Ntile window function
      *         assign bucket numbers evenly to windows, starting from 1
@@ -248,4 +331,11 @@ public interface WindowSDFrame<T> extends SDFrame<T>  {
      * @param n              size of buckets
      */
     WindowSDFrame<T> overNtileS(SetFunction<T,Integer> setFunction, int n);
+
+    /**
+     * open a window plan,  all window functions share one partition and sort pass over the window
+     *      such as compute(WindowFunction.rowNumber(..)).compute(WindowFunction.sum(..)).compute(WindowFunction.lag(..)).execute()
+     * @param function          the first window function of the plan
+     */
+    WindowPlan<T, WindowSDFrame<T>> compute(WindowFunction<T> function);
 }
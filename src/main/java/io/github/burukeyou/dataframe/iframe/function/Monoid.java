@@ -0,0 +1,84 @@
+package io.github.burukeyou.dataframe.iframe.function;
+
+import java.util.function.BinaryOperator;
+
+/**
+ * Associative aggregate with an identity,  used by the custom window aggregate
+ *      combine(identity, v) = v and combine(combine(a, b), c) = combine(a, combine(b, c)).
+ *      an invertible aggregate (such as sum) also provides subtract,  so a window is answered by two prefix aggregates in O(1),
+ *      otherwise a segment tree answers it in O(log n)
+ *
+ * @author          caizhihao
+ * @param <V>       value type,  should be immutable
+ */
+public interface Monoid<V> {
+
+    /**
+     * create a monoid
+     * @param identity          the aggregate of nothing
+     * @param combine           associative combine function
+     */
+    static <V> Monoid<V> of(V identity, BinaryOperator<V> combine){
+        return of(identity, combine, null);
+    }
+
+    /**
+     * create an invertible monoid
+     * @param identity          the aggregate of nothing
+     * @param combine           associative combine function
+     * @param subtract          inverse of combine,  subtract(combine(a, b), a) = b
+     */
+    static <V> Monoid<V> of(V identity, BinaryOperator<V> combine, BinaryOperator<V> subtract){
+        if (combine == null){
+            throw new IllegalArgumentException("combine function can not be null");
+        }
+        return new Monoid<V>() {
+            @Override
+            public V identity() {
+                return identity;
+            }
+
+            @Override
+            public V combine(V a, V b) {
+                return combine.apply(a, b);
+            }
+
+            @Override
+            public boolean isInvertible() {
+                return subtract != null;
+            }
+
+            @Override
+            public V subtract(V a, V b) {
+                if (subtract == null){
+                    throw new UnsupportedOperationException("monoid is not invertible");
+                }
+                return subtract.apply(a, b);
+            }
+        };
+    }
+
+    /**
+     * the aggregate of nothing,  also the result of empty window
+     */
+    V identity();
+
+    /**
+     * associative combine,  a is before b
+     */
+    V combine(V a, V b);
+
+    /**
+     * @return      true if subtract is supported
+     */
+    default boolean isInvertible(){
+        return false;
+    }
+
+    /**
+     * remove the prefix b from the aggregate a
+     */
+    default V subtract(V a, V b){
+        throw new UnsupportedOperationException("monoid is not invertible");
+    }
+}
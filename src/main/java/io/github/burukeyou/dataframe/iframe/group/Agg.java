@@ -0,0 +1,112 @@
+package io.github.burukeyou.dataframe.iframe.group;
+
+import io.github.burukeyou.dataframe.iframe.function.NumberFunction;
+import io.github.burukeyou.dataframe.util.HyperLogLog;
+import io.github.burukeyou.dataframe.util.TDigest;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Aggregate function of group
+ *      multi aggregate functions are computed in one pass with one accumulator per group,  null value is ignored
+ *      the result of each aggregate can be got from the row by the same Agg instance
+ *
+ * @author          caizhihao
+ * @param <T>       element type
+ * @param <V>       aggregate result type
+ */
+public interface Agg<T,V> {
+
+    /**
+     * Summation,  null if all value is null
+     * @param value         aggregated field
+     */
+    static <T,R extends Number> Agg<T,BigDecimal> sum(NumberFunction<T,R> value){
+        return AggImpl.sum(value);
+    }
+
+    /**
+     * Average with the scale of frame,  null if all value is null
+     * @param value         aggregated field
+     */
+    static <T,R extends Number> Agg<T,BigDecimal> avg(NumberFunction<T,R> value){
+        return AggImpl.avg(value);
+    }
+
+    /**
+     * Count of rows
+     */
+    static <T> Agg<T,Long> count(){
+        return AggImpl.count(null);
+    }
+
+    /**
+     * Count of not null value
+     * @param value         counted field
+     */
+    static <T> Agg<T,Long> count(Function<T,?> value){
+        return AggImpl.count(value);
+    }
+
+    /**
+     * Count of distinct not null value
+     * @param value         counted field
+     */
+    static <T> Agg<T,Long> countDistinct(Function<T,?> value){
+        return AggImpl.countDistinct(value);
+    }
+
+    /**
+     * Approximate count of distinct not null value by HyperLogLog with default precision
+     * @param value         counted field
+     */
+    static <T> Agg<T,Long> approxCountDistinct(Function<T,?> value){
+        return AggImpl.approxCountDistinct(value, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * Approximate count of distinct not null value by HyperLogLog
+     * @param value         counted field
+     * @param precision     between 4 and 18,  memory is 2^precision bytes per group and standard error is about 1.04 / sqrt(2^precision)
+     */
+    static <T> Agg<T,Long> approxCountDistinct(Function<T,?> value, int precision){
+        return AggImpl.approxCountDistinct(value, precision);
+    }
+
+    /**
+     * Approximate percentile by t-digest with default compression and the scale of frame,  null if all value is null
+     *      exact if the group has at most 500 values
+     * @param value         aggregated field
+     * @param q             quantile between 0 and 1,  such as 0.5 for median and 0.99 for p99
+     */
+    static <T,R extends Number> Agg<T,BigDecimal> percentile(NumberFunction<T,R> value, double q){
+        return AggImpl.percentile(value, q, TDigest.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Approximate percentile by t-digest with the scale of frame,  null if all value is null
+     * @param value         aggregated field
+     * @param q             quantile between 0 and 1
+     * @param compression   at least 10,  larger is more accurate.  exact if the group has at most 5 * compression values
+     */
+    static <T,R extends Number> Agg<T,BigDecimal> percentile(NumberFunction<T,R> value, double q, double compression){
+        return AggImpl.percentile(value, q, compression);
+    }
+
+    /**
+     * Max value
+     * @param value         compared field
+     */
+    static <T,V extends Comparable<? super V>> Agg<T,V> max(Function<T,V> value){
+        return AggImpl.max(value);
+    }
+
+    /**
+     * Min value
+     * @param value         compared field
+     */
+    static <T,V extends Comparable<? super V>> Agg<T,V> min(Function<T,V> value){
+        return AggImpl.min(value);
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.burukeyou.dataframe.iframe.group;
+
+import io.github.burukeyou.dataframe.iframe.function.NumberFunction;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
+import io.github.burukeyou.dataframe.util.HyperLogLog;
+import io.github.burukeyou.dataframe.util.NumberAccumulator;
+import io.github.burukeyou.dataframe.util.TDigest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * @author          caizhihao
+ * @param <T>       element type
+ * @param <A>       accumulator type
+ * @param <V>       aggregate result type
+ */
+public final class AggImpl<T,A,V> implements Agg<T,V> {
+
+    private final String name;
+
+    private final Function<NumericMode,A> newAcc;
+
+    private final BiConsumer<A,T> add;
+
+    private final BiConsumer<A,A> merge;
+
+    private final AggFinisher<A,V> finisher;
+
+    /**
+     * 撤回一行, 为null时不可撤回
+     */
+    private final BiConsumer<A,T> retract;
+
+    AggImpl(String name, Function<NumericMode,A> newAcc, BiConsumer<A, T> add, BiConsumer<A, A> merge, AggFinisher<A, V> finisher) {
+        this(name, newAcc, add, merge, finisher, null);
+    }
+
+    AggImpl(String name, Function<NumericMode,A> newAcc, BiConsumer<A, T> add, BiConsumer<A, A> merge, AggFinisher<A, V> finisher, BiConsumer<A, T> retract) {
+        this.name = name;
+        this.newAcc = newAcc;
+        this.add = add;
+        this.merge = merge;
+        this.finisher = finisher;
+        this.retract = retract;
+    }
+
+    @FunctionalInterface
+    interface AggFinisher<A,V> {
+        V finish(A acc, int scale, RoundingMode roundingMode);
+    }
+
+    public A newAcc(NumericMode mode){
+        return newAcc.apply(mode);
+    }
+
+    public void add(A acc, T row){
+        add.accept(acc,row);
+    }
+
+    /**
+     * merge other accumulator into acc
+     */
+    public void merge(A acc, A other){
+        merge.accept(acc,other);
+    }
+
+    public V finish(A acc, int scale, RoundingMode roundingMode){
+        return finisher.finish(acc,scale,roundingMode);
+    }
+
+    /**
+     * @return      true if the row added before can be retracted,  such as sum, avg and count
+     */
+    public boolean isInvertible(){
+        return retract != null;
+    }
+
+    /**
+     * remove the row added before
+     */
+    public void retract(A acc, T row){
+        if (retract == null) {
+            throw new UnsupportedOperationException("aggregate function " + name + " can not be retracted");
+        }
+        retract.accept(acc,row);
+    }
+
+    static <T,R extends Number> AggImpl<T,NumberAccumulator,BigDecimal> sum(NumberFunction<T,R> value){
+        return new AggImpl<>("sum", NumberAccumulator::new, (a, t) -> a.add(t == null ? null : value.apply(t)),
+                NumberAccumulator::merge, (a, scale, roundingMode) -> a.getSum(),
+                (a, t) -> a.retract(t == null ? null : value.apply(t)));
+    }
+
+    static <T,R extends Number> AggImpl<T,NumberAccumulator,BigDecimal> avg(NumberFunction<T,R> value){
+        return new AggImpl<>("avg", NumberAccumulator::new, (a, t) -> a.add(t == null ? null : value.apply(t)),
+                NumberAccumulator::merge, NumberAccumulator::getAvg,
+                (a, t) -> a.retract(t == null ? null : value.apply(t)));
+    }
+
+    static <T> AggImpl<T,long[],Long> count(Function<T,?> value){
+        return new AggImpl<>("count", mode -> new long[1], (a, t) -> {
+            if (value == null || (t != null && value.apply(t) != null)) {
+                a[0]++;
+            }
+        }, (a, b) -> a[0] += b[0], (a, scale, roundingMode) -> a[0], (a, t) -> {
+            if (value == null || (t != null && value.apply(t) != null)) {
+                a[0]--;
+            }
+        });
+    }
+
+    static <T> AggImpl<T,Set<Object>,Long> countDistinct(Function<T,?> value){
+        return new AggImpl<>("countDistinct", mode -> new HashSet<>(), (a, t) -> {
+            Object v = t == null ? null : value.apply(t);
+            if (v != null) {
+                a.add(v);
+            }
+        }, Set::addAll, (a, scale, roundingMode) -> (long) a.size());
+    }
+
+    static <T> AggImpl<T,HyperLogLog,Long> approxCountDistinct(Function<T,?> value, int precision){
+        HyperLogLog.checkPrecision(precision);
+        return new AggImpl<>("approxCountDistinct", mode -> new HyperLogLog(precision),
+                (a, t) -> a.add(t == null ? null : value.apply(t)),
+                HyperLogLog::merge, (a, scale, roundingMode) -> a.cardinality());
+    }
+
+    static <T,R extends Number> AggImpl<T,TDigest,BigDecimal> percentile(NumberFunction<T,R> value, double q, double compression){
+        TDigest.checkQuantile(q);
+        TDigest.checkCompression(compression);
+        return new AggImpl<>("percentile", mode -> new TDigest(compression),
+                (a, t) -> a.add(t == null ? null : value.apply(t)),
+                TDigest::merge, (a, scale, roundingMode) -> a.quantile(q, scale, roundingMode));
+    }
+
+    static <T,V extends Comparable<? super V>> AggImpl<T,List<V>,V> max(Function<T,V> value){
+        return compareAgg("max", value, 1);
+    }
+
+    static <T,V extends Comparable<? super V>> AggImpl<T,List<V>,V> min(Function<T,V> value){
+        return compareAgg("min", value, -1);
+    }
+
+    /**
+     * 最值累加器为单元素列表
+     * @param sign      1取最大值, -1取最小值
+     */
+    private static <T,V extends Comparable<? super V>> AggImpl<T,List<V>,V> compareAgg(String name, Function<T,V> value, int sign){
+        BiConsumer<List<V>,V> accept = (a, v) -> {
+            if (v == null) {
+                return;
+            }
+            if (a.isEmpty()) {
+                a.add(v);
+            } else if (v.compareTo(a.get(0)) * sign > 0) {
+                a.set(0, v);
+            }
+        };
+        return new AggImpl<>(name, mode -> new ArrayList<>(1),
+                (a, t) -> accept.accept(a, t == null ? null : value.apply(t)),
+                (a, b) -> accept.accept(a, b.isEmpty() ? null : b.get(0)),
+                (a, scale, roundingMode) -> a.isEmpty() ? null : a.get(0));
+    }
+
+    /**
+     * Collector computing all aggregate functions in one pass
+     *      the accumulator is an array with one accumulator per aggregate function,  and it is replaced by the results when finished
+     *
+     * @param aggs              aggregate functions
+     * @param scale             scale of decimal result
+     * @param roundingMode      rounding mode of decimal result
+     * @param numericMode       numeric mode of summation and average
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Collector<T,Object[],Object[]> collector(List<? extends Agg<T,?>> aggs, int scale, RoundingMode roundingMode, NumericMode numericMode){
+        if (aggs == null || aggs.isEmpty()) {
+            throw new IllegalArgumentException("aggregate function can not be empty");
+        }
+        AggImpl[] aggArr = new AggImpl[aggs.size()];
+        for (int i = 0; i < aggArr.length; i++) {
+            aggArr[i] = (AggImpl) Objects.requireNonNull(aggs.get(i), "aggregate function can not be null");
+        }
+        return Collector.of(
+                () -> {
+                    Object[] accs = new Object[aggArr.length];
+                    for (int i = 0; i < aggArr.length; i++) {
+                        accs[i] = aggArr[i].newAcc(numericMode);
+                    }
+                    return accs;
+                },
+                (accs, t) -> {
+                    for (int i = 0; i < aggArr.length; i++) {
+                        aggArr[i].add(accs[i], t);
+                    }
+                },
+                (accs, other) -> {
+                    for (int i = 0; i < aggArr.length; i++) {
+                        aggArr[i].merge(accs[i], other[i]);
+                    }
+                    return accs;
+                },
+                accs -> {
+                    for (int i = 0; i < aggArr.length; i++) {
+                        accs[i] = aggArr[i].finish(accs[i], scale, roundingMode);
+                    }
+                    return accs;
+                });
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -29,4 +29,16 @@ public interface GroupConcat<T> {
     static <T,V> GroupConcat<T> concatBy(Function<T,V> concatField,CharSequence delimiter,CharSequence prefix, CharSequence suffix){
         return new GroupConcatImpl<>(concatField,delimiter,prefix,suffix);
     }
+
+    /**
+     * only concat the distinct value,  in the order of first appearance
+     */
+    GroupConcat<T> distinct();
+
+    /**
+     * limit the length of concat content (prefix and suffix are excluded),  the overflow is truncated like group_concat_max_len of mysql
+     *      no more value is appended once the length is reached
+     * @param maxLength         max length of concat content
+     */
+    GroupConcat<T> maxLength(int maxLength);
 }
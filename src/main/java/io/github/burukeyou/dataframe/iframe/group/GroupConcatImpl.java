@@ -2,7 +2,10 @@ package io.github.burukeyou.dataframe.iframe.group;
 
 import lombok.Data;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collector;
 
 /**
  * @author          caizhihao
@@ -19,6 +22,13 @@ public class GroupConcatImpl<T> implements GroupConcat<T> {
 
     private CharSequence suffix = "";
 
+    private boolean distinctValue;
+
+    /**
+     * 拼接内容的最大长度, 小于0时不限制
+     */
+    private int maxLength = -1;
+
     public GroupConcatImpl(Function<T, ?> aggField, CharSequence delimiter) {
         this.aggField = aggField;
         this.delimiter = delimiter;
@@ -30,4 +40,80 @@ public class GroupConcatImpl<T> implements GroupConcat<T> {
         this.prefix = prefix;
         this.suffix = suffix;
     }
+
+    @Override
+    public GroupConcat<T> distinct() {
+        this.distinctValue = true;
+        return this;
+    }
+
+    @Override
+    public GroupConcat<T> maxLength(int maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength can not be negative but was " + maxLength);
+        }
+        this.maxLength = maxLength;
+        return this;
+    }
+
+    /**
+     * Collector appending the value straight into one StringBuilder per group,  null value is ignored
+     */
+    public Collector<T, ?, String> collector() {
+        return Collector.of(ConcatBuilder::new, ConcatBuilder::add, ConcatBuilder::merge, ConcatBuilder::build);
+    }
+
+    private final class ConcatBuilder {
+
+        private final StringBuilder builder = new StringBuilder();
+
+        /**
+         * 去重时记录已出现的值, 按出现顺序用于合并分片
+         */
+        private final Set<String> seenSet = distinctValue ? new LinkedHashSet<>() : null;
+
+        private boolean hasValue;
+
+        private boolean full;
+
+        private void add(T row) {
+            Object value = aggField.apply(row);
+            if (value != null) {
+                append(value.toString());
+            }
+        }
+
+        private void append(CharSequence value) {
+            if (seenSet != null && !seenSet.add(value.toString())) {
+                return;
+            }
+            if (full) {
+                return;
+            }
+            if (hasValue) {
+                builder.append(delimiter);
+            }
+            builder.append(value);
+            hasValue = true;
+            if (maxLength >= 0 && builder.length() >= maxLength) {
+                builder.setLength(maxLength);
+                full = true;
+            }
+        }
+
+        private ConcatBuilder merge(ConcatBuilder other) {
+            if (seenSet != null) {
+                other.seenSet.forEach(this::append);
+            } else if (other.hasValue) {
+                // 非去重时other的内容整体追加, 截断后的结果与逐个追加一致
+                append(other.builder);
+            }
+            return this;
+        }
+
+        private String build() {
+            return new StringBuilder(prefix.length() + builder.length() + suffix.length())
+                    .append(prefix).append(builder).append(suffix).toString();
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package io.github.burukeyou.dataframe.iframe.group;
+
+import io.github.burukeyou.dataframe.iframe.JDFrame;
+import io.github.burukeyou.dataframe.iframe.SDFrame;
+import io.github.burukeyou.dataframe.iframe.item.AggRow;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appendable group aggregation state
+ *      one accumulator per group key is kept,  so appending or retracting rows costs O(delta) instead of regrouping all data.
+ *      all methods are thread safe
+ *
+ * @author          caizhihao
+ * @param <T>       element type
+ * @param <K>       group key type
+ */
+public interface IncrementalGroupBy<T,K> {
+
+    /**
+     * add rows into the group state
+     * @param rows          new rows
+     */
+    IncrementalGroupBy<T,K> append(Collection<T> rows);
+
+    /**
+     * remove rows which were appended before,  only supported when all aggregate functions are invertible such as sum, avg and count.
+     *      the group is removed when all of its rows are retracted
+     * @param rows          the rows to remove
+     * @throws UnsupportedOperationException    if any aggregate function can not be retracted
+     * @throws IllegalArgumentException         if the group of row does not have enough rows,  and nothing is retracted
+     */
+    IncrementalGroupBy<T,K> retract(Collection<T> rows);
+
+    /**
+     * @return      true if rows can be retracted
+     */
+    boolean isRetractable();
+
+    /**
+     * current result of the group,  null if the group does not exist
+     * @param key           group key
+     */
+    AggRow<K> get(K key);
+
+    /**
+     * current result of all groups in the order of the first appearance
+     */
+    List<AggRow<K>> toLists();
+
+    SDFrame<AggRow<K>> toSDFrame();
+
+    JDFrame<AggRow<K>> toJDFrame();
+
+    /**
+     * count of groups
+     */
+    int size();
+}
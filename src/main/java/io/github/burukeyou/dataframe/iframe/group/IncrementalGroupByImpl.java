@@ -0,0 +1,157 @@
+package io.github.burukeyou.dataframe.iframe.group;
+
+import io.github.burukeyou.dataframe.iframe.JDFrame;
+import io.github.burukeyou.dataframe.iframe.SDFrame;
+import io.github.burukeyou.dataframe.iframe.item.AggRow;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
+
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * @author          caizhihao
+ * @param <T>       element type
+ * @param <K>       group key type
+ */
+public final class IncrementalGroupByImpl<T,K> implements IncrementalGroupBy<T,K> {
+
+    private final Function<T, K> key;
+
+    private final List<? extends Agg<T, ?>> aggList;
+
+    /**
+     * 末尾额外加一个行数累加器, 用于判断分组是否已被全部撤回
+     */
+    private final AggImpl<T, Object, Object>[] aggArr;
+
+    private final int scale;
+
+    private final RoundingMode roundingMode;
+
+    private final NumericMode numericMode;
+
+    private final Map<K, Object[]> groupMap = new LinkedHashMap<>();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IncrementalGroupByImpl(Function<T, K> key, List<? extends Agg<T, ?>> aggs, int scale, RoundingMode roundingMode, NumericMode numericMode) {
+        if (aggs == null || aggs.isEmpty()) {
+            throw new IllegalArgumentException("aggregate function can not be empty");
+        }
+        this.key = key;
+        this.aggList = new ArrayList<>(aggs);
+        this.aggArr = new AggImpl[aggs.size() + 1];
+        for (int i = 0; i < aggs.size(); i++) {
+            aggArr[i] = (AggImpl) Objects.requireNonNull(aggs.get(i), "aggregate function can not be null");
+        }
+        aggArr[aggs.size()] = (AggImpl) AggImpl.count(null);
+        this.scale = scale;
+        this.roundingMode = roundingMode;
+        this.numericMode = numericMode;
+    }
+
+    @Override
+    public synchronized IncrementalGroupBy<T, K> append(Collection<T> rows) {
+        for (T row : rows) {
+            Object[] accs = groupMap.computeIfAbsent(key.apply(row), k -> newAccs());
+            for (int i = 0; i < aggArr.length; i++) {
+                aggArr[i].add(accs[i], row);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized IncrementalGroupBy<T, K> retract(Collection<T> rows) {
+        for (AggImpl<T, Object, Object> agg : aggArr) {
+            if (!agg.isInvertible()) {
+                throw new UnsupportedOperationException("aggregate function " + agg + " can not be retracted");
+            }
+        }
+        // 先校验再撤回, 校验失败时状态不变
+        Map<K, Long> retractCountMap = new HashMap<>();
+        for (T row : rows) {
+            retractCountMap.merge(key.apply(row), 1L, Long::sum);
+        }
+        for (Map.Entry<K, Long> entry : retractCountMap.entrySet()) {
+            Object[] accs = groupMap.get(entry.getKey());
+            if (accs == null || rowCount(accs) < entry.getValue()) {
+                throw new IllegalArgumentException("group " + entry.getKey() + " does not have " + entry.getValue() + " rows to retract");
+            }
+        }
+        for (T row : rows) {
+            K k = key.apply(row);
+            Object[] accs = groupMap.get(k);
+            for (int i = 0; i < aggArr.length; i++) {
+                aggArr[i].retract(accs[i], row);
+            }
+            if (rowCount(accs) <= 0) {
+                groupMap.remove(k);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isRetractable() {
+        for (AggImpl<T, Object, Object> agg : aggArr) {
+            if (!agg.isInvertible()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized AggRow<K> get(K key) {
+        Object[] accs = groupMap.get(key);
+        return accs == null ? null : toRow(key, accs);
+    }
+
+    @Override
+    public synchronized List<AggRow<K>> toLists() {
+        List<AggRow<K>> resultList = new ArrayList<>(groupMap.size());
+        for (Map.Entry<K, Object[]> entry : groupMap.entrySet()) {
+            resultList.add(toRow(entry.getKey(), entry.getValue()));
+        }
+        return resultList;
+    }
+
+    @Override
+    public SDFrame<AggRow<K>> toSDFrame() {
+        return SDFrame.read(toLists());
+    }
+
+    @Override
+    public JDFrame<AggRow<K>> toJDFrame() {
+        return JDFrame.read(toLists());
+    }
+
+    @Override
+    public synchronized int size() {
+        return groupMap.size();
+    }
+
+    private Object[] newAccs() {
+        Object[] accs = new Object[aggArr.length];
+        for (int i = 0; i < aggArr.length; i++) {
+            accs[i] = aggArr[i].newAcc(numericMode);
+        }
+        return accs;
+    }
+
+    private long rowCount(Object[] accs) {
+        return ((long[]) accs[accs.length - 1])[0];
+    }
+
+    /**
+     * 累加器保持不变, 结果放入新数组
+     */
+    private AggRow<K> toRow(K key, Object[] accs) {
+        Object[] values = new Object[aggList.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = aggArr[i].finish(accs[i], scale, roundingMode);
+        }
+        return new AggRow<>(key, values, aggList);
+    }
+}
@@ -3,6 +3,7 @@ package io.github.burukeyou.dataframe.iframe.impl;
 import com.alibaba.fastjson.JSON;
 import io.github.burukeyou.dataframe.iframe.IFrame;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
 import io.github.burukeyou.dataframe.util.ClassUtil;
 import lombok.Getter;
 
@@ -12,6 +13,7 @@ import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static java.lang.Character.UnicodeBlock.*;
 
@@ -28,6 +30,11 @@ public abstract class AbstractCommonFrame<T> implements IFrame<T> {
 
     protected int defaultScale = 2;
     protected RoundingMode defaultRoundingMode = RoundingMode.HALF_UP;
+    protected NumericMode numericMode = NumericMode.BIG_DECIMAL;
+    /**
+     * 并行分组的线程池, 为null时串行执行
+     */
+    protected Executor parallelExecutor;
 
     protected abstract  List<T> viewList();
 
@@ -58,9 +65,46 @@ public abstract class AbstractCommonFrame<T> implements IFrame<T> {
         this.defaultRoundingMode = roundingMode;
     }
 
+    protected void initNumericMode(NumericMode numericMode){
+        if (numericMode == null){
+            throw new IllegalArgumentException("numeric mode can not be null");
+        }
+        this.numericMode = numericMode;
+    }
+
+    protected void initParallelExecutor(Executor executor){
+        this.parallelExecutor = executor;
+    }
+
+    protected static int getParallelism(Executor executor) {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return Math.max(1, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 等待所有任务完成, 并抛出任务原始的运行时异常
+     */
+    protected static void joinAll(CompletableFuture<?>[] futures) {
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     protected  void transmitMember(AbstractCommonFrame<?> from, AbstractCommonFrame<?> toFrame) {
         toFrame.defaultScale = from.defaultScale;
         toFrame.defaultRoundingMode = from.defaultRoundingMode;
+        toFrame.numericMode = from.numericMode;
+        toFrame.parallelExecutor = from.parallelExecutor;
     }
 
     public List<String> getFieldList() {
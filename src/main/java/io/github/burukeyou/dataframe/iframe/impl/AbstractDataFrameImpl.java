@@ -7,19 +7,30 @@ import io.github.burukeyou.dataframe.iframe.IFrame;
 import io.github.burukeyou.dataframe.iframe.JDFrame;
 import io.github.burukeyou.dataframe.iframe.SDFrame;
 import io.github.burukeyou.dataframe.iframe.function.*;
+import io.github.burukeyou.dataframe.iframe.group.Agg;
+import io.github.burukeyou.dataframe.iframe.group.AggImpl;
 import io.github.burukeyou.dataframe.iframe.group.GroupConcat;
 import io.github.burukeyou.dataframe.iframe.group.GroupConcatImpl;
+import io.github.burukeyou.dataframe.iframe.item.AggRow;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.item.FI3;
 import io.github.burukeyou.dataframe.iframe.item.FI4;
+import io.github.burukeyou.dataframe.iframe.item.GroupingRow;
+import io.github.burukeyou.dataframe.iframe.item.PivotTable;
 import io.github.burukeyou.dataframe.iframe.support.Join;
+import io.github.burukeyou.dataframe.iframe.support.JoinIndex;
 import io.github.burukeyou.dataframe.iframe.support.JoinOn;
 import io.github.burukeyou.dataframe.iframe.support.MaxMin;
 import io.github.burukeyou.dataframe.iframe.support.VoidJoin;
 import io.github.burukeyou.dataframe.util.BeanCopyUtil;
 import io.github.burukeyou.dataframe.util.CollectorsPlusUtil;
 import io.github.burukeyou.dataframe.util.FrameUtil;
+import io.github.burukeyou.dataframe.util.HyperLogLog;
 import io.github.burukeyou.dataframe.util.ListUtils;
+import io.github.burukeyou.dataframe.util.MultiKey;
+import io.github.burukeyou.dataframe.util.NumberAccumulator;
+import io.github.burukeyou.dataframe.util.PartitionList;
+import io.github.burukeyou.dataframe.util.TDigest;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -27,10 +38,15 @@ import org.apache.commons.lang3.StringUtils;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.stream.Collectors.*;
 
@@ -450,30 +466,50 @@ public abstract class AbstractDataFrameImpl<T> extends AbstractWindowDataFrame<T
      * ===========================   汇总相关  =====================================
      **/
     public <R> BigDecimal sum(Function<T, R> function) {
-        return stream().map(function).filter(Objects::nonNull).collect(CollectorsPlusUtil.summingBigDecimal(e -> {
-            if (e instanceof BigDecimal) {
-                return (BigDecimal) e;
-            } else {
-                return new BigDecimal(String.valueOf(e));
-            }
-        }));
+        return summaryNumber(function).getSum();
     }
 
     public <R> BigDecimal avg(Function<T, R> function) {
-        List<BigDecimal> bigDecimalList = stream().map(function).filter(Objects::nonNull).map(e -> {
-            if (e instanceof BigDecimal) {
-                return (BigDecimal) e;
-            } else {
-                return new BigDecimal(String.valueOf(e));
-            }
-        }).collect(toList());
+        return summaryNumber(function).getAvg(defaultScale, defaultRoundingMode);
+    }
 
-        if (bigDecimalList.isEmpty()) {
-            return null;
-        }
-        return bigDecimalList.stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .divide(BigDecimal.valueOf(bigDecimalList.size()), defaultScale, defaultRoundingMode);
+    /**
+     * 按数值模式累加, 非数值类型按字符串转换
+     */
+    protected <R> NumberAccumulator summaryNumber(Function<T, R> function) {
+        NumberAccumulator accumulator = new NumberAccumulator(numericMode);
+        stream().map(function).filter(Objects::nonNull)
+                .forEach(e -> accumulator.add(e instanceof Number ? (Number) e : new BigDecimal(String.valueOf(e))));
+        return accumulator;
+    }
+
+    public long approxCountDistinct(Function<T, ?> function) {
+        return approxCountDistinct(function, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    public long approxCountDistinct(Function<T, ?> function, int precision) {
+        return collectFlat(CollectorsPlusUtil.approxCountDistinct(function, precision));
+    }
+
+    public <R extends Number> BigDecimal percentile(Function<T, R> function, double q) {
+        return percentile(function, q, TDigest.DEFAULT_COMPRESSION);
+    }
+
+    public <R extends Number> BigDecimal percentile(Function<T, R> function, double q, double compression) {
+        return collectFlat(CollectorsPlusUtil.percentile(function::apply, new double[]{q}, compression, defaultScale, defaultRoundingMode)).get(0);
+    }
+
+    public long sumLong(ToLongFunction<T> function) {
+        return stream().filter(Objects::nonNull).mapToLong(function).sum();
+    }
+
+    public double sumDouble(ToDoubleFunction<T> function) {
+        return stream().filter(Objects::nonNull).mapToDouble(function).sum();
+    }
+
+    public BigDecimal avgDouble(ToDoubleFunction<T> function) {
+        OptionalDouble average = stream().filter(Objects::nonNull).mapToDouble(function).average();
+        return average.isPresent() ? BigDecimal.valueOf(average.getAsDouble()).setScale(defaultScale, defaultRoundingMode) : null;
     }
 
     public <R extends Comparable<? super R>> MaxMin<R> maxMinValue(Function<T, R> function) {
@@ -547,68 +583,131 @@ public abstract class AbstractDataFrameImpl<T> extends AbstractWindowDataFrame<T
      *   分组成列表
      */
     protected  <K> List<FI2<K, List<T>>> groupListKey(Function<? super T, ? extends K> key) {
-        return FrameUtil.toListFI2(stream().collect(groupingBy(key)));
+        return groupKey(key, toList());
     }
 
     protected  <K,V> List<FI2<K, V>> groupListKey(Function<T,K> key, ListToOneValueFunction<T,V> function) {
-        return groupListKey(key).stream().map(e -> new FI2<>(e.getC1(), function.apply(e.getC2()))).collect(toList());
+        return groupKey(key, collectingAndThen(toList(), function::apply));
     }
 
     protected  <K,J> List<FI3<K, J,List<T>>> groupListKey(Function<T,K> key,Function<T, J> key2) {
-        return FrameUtil.toListFI3(stream().collect(groupingBy(key, groupingBy(key2))));
+        return groupKey(key, key2, toList());
     }
 
     protected  <K,J,V> List<FI3<K,J,V>> groupListKey(Function<T,K> key,Function<T, J> key2,ListToOneValueFunction<T,V> function) {
-        return groupListKey(key,key2).stream().map(e -> new FI3<>(e.getC1(), e.getC2(),function.apply(e.getC3()))).collect(toList());
+        return groupKey(key, key2, collectingAndThen(toList(), function::apply));
     }
 
     protected  <K,J,H> List<FI4<K, J,H,List<T>>> groupListKey(Function<T,K> key,Function<T, J> key2,Function<T, H> key3) {
-        return FrameUtil.toListFI4(stream().collect(groupingBy(key, groupingBy(key2,groupingBy(key3)))));
+        return groupKey(key, key2, key3, toList());
     }
 
     protected  <K,J,H,V> List<FI4<K, J,H,V>> groupListKey(Function<T,K> key,Function<T, J> key2,Function<T, H> key3,ListToOneValueFunction<T,V> function) {
-        return groupListKey(key,key2,key3).stream().map(e -> new FI4<>(e.getC1(), e.getC2(),e.getC3(),function.apply(e.getC4()))).collect(toList());
+        return groupKey(key, key2, key3, collectingAndThen(toList(), function::apply));
     }
 
     /**
      * 分组后置聚合处理
      */
     public <K,V> List<FI2<K,V>> groupAfterCustom(Function<T, K> key, Function<List<T>, V> groupList) {
-        Map<K, V> map = stream().collect(groupingBy(key, collectingAndThen(toList(), groupList)));
-        return FrameUtil.toListFI2(map);
+        return groupKey(key, collectingAndThen(toList(), groupList));
     }
 
     public <K,J,V> List<FI3<K,J,V>> groupAfterCustom(Function<T, K> key, Function<T, J> key2,Function<List<T>, V> groupList) {
-        Map<K, Map<J, V>> map = stream().collect(groupingBy(key, groupingBy(key2, collectingAndThen(toList(), groupList))));
-        return FrameUtil.toListFI3(map);
+        return groupKey(key, key2, collectingAndThen(toList(), groupList));
     }
 
     public <K,J,H,V> List<FI4<K,J,H,V>> groupAfterCustom(Function<T, K> key, Function<T, J> key2, Function<T, H> key3,Function<List<T>, V> groupList) {
-        Map<K,Map<J, Map<H, V>>> map = stream().collect(groupingBy(key, groupingBy(key2, groupingBy(key3, collectingAndThen(toList(), groupList)))));
-        return FrameUtil.toListFI4(map);
+        return groupKey(key, key2, key3, collectingAndThen(toList(), groupList));
     }
 
     /**
      *  Group Concat
      */
     public <K> List<FI2<K,String>> groupByConcatStream(Function<T, K> key, GroupConcat<T> concat) {
-        return groupAfterCustom(key, list -> groupByConcatListToString(concat, list));
+        return groupKey(key, concatCollector(concat));
     }
 
     public <K,J> List<FI3<K,J,String>> groupByConcatStream(Function<T, K> key, Function<T,J> key2,GroupConcat<T> concat) {
-        return groupAfterCustom(key,key2, list -> groupByConcatListToString(concat, list));
+        return groupKey(key, key2, concatCollector(concat));
     }
 
     public <K,J,H> List<FI4<K,J,H,String>> groupByConcatStream(Function<T, K> key, Function<T,J> key2,Function<T,H> key3,GroupConcat<T> concat) {
-        return groupAfterCustom(key,key2, key3,list -> groupByConcatListToString(concat, list));
+        return groupKey(key, key2, key3, concatCollector(concat));
+    }
+
+    /**
+     * 每个分组直接追加到StringBuilder, 不生成分组列表
+     */
+    protected Collector<T, ?, String> concatCollector(GroupConcat<T> concat) {
+        return ((GroupConcatImpl<T>) concat).collector();
     }
 
 
-    protected String groupByConcatListToString(GroupConcat<T> concat, List<T> list) {
-        GroupConcatImpl<T> concatImpl = (GroupConcatImpl<T>)concat;
-        return SDFrame.read(list).joining(concatImpl.getAggField(), concatImpl.getDelimiter(),concatImpl.getPrefix(),concatImpl.getSuffix());
+    /**
+     * 并行分组时每个分片的最小行数
+     */
+    protected static final int PARALLEL_GROUP_CHUNK_SIZE = 4096;
+
+    /**
+     * 扁平分组引擎
+     *      多级分组key合并成一个组合key(MultiKey)放入同一个哈希表, 只遍历一次数据, 不创建嵌套Map和中间列表
+     *      分组顺序为key第一次出现的顺序, 允许null的key
+     *      并行模式下按顺序把数据切分成多个分片, 每个分片在线程池中聚合到自己的哈希表, 再按分片顺序用collector的combiner合并, 所以分组顺序不变
+     *
+     * @param key           分组key
+     * @param collector     聚合方式
+     */
+    @SuppressWarnings("unchecked")
+    protected <G, A, V> Map<G, V> groupFlatMap(Function<? super T, ? extends G> key, Collector<? super T, A, V> collector) {
+        List<T> dataList = viewList();
+        int chunkCount = parallelExecutor == null ? 1 : Math.min(getParallelism(parallelExecutor), (dataList.size() + PARALLEL_GROUP_CHUNK_SIZE - 1) / PARALLEL_GROUP_CHUNK_SIZE);
+        Map<G, Object> map;
+        if (chunkCount <= 1) {
+            map = groupChunk(dataList, key, collector);
+        } else {
+            int chunkSize = (dataList.size() + chunkCount - 1) / chunkCount;
+            List<List<T>> chunkList = new PartitionList<>(dataList, chunkSize);
+            List<CompletableFuture<Map<G, Object>>> futures = new ArrayList<>(chunkList.size());
+            for (List<T> chunk : chunkList) {
+                futures.add(CompletableFuture.supplyAsync(() -> groupChunk(chunk, key, collector), parallelExecutor));
+            }
+            joinAll(futures.toArray(new CompletableFuture<?>[0]));
+            BinaryOperator<A> combiner = collector.combiner();
+            map = futures.get(0).join();
+            for (int i = 1; i < futures.size(); i++) {
+                futures.get(i).join().forEach((k, v) -> map.merge(k, v, (old, cur) -> combiner.apply((A) old, (A) cur)));
+            }
+        }
+        if (!collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            Function<A, V> finisher = collector.finisher();
+            map.replaceAll((k, v) -> finisher.apply((A) v));
+        }
+        return (Map<G, V>) map;
     }
 
+    /**
+     * 不分组聚合全部数据, 并行模式下同样分片聚合后合并
+     */
+    protected <A, V> V collectFlat(Collector<? super T, A, V> collector) {
+        Map<Boolean, V> map = groupFlatMap(e -> Boolean.TRUE, collector);
+        return map.isEmpty() ? collector.finisher().apply(collector.supplier().get()) : map.get(Boolean.TRUE);
+    }
+
+    /**
+     * 聚合一个分片, 返回未完成的累加器
+     */
+    @SuppressWarnings("unchecked")
+    private static <T, G, A> Map<G, Object> groupChunk(List<T> dataList, Function<? super T, ? extends G> key, Collector<? super T, A, ?> collector) {
+        Supplier<A> supplier = collector.supplier();
+        BiConsumer<A, ? super T> accumulator = collector.accumulator();
+        Map<G, Object> map = new LinkedHashMap<>();
+        for (T t : dataList) {
+            A container = (A) map.computeIfAbsent(key.apply(t), k -> supplier.get());
+            accumulator.accept(container, t);
+        }
+        return map;
+    }
 
     /**
      * 一级分组
@@ -616,8 +715,8 @@ public abstract class AbstractDataFrameImpl<T> extends AbstractWindowDataFrame<T
      * @param K                    一级分组K
      * @param tBigDecimalCollector 聚合方式
      */
-    protected  <K, V> List<FI2<K, V>> groupKey(Function<T, K> K, Collector<T, ?, V> tBigDecimalCollector) {
-        Map<K, V> resultMap = stream().collect(groupingBy(K, tBigDecimalCollector));
+    protected  <K, V> List<FI2<K, V>> groupKey(Function<? super T, ? extends K> K, Collector<? super T, ?, V> tBigDecimalCollector) {
+        Map<K, V> resultMap = groupFlatMap(K, tBigDecimalCollector);
         return FrameUtil.toListFI2(resultMap);
     }
 
@@ -628,9 +727,14 @@ public abstract class AbstractDataFrameImpl<T> extends AbstractWindowDataFrame<T
      * @param J                   二级分组K
      * @param tBigDecimalCollector 聚合方式
      */
-    protected <K, J, V> List<FI3<K, J, V>> groupKey(Function<T, K> K, Function<T, J> J, Collector<T, ?, V> tBigDecimalCollector) {
-        Map<K, Map<J, V>> map = stream().collect(groupingBy(K, groupingBy(J, tBigDecimalCollector)));
-        return FrameUtil.toListFI3(map);
+    protected <K, J, V> List<FI3<K, J, V>> groupKey(Function<T, K> K, Function<T, J> J, Collector<? super T, ?, V> tBigDecimalCollector) {
+        Map<MultiKey, V> map = groupFlatMap(e -> MultiKey.of(K.apply(e), J.apply(e)), tBigDecimalCollector);
+        List<FI3<K, J, V>> resultList = new ArrayList<>(map.size());
+        for (Map.Entry<MultiKey, V> entry : clusterByKey(map, 2)) {
+            MultiKey key = entry.getKey();
+            resultList.add(new FI3<>(key.getKey(0), key.getKey(1), entry.getValue()));
+        }
+        return resultList;
     }
 
     /**
@@ -641,48 +745,342 @@ public abstract class AbstractDataFrameImpl<T> extends AbstractWindowDataFrame<T
      * @param H            三级分组K
      * @param collectorType 聚合方式
      */
-    protected <K, J, H, V> List<FI4<K, J, H, V>> groupKey(Function<T, K> K, Function<T, J> J, Function<T, H> H, Collector<T, ?, V> collectorType) {
-        Map<K, Map<J, Map<H, V>>> map = stream().collect(groupingBy(K, groupingBy(J, groupingBy(H, collectorType))));
-        return FrameUtil.toListFI4(map);
+    protected <K, J, H, V> List<FI4<K, J, H, V>> groupKey(Function<T, K> K, Function<T, J> J, Function<T, H> H, Collector<? super T, ?, V> collectorType) {
+        Map<MultiKey, V> map = groupFlatMap(e -> MultiKey.of(K.apply(e), J.apply(e), H.apply(e)), collectorType);
+        List<FI4<K, J, H, V>> resultList = new ArrayList<>(map.size());
+        for (Map.Entry<MultiKey, V> entry : clusterByKey(map, 3)) {
+            MultiKey key = entry.getKey();
+            resultList.add(new FI4<>(key.getKey(0), key.getKey(1), key.getKey(2), entry.getValue()));
+        }
+        return resultList;
+    }
+
+    /**
+     * 与嵌套分组的结构一致: 同一个一级key的分组排在一起, 按一级key首次出现的顺序, 一级key内再按二级key首次出现的顺序, 依此类推
+     *      扁平哈希表按完整key首次出现的顺序迭代, 每一级key首次出现的顺序即为它所在的第一个完整key的顺序, 所以稳定地逐级聚集即可
+     *
+     * @param map       按完整key首次出现顺序的分组结果
+     * @param depth     key的级数
+     */
+    protected static <V> List<Map.Entry<MultiKey, V>> clusterByKey(Map<MultiKey, V> map, int depth) {
+        List<Map.Entry<MultiKey, V>> resultList = new ArrayList<>(map.size());
+        clusterByKey(new ArrayList<>(map.entrySet()), 0, depth, resultList);
+        return resultList;
+    }
+
+    private static <V> void clusterByKey(List<Map.Entry<MultiKey, V>> entryList, int level, int depth, List<Map.Entry<MultiKey, V>> resultList) {
+        if (level >= depth - 1 || entryList.size() <= 1) {
+            resultList.addAll(entryList);
+            return;
+        }
+        Map<Object, List<Map.Entry<MultiKey, V>>> clusterMap = new LinkedHashMap<>();
+        for (Map.Entry<MultiKey, V> entry : entryList) {
+            clusterMap.computeIfAbsent(entry.getKey().get(level), k -> new ArrayList<>()).add(entry);
+        }
+        for (List<Map.Entry<MultiKey, V>> cluster : clusterMap.values()) {
+            clusterByKey(cluster, level + 1, depth, resultList);
+        }
+    }
+
+    /**
+     * N级分组
+     *
+     * @param keys          分组key列表, 结果的key为各分组字段值按顺序组成的列表
+     * @param collector     聚合方式
+     */
+    protected <V> List<FI2<List<Object>, V>> groupKeys(List<? extends Function<? super T, ?>> keys, Collector<? super T, ?, V> collector) {
+        if (keys == null || keys.isEmpty()) {
+            throw new IllegalArgumentException("group keys can not be empty");
+        }
+        int n = keys.size();
+        Map<MultiKey, V> map = groupFlatMap(e -> {
+            Object[] values = new Object[n];
+            int i = 0;
+            for (Function<? super T, ?> key : keys) {
+                values[i++] = key.apply(e);
+            }
+            return new MultiKey(values);
+        }, collector);
+        List<FI2<List<Object>, V>> resultList = new ArrayList<>(map.size());
+        for (Map.Entry<MultiKey, V> entry : clusterByKey(map, n)) {
+            resultList.add(new FI2<>(entry.getKey(), entry.getValue()));
+        }
+        return resultList;
+    }
+
+    /**
+     * 一次遍历计算多个聚合函数, 每个分组只有一个累加器数组
+     *
+     * @param key           分组key
+     * @param aggs          聚合函数
+     */
+    protected <K> List<AggRow<K>> groupAggKey(Function<T, K> key, List<? extends Agg<T, ?>> aggs) {
+        List<FI2<K, Object[]>> list = groupKey(key, AggImpl.collector(aggs, defaultScale, defaultRoundingMode, numericMode));
+        // 结果行按下标取值, 复制一份避免调用方之后修改列表
+        List<Agg<T, ?>> aggList = new ArrayList<>(aggs);
+        List<AggRow<K>> resultList = new ArrayList<>(list.size());
+        for (FI2<K, Object[]> e : list) {
+            resultList.add(new AggRow<>(e.getC1(), e.getC2(), aggList));
+        }
+        return resultList;
+    }
+
+    protected <K, J> List<AggRow<FI2<K, J>>> groupAggKey(Function<T, K> key, Function<T, J> key2, List<? extends Agg<T, ?>> aggs) {
+        List<FI3<K, J, Object[]>> list = groupKey(key, key2, AggImpl.collector(aggs, defaultScale, defaultRoundingMode, numericMode));
+        List<Agg<T, ?>> aggList = new ArrayList<>(aggs);
+        List<AggRow<FI2<K, J>>> resultList = new ArrayList<>(list.size());
+        for (FI3<K, J, Object[]> e : list) {
+            resultList.add(new AggRow<>(new FI2<>(e.getC1(), e.getC2()), e.getC3(), aggList));
+        }
+        return resultList;
+    }
+
+    /**
+     * 多个分组集聚合, 只按最细粒度的key遍历一次数据, 粗粒度的分组集由细粒度分组的累加器合并得到
+     *
+     * @param keys          分组key列表
+     * @param groupingIds   每个分组集的GROUPING_ID, 被汇总的字段位为1, 第一个字段为最高位
+     * @param aggs          聚合函数
+     */
+    protected List<GroupingRow> groupingSetsKey(List<? extends Function<? super T, ?>> keys, int[] groupingIds, List<? extends Agg<T, ?>> aggs) {
+        int n = keys.size();
+        int allRolledUp = (1 << n) - 1;
+        // 任一分组集用到的字段才参与最细粒度分组
+        int usedMask = 0;
+        for (int groupingId : groupingIds) {
+            usedMask |= ~groupingId & allRolledUp;
+        }
+        int finestId = ~usedMask & allRolledUp;
+
+        Collector<T, Object[], Object[]> collector = AggImpl.collector(aggs, defaultScale, defaultRoundingMode, numericMode);
+        List<Agg<T, ?>> aggList = new ArrayList<>(aggs);
+        Supplier<Object[]> supplier = collector.supplier();
+        BinaryOperator<Object[]> combiner = collector.combiner();
+        Collector<T, Object[], Object[]> partial = Collector.of(supplier, collector.accumulator(), combiner, Collector.Characteristics.IDENTITY_FINISH);
+        Map<MultiKey, Object[]> finestMap = groupFlatMap(e -> rollupKey(keys, e, finestId), partial);
+
+        List<GroupingRow> resultList = new ArrayList<>();
+        for (int groupingId : groupingIds) {
+            Map<MultiKey, Object[]> map = new LinkedHashMap<>();
+            for (Map.Entry<MultiKey, Object[]> entry : finestMap.entrySet()) {
+                Object[] accs = map.computeIfAbsent(rollupKey(entry.getKey(), groupingId), k -> supplier.get());
+                // 合并不会修改细粒度的累加器, 可被多个分组集复用
+                combiner.apply(accs, entry.getValue());
+            }
+            if (map.isEmpty() && groupingId == allRolledUp) {
+                // 与sql一致, 没有数据时总计仍输出一行
+                map.put(new MultiKey(new Object[n]), supplier.get());
+            }
+            for (Map.Entry<MultiKey, Object[]> entry : map.entrySet()) {
+                resultList.add(new GroupingRow(entry.getKey(), groupingId, collector.finisher().apply(entry.getValue()), aggList));
+            }
+        }
+        return resultList;
     }
 
+    private static <T> MultiKey rollupKey(List<? extends Function<? super T, ?>> keys, T row, int groupingId) {
+        Object[] values = new Object[keys.size()];
+        int i = 0;
+        for (Function<? super T, ?> key : keys) {
+            if (!isRolledUp(groupingId, values.length, i)) {
+                values[i] = key.apply(row);
+            }
+            i++;
+        }
+        return new MultiKey(values);
+    }
 
+    private static MultiKey rollupKey(MultiKey key, int groupingId) {
+        Object[] values = new Object[key.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (!isRolledUp(groupingId, values.length, i)) {
+                values[i] = key.get(i);
+            }
+        }
+        return new MultiKey(values);
+    }
 
+    private static boolean isRolledUp(int groupingId, int keySize, int index) {
+        return (groupingId >>> (keySize - 1 - index) & 1) == 1;
+    }
 
-    protected  <K, J, V extends Comparable<V>> Map<K, Map<J, T>> groupToMap(Function<T, K> key, Function<T, J> key2,Function<List<T>, T> getListMaxFunction) {
-        return stream().collect(groupingBy(key, groupingBy(key2, collectingAndThen(toList(), getListMaxFunction))));
+    /**
+     * rollup(a,b,c)的分组集为 (a,b,c),(a,b),(a),()
+     */
+    protected static int[] rollupGroupingIds(int keySize) {
+        checkGroupingKeySize(keySize);
+        int[] groupingIds = new int[keySize + 1];
+        for (int i = 0; i <= keySize; i++) {
+            groupingIds[i] = (1 << i) - 1;
+        }
+        return groupingIds;
     }
 
-    protected  <V extends Comparable<? super V>> Function<List<T>, T> getListMaxFunction(Function<T, V> value) {
-        return e -> e.stream().filter(a ->  value.apply(a) != null).max(java.util.Comparator.comparing(value)).orElse(null);
+    /**
+     * cube(a,b,c)的分组集为全部字段组合
+     */
+    protected static int[] cubeGroupingIds(int keySize) {
+        checkGroupingKeySize(keySize);
+        int[] groupingIds = new int[1 << keySize];
+        for (int i = 0; i < groupingIds.length; i++) {
+            groupingIds[i] = i;
+        }
+        return groupingIds;
+    }
+
+    /**
+     * @param sets      每个分组集包含的字段下标
+     */
+    protected static int[] groupingSetsIds(int keySize, List<int[]> sets) {
+        checkGroupingKeySize(keySize);
+        if (sets == null || sets.isEmpty()) {
+            throw new IllegalArgumentException("grouping sets can not be empty");
+        }
+        int allRolledUp = (1 << keySize) - 1;
+        int[] groupingIds = new int[sets.size()];
+        for (int i = 0; i < groupingIds.length; i++) {
+            int[] set = sets.get(i);
+            if (set == null) {
+                throw new IllegalArgumentException("grouping set can not be null");
+            }
+            int groupingId = allRolledUp;
+            for (int index : set) {
+                if (index < 0 || index >= keySize) {
+                    throw new IllegalArgumentException("grouping set index " + index + " out of bounds for group key size " + keySize);
+                }
+                groupingId &= ~(1 << (keySize - 1 - index));
+            }
+            groupingIds[i] = groupingId;
+        }
+        return groupingIds;
     }
 
-    protected  <V extends Comparable<? super V>> Function<List<T>, T> getListMinFunction(Function<T, V> value) {
-        return e -> e.stream().min(java.util.Comparator.comparing(value)).orElse(null);
+    private static void checkGroupingKeySize(int keySize) {
+        if (keySize < 1) {
+            throw new IllegalArgumentException("group keys can not be empty");
+        }
+        if (keySize > 30) {
+            throw new IllegalArgumentException("group keys can not be more than 30 but was " + keySize);
+        }
     }
 
-    protected <V extends Comparable<? super V>> Function<List<T>, MaxMin<V>> getListGroupMaxMinValueFunction(Function<T, V> value) {
-        return list -> {
-            if (list == null || list.isEmpty()) {
-                return null;
+    /**
+     * 一次哈希遍历生成透视表, 行列key各自建立下标字典, 单元格累加器按行存储
+     *
+     * @param columns       固定的列, 为null时按出现顺序收集列, 不在固定列中的数据被忽略
+     */
+    @SuppressWarnings("unchecked")
+    protected <R, C, V> PivotTable<R, C, V> pivotKey(Function<T, R> rowKey, Function<T, C> columnKey, List<C> columns, Agg<T, V> agg) {
+        AggImpl<T, Object, V> aggImpl = (AggImpl<T, Object, V>) Objects.requireNonNull(agg, "aggregate function can not be null");
+        Map<R, Integer> rowIndexMap = new LinkedHashMap<>();
+        Map<C, Integer> columnIndexMap = new LinkedHashMap<>();
+        if (columns != null) {
+            for (C column : columns) {
+                columnIndexMap.putIfAbsent(column, columnIndexMap.size());
+            }
+        }
+        boolean fixedColumns = columns != null;
+        List<Object[]> rowAccList = new ArrayList<>();
+        for (T row : viewList()) {
+            C column = columnKey.apply(row);
+            Integer columnIndex = columnIndexMap.get(column);
+            if (columnIndex == null) {
+                if (fixedColumns) {
+                    continue;
+                }
+                columnIndex = columnIndexMap.size();
+                columnIndexMap.put(column, columnIndex);
+            }
+            Integer rowIndex = rowIndexMap.computeIfAbsent(rowKey.apply(row), k -> {
+                rowAccList.add(new Object[Math.max(columnIndexMap.size(), 1)]);
+                return rowAccList.size() - 1;
+            });
+            Object[] accs = rowAccList.get(rowIndex);
+            if (columnIndex >= accs.length) {
+                // 出现新列时按需扩容
+                accs = Arrays.copyOf(accs, Math.max(columnIndexMap.size(), accs.length * 2));
+                rowAccList.set(rowIndex, accs);
             }
-            MaxMin<V> maxMin = new MaxMin<>();
-            maxMin.setMax(list.stream().max(java.util.Comparator.comparing(value)).map(value).orElse(null));
-            maxMin.setMin(list.stream().min(java.util.Comparator.comparing(value)).map(value).orElse(null));
-            return maxMin;
-        };
+            if (accs[columnIndex] == null) {
+                accs[columnIndex] = aggImpl.newAcc(numericMode);
+            }
+            aggImpl.add(accs[columnIndex], row);
+        }
+
+        int columnCount = columnIndexMap.size();
+        // 没有数据的单元格使用空累加器的结果, 如count为0, sum为null
+        V emptyValue = aggImpl.finish(aggImpl.newAcc(numericMode), defaultScale, defaultRoundingMode);
+        Object[] cells = new Object[rowAccList.size() * columnCount];
+        for (int i = 0; i < rowAccList.size(); i++) {
+            Object[] accs = rowAccList.get(i);
+            for (int j = 0; j < columnCount; j++) {
+                Object acc = j < accs.length ? accs[j] : null;
+                cells[i * columnCount + j] = acc == null ? emptyValue : aggImpl.finish(acc, defaultScale, defaultRoundingMode);
+            }
+        }
+        return new PivotTable<>(new ArrayList<>(rowIndexMap.keySet()), new ArrayList<>(columnIndexMap.keySet()), cells);
+    }
+
+    /**
+     * 一次遍历求分组最大对象, 忽略值为null的行, 值相同时保留先出现的
+     */
+    protected <V extends Comparable<? super V>> Collector<T, ?, T> maxCollector(Function<T, V> value) {
+        return maxMinCollector(value, acc -> acc.max);
+    }
+
+    protected <V extends Comparable<? super V>> Collector<T, ?, T> minCollector(Function<T, V> value) {
+        return maxMinCollector(value, acc -> acc.min);
     }
 
-    protected <V extends Comparable<? super V>> Function<List<T>, MaxMin<T>> getListGroupMaxMinFunction(Function<T, V> value) {
-        return list -> {
-            if (list == null || list.isEmpty()) {
-                return new MaxMin<>();
+    protected <V extends Comparable<? super V>> Collector<T, ?, MaxMin<V>> maxMinValueCollector(Function<T, V> value) {
+        return maxMinCollector(value, acc -> new MaxMin<>(acc.maxValue, acc.minValue));
+    }
+
+    protected <V extends Comparable<? super V>> Collector<T, ?, MaxMin<T>> maxMinCollector(Function<T, V> value) {
+        return maxMinCollector(value, acc -> new MaxMin<>(acc.max, acc.min));
+    }
+
+    private <V extends Comparable<? super V>, R> Collector<T, ?, R> maxMinCollector(Function<T, V> value, Function<MaxMinAccumulator<T, V>, R> finisher) {
+        return Collector.of(MaxMinAccumulator::new,
+                (acc, t) -> acc.accept(t, value.apply(t)),
+                MaxMinAccumulator::merge,
+                finisher);
+    }
+
+    /**
+     * 同时记录最大最小的行及其值
+     */
+    private static final class MaxMinAccumulator<T, V extends Comparable<? super V>> {
+        private T max;
+        private V maxValue;
+        private T min;
+        private V minValue;
+
+        private void accept(T row, V value) {
+            if (value == null) {
+                return;
+            }
+            if (maxValue == null || value.compareTo(maxValue) > 0) {
+                max = row;
+                maxValue = value;
             }
-            MaxMin<T> maxMin = new MaxMin<>();
-            maxMin.setMax(list.stream().max(java.util.Comparator.comparing(value)).orElse(null));
-            maxMin.setMin(list.stream().min(java.util.Comparator.comparing(value)).orElse(null));
-            return maxMin;
-        };
+            if (minValue == null || value.compareTo(minValue) < 0) {
+                min = row;
+                minValue = value;
+            }
+        }
+
+        private MaxMinAccumulator<T, V> merge(MaxMinAccumulator<T, V> other) {
+            if (other.maxValue != null && (maxValue == null || other.maxValue.compareTo(maxValue) > 0)) {
+                max = other.max;
+                maxValue = other.maxValue;
+            }
+            if (other.minValue != null && (minValue == null || other.minValue.compareTo(minValue) < 0)) {
+                min = other.min;
+                minValue = other.minValue;
+            }
+            return this;
+        }
     }
 
     /** ====================================================================================================*/
@@ -896,6 +1294,662 @@ public abstract class AbstractDataFrameImpl<T> extends AbstractWindowDataFrame<T
         }
     }
 
+    protected  <R, K, V> List<R> joinList(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join, boolean isJoinOnce) {
+        List<R> resultList = new ArrayList<>();
+        hashJoinLink(viewList(), other.toLists(), leftKey, rightKey, (t, k) -> resultList.add(join.join(t, k)), isJoinOnce, false);
+        return resultList;
+    }
+
+    protected  <K, V> void joinListLink(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join, boolean isJoinOnce) {
+        hashJoinLink(viewList(), other.toLists(), leftKey, rightKey, join, isJoinOnce, false);
+    }
+
+    protected  <R, K, V> List<R> leftJoinList(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join, boolean isJoinOnce) {
+        List<R> resultList = new ArrayList<>();
+        hashJoinLink(viewList(), other.toLists(), leftKey, rightKey, (t, k) -> resultList.add(join.join(t, k)), isJoinOnce, true);
+        return resultList;
+    }
+
+    protected  <K, V> void leftJoinListLink(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join, boolean isJoinOnce) {
+        hashJoinLink(viewList(), other.toLists(), leftKey, rightKey, join, isJoinOnce, true);
+    }
+
+    protected  <R, K, V> List<R> rightJoinList(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join, boolean isJoinOnce) {
+        List<R> resultList = new ArrayList<>();
+        hashJoinLink(other.toLists(), viewList(), rightKey, leftKey, (k, t) -> resultList.add(join.join(t, k)), isJoinOnce, true);
+        return resultList;
+    }
+
+    protected  <K, V> void rightJoinListLink(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join, boolean isJoinOnce) {
+        hashJoinLink(other.toLists(), viewList(), rightKey, leftKey, (k, t) -> join.join(t, k), isJoinOnce, true);
+    }
+
+    protected  <R, K, V> List<R> joinList(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join, boolean isJoinOnce, boolean isKeepLeft) {
+        List<R> resultList = new ArrayList<>();
+        indexJoinLink(viewList(), index, leftKey, (t, k) -> resultList.add(join.join(t, k)), isJoinOnce, isKeepLeft);
+        return resultList;
+    }
+
+    protected  <K, V> void joinListLink(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join, boolean isJoinOnce, boolean isKeepLeft) {
+        indexJoinLink(viewList(), index, leftKey, join, isJoinOnce, isKeepLeft);
+    }
+
+    protected  <R, K, V> List<R> rightJoinList(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join, boolean isJoinOnce) {
+        List<R> resultList = new ArrayList<>();
+        indexOuterJoinLink(viewList(), index, leftKey, (t, k) -> resultList.add(join.join(t, k)), isJoinOnce, false);
+        return resultList;
+    }
+
+    protected  <K, V> void rightJoinListLink(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join, boolean isJoinOnce) {
+        indexOuterJoinLink(viewList(), index, leftKey, join, isJoinOnce, false);
+    }
+
+    protected  <R, K, V> List<R> fullJoinList(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        List<R> resultList = new ArrayList<>();
+        indexOuterJoinLink(viewList(), index, leftKey, (t, k) -> resultList.add(join.join(t, k)), false, true);
+        return resultList;
+    }
+
+    protected  <R, K, V> List<R> joinParallelList(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join, boolean isKeepLeft) {
+        // 索引是只读的， 可以直接并发探测
+        return viewList().parallelStream().flatMap(cur -> {
+            List<K> matchList = cur == null ? Collections.emptyList() : index.get(leftKey.apply(cur));
+            if (matchList.isEmpty()) {
+                return isKeepLeft ? Stream.of(join.join(cur, null)) : Stream.empty();
+            }
+            return matchList.stream().map(k -> join.join(cur, k));
+        }).collect(toList());
+    }
+
+    protected  <K, V> List<T> semiJoinList(JoinIndex<K, V> index, Function<T, V> leftKey, boolean isAnti) {
+        Predicate<T> exists = t -> t != null && index.containsKey(leftKey.apply(t));
+        return viewList().stream().filter(isAnti ? exists.negate() : exists).collect(toList());
+    }
+
+    @Override
+    public <R, K, V> Stream<R> joinStream(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return hashJoinStream(other, leftKey, rightKey, join, false, false);
+    }
+
+    @Override
+    public <R, K, V> Stream<R> leftJoinStream(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return hashJoinStream(other, leftKey, rightKey, join, true, false);
+    }
+
+    @Override
+    public <R, K, V> Stream<R> fullJoinStream(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return hashJoinStream(other, leftKey, rightKey, join, true, true);
+    }
+
+    protected  <R, K, V> List<R> fullJoinList(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return hashJoinStream(other, leftKey, rightKey, join, true, true).collect(toList());
+    }
+
+    /**
+     * lazy hash join,  only the hash table of other is built eagerly,  the joined rows are produced when the stream is consumed
+     *      the hash table records which rows of other have been matched,  so the unmatched rows of other can be appended at the end for full join
+     * @param isKeepLeft        whether keep the unmatched row of this frame,  the callback value of other will be null
+     * @param isKeepRight       whether keep the unmatched row of other after all the rows of this frame,  the callback value of this frame will be null
+     */
+    protected  <R, K, V> Stream<R> hashJoinStream(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join,
+                                                 boolean isKeepLeft, boolean isKeepRight) {
+        List<K> rightList = other.toLists();
+        Map<V, List<Integer>> table = new HashMap<>();
+        for (int i = 0; i < rightList.size(); i++) {
+            K k = rightList.get(i);
+            if (k != null) {
+                table.computeIfAbsent(rightKey.apply(k), key -> new ArrayList<>(1)).add(i);
+            }
+        }
+        boolean[] matched = isKeepRight ? new boolean[rightList.size()] : null;
+        Stream<R> leftStream = viewList().stream().flatMap(cur -> {
+            List<Integer> indexList = cur == null ? null : table.get(leftKey.apply(cur));
+            if (indexList == null) {
+                return isKeepLeft ? Stream.of(join.join(cur, null)) : Stream.empty();
+            }
+            if (matched != null) {
+                indexList.forEach(index -> matched[index] = true);
+            }
+            return indexList.stream().map(index -> join.join(cur, rightList.get(index)));
+        });
+        if (!isKeepRight) {
+            return leftStream;
+        }
+        // 左边全部消费完后才知道右边哪些没有匹配上, 所以右边的流延迟到最后才生成
+        Stream<R> rightStream = Stream.of(rightList).flatMap(list -> IntStream.range(0, list.size())
+                .filter(index -> !matched[index])
+                .mapToObj(index -> join.join(null, list.get(index))));
+        // 包装成只能按顺序拉取的spliterator, 调用方再parallel()时也不会拆开左右两边,
+        // 匹配标记只由当前拉取的线程写入, 右边未匹配的行总在左边消费完之后才生成
+        Spliterator<R> joined = Stream.concat(leftStream, rightStream).spliterator();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<R>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                return joined.tryAdvance(action);
+            }
+        }, false);
+    }
+
+    /**
+     * probe the prebuilt index by the order of probe list
+     * @param probeList         the driving list
+     * @param index             index of other list
+     * @param probeKey          key of the driving list
+     * @param join              callback for each matched pair
+     * @param isJoinOnce        whether each driving row only joins the first matched row
+     * @param isKeepProbe       whether keep the unmatched driving row,  the callback value of other will be null
+     */
+    protected static <L, O, V> void indexJoinLink(List<L> probeList, JoinIndex<O, V> index, Function<L, V> probeKey,
+                                                  VoidJoin<L, O> join, boolean isJoinOnce, boolean isKeepProbe) {
+        for (L cur : probeList) {
+            List<O> matchList = cur == null ? Collections.emptyList() : index.get(probeKey.apply(cur));
+            if (matchList.isEmpty()) {
+                if (isKeepProbe) {
+                    join.join(cur, null);
+                }
+                continue;
+            }
+            if (isJoinOnce) {
+                join.join(cur, matchList.get(0));
+                continue;
+            }
+            for (O o : matchList) {
+                join.join(cur, o);
+            }
+        }
+    }
+
+    /**
+     * right or full join by the prebuilt index,  the index is probed by the rows of probe list and never rebuilt
+     *      matched rows are output in the order of probe list,  then the unmatched rows of the index in original order
+     * @param probeList         the driving list
+     * @param index             index of other list
+     * @param probeKey          key of the driving list
+     * @param join              callback for each matched pair,  the value of probe list is null for the unmatched row of the index
+     * @param isJoinOnce        whether each row of the index only joins the first matched driving row
+     * @param isKeepProbe       whether keep the unmatched driving row (full join),  the callback value of other will be null
+     */
+    protected static <L, O, V> void indexOuterJoinLink(List<L> probeList, JoinIndex<O, V> index, Function<L, V> probeKey,
+                                                       VoidJoin<L, O> join, boolean isJoinOnce, boolean isKeepProbe) {
+        boolean[] matched = new boolean[index.size()];
+        for (L cur : probeList) {
+            boolean[] found = {false};
+            if (cur != null) {
+                index.forEachMatch(probeKey.apply(cur), (o, position) -> {
+                    found[0] = true;
+                    if (isJoinOnce && matched[position]) {
+                        return;
+                    }
+                    matched[position] = true;
+                    join.join(cur, o);
+                });
+            }
+            if (!found[0] && isKeepProbe) {
+                join.join(cur, null);
+            }
+        }
+        // 索引中没有被匹配过的行放在最后
+        List<O> rowList = index.getRowList();
+        for (int i = 0; i < rowList.size(); i++) {
+            if (!matched[i]) {
+                join.join(null, rowList.get(i));
+            }
+        }
+    }
+
+    /**
+     * hash join by key, the output order is the same as the nested loop join
+     *      the smaller side is used to build the hash table,  null rows never match,  null keys match each other like {@link JoinOn#on(Function, Function)}
+     * @param probeList         the driving list,  its order determines the output order
+     * @param otherList         the other list
+     * @param probeKey          key of the driving list
+     * @param otherKey          key of the other list
+     * @param join              callback for each matched pair
+     * @param isJoinOnce        whether each driving row only joins the first matched row
+     * @param isKeepProbe       whether keep the unmatched driving row,  the callback value of other will be null
+     */
+    protected static <L, O, V> void hashJoinLink(List<L> probeList, List<O> otherList,
+                                                 Function<L, V> probeKey, Function<O, V> otherKey,
+                                                 VoidJoin<L, O> join, boolean isJoinOnce, boolean isKeepProbe) {
+        if (otherList.size() <= probeList.size()) {
+            // 右边较小:  右边建哈希表，按左边顺序探测
+            indexJoinLink(probeList, JoinIndex.of(otherList, otherKey), probeKey, join, isJoinOnce, isKeepProbe);
+            return;
+        }
+
+        // 左边较小:  左边建哈希表(值为下标)，扫描右边时把匹配结果挂到左边对应行上，最后再按左边顺序输出
+        Map<V, List<Integer>> table = new HashMap<>();
+        for (int i = 0; i < probeList.size(); i++) {
+            L cur = probeList.get(i);
+            if (cur != null) {
+                table.computeIfAbsent(probeKey.apply(cur), key -> new ArrayList<>(1)).add(i);
+            }
+        }
+        List<List<O>> matchedList = new ArrayList<>(Collections.nCopies(probeList.size(), null));
+        for (O o : otherList) {
+            if (o == null) {
+                continue;
+            }
+            List<Integer> indexList = table.get(otherKey.apply(o));
+            if (indexList == null) {
+                continue;
+            }
+            for (Integer index : indexList) {
+                List<O> matches = matchedList.get(index);
+                if (matches == null) {
+                    matches = new ArrayList<>(1);
+                    matchedList.set(index, matches);
+                } else if (isJoinOnce) {
+                    continue;
+                }
+                matches.add(o);
+            }
+        }
+        for (int i = 0; i < probeList.size(); i++) {
+            L cur = probeList.get(i);
+            List<O> matches = matchedList.get(i);
+            if (matches == null) {
+                if (isKeepProbe) {
+                    join.join(cur, null);
+                }
+                continue;
+            }
+            for (O o : matches) {
+                join.join(cur, o);
+            }
+        }
+    }
+
+    protected  <R, K, V> List<R> joinParallelList(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join,
+                                                  boolean isKeepLeft, Executor executor, boolean isKeepOrder) {
+        return partitionHashJoin(viewList(), other.toLists(), leftKey, rightKey, join, isKeepLeft, executor, isKeepOrder);
+    }
+
+    /**
+     * parallel hash join
+     *      both side are hash partitioned by key into buckets,  each bucket is built and probed independently in the executor,
+     *      every bucket writes its own result list,  so no lock is needed when merge the result
+     * @param leftList          left list
+     * @param rightList         right list
+     * @param leftKey           key of left
+     * @param rightKey          key of right
+     * @param join              Connection logic
+     * @param isKeepLeft        whether keep the unmatched left row,  the callback value of right will be null
+     * @param executor          executor to run the buckets,  if null use {@link ForkJoinPool#commonPool()}
+     * @param isKeepOrder       whether keep the order of left input,  if false the result is concatenated by bucket
+     */
+    protected static <L, O, V, R> List<R> partitionHashJoin(List<L> leftList, List<O> rightList,
+                                                           Function<L, V> leftKey, Function<O, V> rightKey, Join<L, O, R> join,
+                                                           boolean isKeepLeft, Executor executor, boolean isKeepOrder) {
+        if (executor == null) {
+            executor = ForkJoinPool.commonPool();
+        }
+        int parallelism = getParallelism(executor);
+        int bucketCount = Math.max(1, Math.min(parallelism * 2, leftList.size()));
+
+        // 计算每行key所在的桶， 然后按桶把下标排成一个连续数组(计数排序)
+        int leftSize = leftList.size();
+        Object[] leftKeys = new Object[leftSize];
+        int[] leftBuckets = new int[leftSize];
+        int[] leftOffsets = new int[bucketCount + 1];
+        for (int i = 0; i < leftSize; i++) {
+            L cur = leftList.get(i);
+            if (cur != null) {
+                leftKeys[i] = leftKey.apply(cur);
+                leftBuckets[i] = bucketOf(leftKeys[i], bucketCount);
+            }
+            leftOffsets[leftBuckets[i] + 1]++;
+        }
+        int rightSize = rightList.size();
+        Object[] rightKeys = new Object[rightSize];
+        int[] rightBuckets = new int[rightSize];
+        int[] rightOffsets = new int[bucketCount + 1];
+        for (int i = 0; i < rightSize; i++) {
+            O o = rightList.get(i);
+            if (o != null) {
+                rightKeys[i] = rightKey.apply(o);
+                rightBuckets[i] = bucketOf(rightKeys[i], bucketCount);
+                rightOffsets[rightBuckets[i] + 1]++;
+            }
+        }
+        int[] leftIndexes = toBucketIndexes(leftBuckets, leftOffsets, null);
+        int[] rightIndexes = toBucketIndexes(rightBuckets, rightOffsets, rightList);
+
+        List<List<R>> bucketResults = new ArrayList<>(Collections.nCopies(bucketCount, null));
+        int[] matchCounts = new int[leftSize];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(bucketCount);
+        for (int b = 0; b < bucketCount; b++) {
+            final int bucket = b;
+            futures.add(CompletableFuture.runAsync(() -> {
+                Map<Object, List<O>> table = new HashMap<>();
+                for (int p = rightOffsets[bucket]; p < rightOffsets[bucket + 1]; p++) {
+                    int index = rightIndexes[p];
+                    table.computeIfAbsent(rightKeys[index], key -> new ArrayList<>(1)).add(rightList.get(index));
+                }
+                List<R> resultList = new ArrayList<>();
+                for (int p = leftOffsets[bucket]; p < leftOffsets[bucket + 1]; p++) {
+                    int index = leftIndexes[p];
+                    L cur = leftList.get(index);
+                    List<O> matchList = cur == null ? null : table.get(leftKeys[index]);
+                    if (matchList == null) {
+                        if (isKeepLeft) {
+                            resultList.add(join.join(cur, null));
+                            matchCounts[index] = 1;
+                        }
+                        continue;
+                    }
+                    for (O o : matchList) {
+                        resultList.add(join.join(cur, o));
+                    }
+                    matchCounts[index] = matchList.size();
+                }
+                bucketResults.set(bucket, resultList);
+            }, executor));
+        }
+        joinAll(futures.toArray(new CompletableFuture<?>[0]));
+
+        int total = 0;
+        for (List<R> resultList : bucketResults) {
+            total += resultList.size();
+        }
+        List<R> resultList = new ArrayList<>(total);
+        if (!isKeepOrder) {
+            bucketResults.forEach(resultList::addAll);
+            return resultList;
+        }
+        // 按左边原来的顺序, 依次从每行所在桶的结果里取出它的匹配结果
+        int[] cursors = new int[bucketCount];
+        for (int i = 0; i < leftSize; i++) {
+            int bucket = leftBuckets[i];
+            List<R> bucketResult = bucketResults.get(bucket);
+            int start = cursors[bucket];
+            int end = start + matchCounts[i];
+            for (int p = start; p < end; p++) {
+                resultList.add(bucketResult.get(p));
+            }
+            cursors[bucket] = end;
+        }
+        return resultList;
+    }
+
+    private static int bucketOf(Object key, int bucketCount) {
+        int h = Objects.hashCode(key);
+        return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % bucketCount;
+    }
+
+    /**
+     * row indexes ordered by bucket,  offsets will be accumulated to the start index of each bucket
+     */
+    private static int[] toBucketIndexes(int[] buckets, int[] offsets, List<?> skipNullList) {
+        for (int b = 1; b < offsets.length; b++) {
+            offsets[b] += offsets[b - 1];
+        }
+        int[] indexes = new int[offsets[offsets.length - 1]];
+        int[] cursors = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int i = 0; i < buckets.length; i++) {
+            if (skipNullList != null && skipNullList.get(i) == null) {
+                continue;
+            }
+            indexes[cursors[buckets[i]]++] = i;
+        }
+        return indexes;
+    }
+
+    /**
+     * semi join or anti join,  build the key set of other once,  then filter this frame in a single pass
+     * @param other             other collection
+     * @param leftKey           key of this frame
+     * @param rightKey          key of other collection
+     * @param isAnti            true keep the rows that not exists in other,  false keep the rows that exists in other
+     * @param isParallel        whether filter in parallel,  the order of this frame is still kept
+     */
+    protected  <K, V> List<T> semiJoinList(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey, boolean isAnti, boolean isParallel) {
+        Set<V> keySet = new HashSet<>();
+        for (K k : other) {
+            if (k != null) {
+                keySet.add(rightKey.apply(k));
+            }
+        }
+        Predicate<T> exists = t -> t != null && keySet.contains(leftKey.apply(t));
+        Stream<T> stream = isParallel ? viewList().parallelStream() : viewList().stream();
+        return stream.filter(isAnti ? exists.negate() : exists).collect(toList());
+    }
+
+    /**
+     * as of join,  each row of this frame joins the latest row of other whose time is less than or equal to its time in the same partition
+     *      other is sorted by time once per partition,  then each row binary search it,  so it is O((n+m) log m)
+     *      if no record matched, The callback value K for Join will be null， always keep T
+     * @param leftPartition         partition key of this frame,  null means no partition
+     * @param rightPartition        partition key of other frame,  null means no partition
+     */
+    protected  <R, K, V extends Comparable<? super V>, P> List<R> asOfJoinList(IFrame<K> other, Function<T, V> leftTime, Function<K, V> rightTime,
+                                                                              Function<T, P> leftPartition, Function<K, P> rightPartition, Join<T, K, R> join) {
+        Map<P, List<K>> partitionMap = new HashMap<>();
+        for (K k : other) {
+            if (k != null && rightTime.apply(k) != null) {
+                P partition = rightPartition == null ? null : rightPartition.apply(k);
+                partitionMap.computeIfAbsent(partition, key -> new ArrayList<>()).add(k);
+            }
+        }
+        // 每个分区按时间升序(稳定排序, 相同时间的保持原顺序, 取最后一个)
+        Map<P, List<V>> timeMap = new HashMap<>();
+        for (Map.Entry<P, List<K>> entry : partitionMap.entrySet()) {
+            entry.getValue().sort(Comparator.comparing(rightTime));
+            timeMap.put(entry.getKey(), entry.getValue().stream().map(rightTime).collect(toList()));
+        }
+
+        List<R> resultList = new ArrayList<>();
+        for (T cur : this) {
+            V time = cur == null ? null : leftTime.apply(cur);
+            if (time == null) {
+                resultList.add(join.join(cur, null));
+                continue;
+            }
+            P partition = leftPartition == null ? null : leftPartition.apply(cur);
+            List<V> timeList = timeMap.get(partition);
+            int index = timeList == null ? -1 : lastIndexLessOrEqual(timeList, time);
+            resultList.add(join.join(cur, index < 0 ? null : partitionMap.get(partition).get(index)));
+        }
+        return resultList;
+    }
+
+    /**
+     * the last index whose value is less than or equal to the target in an ascending list,  -1 if not exists
+     */
+    private static <V extends Comparable<? super V>> int lastIndexLessOrEqual(List<V> sortedList, V target) {
+        int low = 0;
+        int high = sortedList.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (sortedList.get(mid).compareTo(target) <= 0) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * range join,  each row of this frame joins the rows of other whose range [start, end] contains its value
+     *      sweep this frame by value and other by start,  the active ranges are evicted by end,  so it is O((n+m) log m) plus the output
+     *      null start or null end means unbounded on that side,  the matched rows of other keep their original order
+     */
+    protected  <R, K, V extends Comparable<? super V>> List<R> rangeJoinList(IFrame<K> other, Function<T, V> leftValue,
+                                                                            Function<K, V> rightStart, Function<K, V> rightEnd, Join<T, K, R> join) {
+        List<T> leftList = viewList();
+        List<K> rightList = other.toLists();
+
+        List<Integer> leftOrder = new ArrayList<>();
+        List<V> leftValues = new ArrayList<>(Collections.nCopies(leftList.size(), null));
+        for (int i = 0; i < leftList.size(); i++) {
+            T cur = leftList.get(i);
+            V value = cur == null ? null : leftValue.apply(cur);
+            if (value != null) {
+                leftValues.set(i, value);
+                leftOrder.add(i);
+            }
+        }
+        leftOrder.sort(Comparator.comparing(leftValues::get));
+
+        List<Integer> rightOrder = new ArrayList<>();
+        List<V> startList = new ArrayList<>(Collections.nCopies(rightList.size(), null));
+        List<V> endList = new ArrayList<>(Collections.nCopies(rightList.size(), null));
+        for (int i = 0; i < rightList.size(); i++) {
+            K k = rightList.get(i);
+            if (k != null) {
+                startList.set(i, rightStart.apply(k));
+                endList.set(i, rightEnd.apply(k));
+                rightOrder.add(i);
+            }
+        }
+        rightOrder.sort(Comparator.comparing(startList::get, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        // 当前值所在的区间, 按右边原下标排序;  另外按区间结束值建堆用于淘汰
+        TreeSet<Integer> activeSet = new TreeSet<>();
+        PriorityQueue<Integer> endHeap = new PriorityQueue<>(Comparator.comparing(endList::get, Comparator.nullsLast(Comparator.naturalOrder())));
+        List<int[]> matchedList = new ArrayList<>(Collections.nCopies(leftList.size(), null));
+        int rightCursor = 0;
+        for (Integer leftIndex : leftOrder) {
+            V value = leftValues.get(leftIndex);
+            while (rightCursor < rightOrder.size()) {
+                Integer rightIndex = rightOrder.get(rightCursor);
+                V start = startList.get(rightIndex);
+                if (start != null && start.compareTo(value) > 0) {
+                    break;
+                }
+                activeSet.add(rightIndex);
+                endHeap.add(rightIndex);
+                rightCursor++;
+            }
+            while (!endHeap.isEmpty()) {
+                V end = endList.get(endHeap.peek());
+                if (end == null || end.compareTo(value) >= 0) {
+                    break;
+                }
+                activeSet.remove(endHeap.poll());
+            }
+            int[] matched = new int[activeSet.size()];
+            int p = 0;
+            for (Integer rightIndex : activeSet) {
+                matched[p++] = rightIndex;
+            }
+            matchedList.set(leftIndex, matched);
+        }
+
+        List<R> resultList = new ArrayList<>();
+        for (int i = 0; i < leftList.size(); i++) {
+            int[] matched = matchedList.get(i);
+            if (matched == null) {
+                continue;
+            }
+            for (int rightIndex : matched) {
+                resultList.add(join.join(leftList.get(i), rightList.get(rightIndex)));
+            }
+        }
+        return resultList;
+    }
+
+    protected  <R, K> List<R> mergeJoinList(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join, boolean isKeepLeft, boolean isKeepRight) {
+        List<R> resultList = new ArrayList<>();
+        mergeJoinLink(viewList(), other.toLists(), on, (t, k) -> resultList.add(join.join(t, k)), isKeepLeft, isKeepRight, false);
+        return resultList;
+    }
+
+    protected  <R, K> List<R> rightMergeJoinList(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        List<R> resultList = new ArrayList<>();
+        mergeJoinLink(viewList(), other.toLists(), on, (t, k) -> resultList.add(join.join(t, k)), false, true, true);
+        return resultList;
+    }
+
+    /**
+     * sort merge join,  both list must already be sorted in ascending order consistent with the comparator
+     *      scan both list once,  the runs of duplicate keys will be joined as cartesian product,  null rows never match
+     * @param leftList          left list
+     * @param rightList         right list
+     * @param on                compare the join key of left and right
+     * @param join              callback for each joined pair
+     * @param isKeepLeft        whether keep the unmatched left row,  the callback value of right will be null
+     * @param isKeepRight       whether keep the unmatched right row,  the callback value of left will be null
+     * @param isRightMajor      whether output the runs of duplicate keys by right order first, used by right join
+     */
+    protected static <L, O> void mergeJoinLink(List<L> leftList, List<O> rightList, CompareTwo<L, O> on, VoidJoin<L, O> join,
+                                               boolean isKeepLeft, boolean isKeepRight, boolean isRightMajor) {
+        int leftSize = leftList.size();
+        int rightSize = rightList.size();
+        int i = 0;
+        int j = 0;
+        while (i < leftSize && j < rightSize) {
+            L left = leftList.get(i);
+            if (left == null) {
+                if (isKeepLeft) {
+                    join.join(null, null);
+                }
+                i++;
+                continue;
+            }
+            O right = rightList.get(j);
+            if (right == null) {
+                if (isKeepRight) {
+                    join.join(null, null);
+                }
+                j++;
+                continue;
+            }
+            int res = on.compare(left, right);
+            if (res < 0) {
+                if (isKeepLeft) {
+                    join.join(left, null);
+                }
+                i++;
+                continue;
+            }
+            if (res > 0) {
+                if (isKeepRight) {
+                    join.join(null, right);
+                }
+                j++;
+                continue;
+            }
+            // 找出两边相同key的连续区间, 做笛卡尔积
+            int leftEnd = i + 1;
+            while (leftEnd < leftSize && leftList.get(leftEnd) != null && on.compare(leftList.get(leftEnd), right) == 0) {
+                leftEnd++;
+            }
+            int rightEnd = j + 1;
+            while (rightEnd < rightSize && rightList.get(rightEnd) != null && on.compare(left, rightList.get(rightEnd)) == 0) {
+                rightEnd++;
+            }
+            if (isRightMajor) {
+                for (int y = j; y < rightEnd; y++) {
+                    for (int x = i; x < leftEnd; x++) {
+                        join.join(leftList.get(x), rightList.get(y));
+                    }
+                }
+            } else {
+                for (int x = i; x < leftEnd; x++) {
+                    for (int y = j; y < rightEnd; y++) {
+                        join.join(leftList.get(x), rightList.get(y));
+                    }
+                }
+            }
+            i = leftEnd;
+            j = rightEnd;
+        }
+        if (isKeepLeft) {
+            for (; i < leftSize; i++) {
+                join.join(leftList.get(i), null);
+            }
+        }
+        if (isKeepRight) {
+            for (; j < rightSize; j++) {
+                join.join(null, rightList.get(j));
+            }
+        }
+    }
+
     /** ===========================   View Frame  ===================================== **/
 
 
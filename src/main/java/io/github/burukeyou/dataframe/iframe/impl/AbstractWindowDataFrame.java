@@ -1,20 +1,41 @@
 package io.github.burukeyou.dataframe.iframe.impl;
 
 import io.github.burukeyou.dataframe.iframe.SDFrame;
+import io.github.burukeyou.dataframe.iframe.function.Monoid;
+import io.github.burukeyou.dataframe.iframe.function.NumberFunction;
+import io.github.burukeyou.dataframe.iframe.function.SetFunction;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
+import io.github.burukeyou.dataframe.iframe.item.WindowDoubles;
+import io.github.burukeyou.dataframe.iframe.item.WindowInts;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
 import io.github.burukeyou.dataframe.iframe.window.SupplierFunction;
 import io.github.burukeyou.dataframe.iframe.window.Window;
 import io.github.burukeyou.dataframe.iframe.window.WindowBuilder;
+import io.github.burukeyou.dataframe.iframe.window.WindowFunction;
+import io.github.burukeyou.dataframe.iframe.window.WindowFunctionImpl;
+import io.github.burukeyou.dataframe.iframe.window.round.AfterRange;
+import io.github.burukeyou.dataframe.iframe.window.round.BeforeRange;
+import io.github.burukeyou.dataframe.iframe.window.round.CurrentRowRange;
+import io.github.burukeyou.dataframe.iframe.window.round.EndRowRange;
 import io.github.burukeyou.dataframe.iframe.window.round.Range;
-import io.github.burukeyou.dataframe.util.FieldValueList;
+import io.github.burukeyou.dataframe.iframe.window.round.StartRowRange;
+import io.github.burukeyou.dataframe.iframe.window.round.ValueRange;
+import io.github.burukeyou.dataframe.iframe.window.round.WindowRange;
+import io.github.burukeyou.dataframe.util.IntDeque;
 import io.github.burukeyou.dataframe.util.ListUtils;
 import io.github.burukeyou.dataframe.util.MathUtils;
+import io.github.burukeyou.dataframe.util.NumberAccumulator;
+import io.github.burukeyou.dataframe.util.SlidingCounter;
+import io.github.burukeyou.dataframe.util.SlidingQuantile;
+import io.github.burukeyou.dataframe.util.TDigest;
+import io.github.burukeyou.dataframe.util.WindowPartition;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 
-import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
 /**
@@ -29,55 +50,168 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
 
     protected Window<T> window;
 
+    /**
+     * 并行计算窗口时每个任务的最小行数
+     */
+    protected static final int PARALLEL_WINDOW_TASK_SIZE = 4096;
+
     protected  <V> List<FI2<T, V>> overAbject(Window<T> overParam,
                                               SupplierFunction<T,V> supplier) {
-        ((WindowBuilder<T>)overParam).initDefault();
-        List<T> windowList = viewList();
-        List<FI2<T, V>> result = new ArrayList<>();
-        if (ListUtils.isEmpty(windowList)){
-            return result;
+        return evaluateWindow(overParam, supplier::get);
+    }
+
+    /**
+     * 窗口计算引擎
+     *      一次哈希分区, 每个窗口都是同一个数组上的一段, 每个分区排序后交给evaluator计算, 结果按分区顺序拼接
+     */
+    protected <R> List<R> evaluateWindow(Window<T> overParam, Function<List<T>, ? extends Collection<R>> evaluator) {
+        WindowPartition<T> partition = partitionWindow(overParam);
+        // 预先占位, 每个分区只set自己的下标
+        List<Collection<R>> partitionResults = new ArrayList<>(Collections.nCopies(partition.partitionCount(), null));
+        forEachPartition(overParam, partition, i -> partitionResults.set(i, evaluator.apply(partition.partition(i))));
+        List<R> result = new ArrayList<>(partition.size());
+        for (Collection<R> partitionResult : partitionResults) {
+            result.addAll(partitionResult);
         }
+        return result;
+    }
 
+    /**
+     * 一次哈希分区, 分区内未排序
+     */
+    protected WindowPartition<T> partitionWindow(Window<T> overParam) {
+        ((WindowBuilder<T>)overParam).initDefault();
+        return WindowPartition.hash(viewList(), overParam.partitions());
+    }
+
+    /**
+     * 对每个分区排序后调用action
+     *      分区之间互不影响, 并行时每个任务排序并计算一段连续的分区, action只能写入自己分区的结果
+     */
+    protected void forEachPartition(Window<T> overParam, WindowPartition<T> partition, IntConsumer action) {
         Comparator<T> comparator = overParam.getComparator();
-        List<Function<T,?>> partitionList = overParam.partitions();
-        if (ListUtils.isEmpty(partitionList)){
-            if (comparator != null){
-                windowList.sort(comparator);
+        int[] taskBounds = splitWindowTask(partition);
+        if (taskBounds.length <= 2) {
+            for (int i = 0; i < partition.partitionCount(); i++) {
+                partition.sortPartition(i, comparator);
+                action.accept(i);
             }
-            return supplier.get(windowList);
+            return;
         }
 
-        // 获取每个窗口
-        List<List<T>> allWindowList = new ArrayList<>();
-        dfsFindWindow(allWindowList,windowList,partitionList,0);
+        List<CompletableFuture<?>> futures = new ArrayList<>(taskBounds.length - 1);
+        for (int t = 0; t < taskBounds.length - 1; t++) {
+            int from = taskBounds[t];
+            int to = taskBounds[t + 1];
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = from; i < to; i++) {
+                    partition.sortPartition(i, comparator);
+                    action.accept(i);
+                }
+            }, parallelExecutor));
+        }
+        joinAll(futures.toArray(new CompletableFuture<?>[0]));
+    }
 
-        for (List<T> data : allWindowList) {
-            if (comparator != null){
-                data.sort(comparator);
-            }
-            List<FI2<T, V>> tmpList = supplier.get(data);
-            result.addAll(tmpList);
+    /**
+     * 多个窗口函数共用一次分区和排序, 每个分区依次计算全部窗口函数并直接设置到对象
+     * @return      窗口顺序的数据
+     */
+    protected List<T> windowFunctionForPlan(Window<T> overParam, List<WindowFunction<T>> functions) {
+        List<SupplierFunction<T, ?>> supplierList = new ArrayList<>(functions.size());
+        for (WindowFunction<T> function : functions) {
+            supplierList.add(windowSupplierFor(overParam, (WindowFunctionImpl<T, ?>) function));
         }
+        return evaluateWindow(overParam, windowList -> {
+            for (int i = 0; i < supplierList.size(); i++) {
+                WindowFunctionImpl<T, ?> function = (WindowFunctionImpl<T, ?>) functions.get(i);
+                for (FI2<T, ?> e : supplierList.get(i).get(windowList)) {
+                    function.accept(e.getC1(), e.getC2());
+                }
+            }
+            return windowList;
+        });
+    }
 
-        return result;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected SupplierFunction<T, ?> windowSupplierFor(Window<T> overParam, WindowFunctionImpl<T, ?> function) {
+        Function field = function.getField();
+        switch (function.getType()) {
+            case ROW_NUMBER:
+                return windowSupplierForRowNumber(overParam);
+            case RANK:
+                return windowSupplierForRank(overParam);
+            case DENSE_RANK:
+                return windowSupplierForDenseRank(overParam);
+            case PERCENT_RANK:
+                return windowSupplierForPercentRank(overParam);
+            case CUME_DIST:
+                return windowSupplierForCumeDist(overParam);
+            case LAG:
+                return windowSupplierForLag(overParam, field, function.getN());
+            case LEAD:
+                return windowSupplierForLead(overParam, field, function.getN());
+            case FIRST_VALUE:
+            case LAST_VALUE:
+            case NTH_VALUE:
+                return windowSupplierForNthValue(overParam, field, function.getN());
+            case SUM:
+                return windowSupplierForSum(overParam, field);
+            case AVG:
+                return windowSupplierForAvg(overParam, field);
+            case MAX:
+                return windowSupplierForMaxValue(overParam, field);
+            case MIN:
+                return windowSupplierForMinValue(overParam, field);
+            case COUNT:
+                return windowSupplierForCount(overParam);
+            case PERCENTILE:
+                return windowSupplierForPercentile(overParam, field, function.getQ());
+            case NTILE:
+                return windowSupplierForNtile(overParam, function.getN());
+            case MEDIAN:
+                return windowSupplierForMedian(overParam, field);
+            case COUNT_DISTINCT:
+                return windowSupplierForCountDistinct(overParam, field);
+            case MODE:
+                return windowSupplierForMode(overParam, field);
+            default:
+                throw new IllegalArgumentException("unsupported window function " + function.getType());
+        }
     }
 
-    protected  void dfsFindWindow(List<List<T>> result,
-                                  List<T> windowList,
-                                  List<Function<T, ?>> partitionList,
-                                  int index){
-        if (index >= partitionList.size()){
-            result.add(windowList);
-            return;
+    /**
+     * 按行数把连续的分区切分成多个任务, 大分区单独成为一个任务, 小分区合并, 避免数据倾斜
+     * @return      任务的分区下标边界, 第t个任务为 [bounds[t], bounds[t+1]), 串行时只有一个任务
+     */
+    protected int[] splitWindowTask(WindowPartition<T> partition) {
+        int partitionCount = partition.partitionCount();
+        if (parallelExecutor == null || partitionCount <= 1 || partition.size() < PARALLEL_WINDOW_TASK_SIZE * 2) {
+            return new int[]{0, partitionCount};
         }
-        Function<T,?> partitionBy = partitionList.get(index);
-        Map<?,List<T>> collect = windowList.stream().collect(groupingBy(partitionBy));
-        for (List<T> window : collect.values()) {
-            dfsFindWindow(result,window,partitionList,index+1);
+        int parallelism = getParallelism(parallelExecutor);
+        int taskSize = Math.max(PARALLEL_WINDOW_TASK_SIZE, partition.size() / (parallelism * 4));
+        int[] bounds = new int[partitionCount + 1];
+        int taskCount = 0;
+        int rows = 0;
+        for (int i = 0; i < partitionCount; i++) {
+            rows += partition.end(i) - partition.start(i);
+            if (rows >= taskSize) {
+                bounds[++taskCount] = i + 1;
+                rows = 0;
+            }
+        }
+        if (rows > 0) {
+            bounds[++taskCount] = partitionCount;
         }
+        return Arrays.copyOf(bounds, taskCount + 1);
     }
 
     protected List<FI2<T, Integer>> windowFunctionForRowNumber(Window<T> overParam) {
+        return overAbject(overParam, windowSupplierForRowNumber(overParam));
+    }
+
+    protected SupplierFunction<T,Integer> windowSupplierForRowNumber(Window<T> overParam) {
         SupplierFunction<T,Integer> supplier = windowList -> {
             List<FI2<T, Integer>> result = new ArrayList<>();
             int index = 1;
@@ -86,10 +220,14 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
             }
             return result;
         };
-        return overAbject(overParam, supplier);
+        return supplier;
+    }
+
+    protected List<FI2<T, Integer>> windowFunctionForRank(Window<T> overParam) {
+        return overAbject(overParam, windowSupplierForRank(overParam));
     }
 
-    protected  List<FI2<T, Integer>> windowFunctionForRank(Window<T> overParam) {
+    protected SupplierFunction<T,Integer> windowSupplierForRank(Window<T> overParam) {
         checkWindow(overParam);
 
         SupplierFunction<T,Integer> supplier = (windowList) -> {
@@ -111,10 +249,14 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
             }
             return result;
         };
-        return overAbject(overParam,supplier);
+        return supplier;
     }
 
     protected List<FI2<T, Integer>> windowFunctionForDenseRank(Window<T> overParam) {
+        return overAbject(overParam, windowSupplierForDenseRank(overParam));
+    }
+
+    protected SupplierFunction<T,Integer> windowSupplierForDenseRank(Window<T> overParam) {
         checkWindow(overParam);
 
         SupplierFunction<T,Integer> supplier = (windowList) -> {
@@ -136,10 +278,14 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
             }
             return result;
         };
-        return overAbject(overParam,supplier);
+        return supplier;
+    }
+
+    protected List<FI2<T, BigDecimal>> windowFunctionForPercentRank(Window<T> overParam) {
+        return overAbject(overParam, windowSupplierForPercentRank(overParam));
     }
 
-    protected  List<FI2<T, BigDecimal>> windowFunctionForPercentRank(Window<T> overParam) {
+    protected SupplierFunction<T,BigDecimal> windowSupplierForPercentRank(Window<T> overParam) {
         checkWindow(overParam);
 
         SupplierFunction<T,BigDecimal> supplier = (windowList) -> {
@@ -163,10 +309,14 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
             }
             return result;
         };
-        return overAbject(overParam,supplier);
+        return supplier;
     }
 
-    protected  List<FI2<T, BigDecimal>> windowFunctionForCumeDist(Window<T> overParam) {
+    protected List<FI2<T, BigDecimal>> windowFunctionForCumeDist(Window<T> overParam) {
+        return overAbject(overParam, windowSupplierForCumeDist(overParam));
+    }
+
+    protected SupplierFunction<T,BigDecimal> windowSupplierForCumeDist(Window<T> overParam) {
         checkWindow(overParam);
 
         SupplierFunction<T,BigDecimal> supplier = (windowList) -> {
@@ -199,7 +349,7 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
             return resultList;
         };
 
-        return overAbject(overParam,supplier);
+        return supplier;
     }
 
     private void checkWindow(Window<T> overParam) {
@@ -213,99 +363,120 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
      * 获取当前行的前N行的值
      */
     protected <F> List<FI2<T, F>> windowFunctionForLag(Window<T> overParam, Function<T, F> field, int n) {
-        SupplierFunction<T,F> supplier = (windowList) -> {
-            List<FI2<T, F>> result = new ArrayList<>();
-            for (int i = 0; i < windowList.size(); i++) {
-                int preIndex = i - n;
-                if (preIndex < 0){
-                    result.add(new FI2<>(windowList.get(i),null));
-                    continue;
-                }
+        return overAbject(overParam, windowSupplierForLag(overParam, field, n));
+    }
 
-                FI2<Integer, Integer> indexRange = getIndexRange(overParam, i, windowList);
-                if (!isInRange(indexRange,preIndex)){
-                    preIndex = -1;
-                }
+    protected <F> SupplierFunction<T,F> windowSupplierForLag(Window<T> overParam, Function<T, F> field, int n) {
+        return windowSupplierOf(windowKernelForLag(overParam, field, n));
+    }
 
-                F value = null;
-                if (preIndex >= 0 && preIndex < windowList.size()){
-                    value = field.apply(windowList.get(preIndex));
-                }
-                result.add(new FI2<>(windowList.get(i),value));
+    /**
+     * 前N行不在窗口内时为null
+     */
+    protected <F> WindowKernel<T> windowKernelForLag(Window<T> overParam, Function<T, F> field, int n) {
+        return (windowList, values, offset) -> {
+            int[][] ranges = getFrameIndexRanges(overParam, windowList);
+            for (int i = 0; i < windowList.size(); i++) {
+                int preIndex = i - n;
+                values[offset + i] = preIndex >= ranges[0][i] && preIndex <= ranges[1][i] ? field.apply(windowList.get(preIndex)) : null;
             }
-            return result;
         };
-        return overAbject(overParam,supplier);
     }
 
     /**
      * 获取当前行的后N行的值
      */
     protected <F> List<FI2<T, F>> windowFunctionForLead(Window<T> overParam, Function<T, F> field, int n) {
-        SupplierFunction<T,F> supplier = (windowList) -> {
-            List<FI2<T, F>> result = new ArrayList<>();
-            for (int i = 0; i < windowList.size(); i++) {
-                int afterIndex = i + n;
+        return overAbject(overParam, windowSupplierForLead(overParam, field, n));
+    }
 
-                FI2<Integer, Integer> indexRange = getIndexRange(overParam, i, windowList);
-                if (!isInRange(indexRange,afterIndex)){
-                    afterIndex = -1;
-                }
+    protected <F> SupplierFunction<T,F> windowSupplierForLead(Window<T> overParam, Function<T, F> field, int n) {
+        return windowSupplierOf(windowKernelForLead(overParam, field, n));
+    }
 
-                F value = null;
-                if (afterIndex >= 0 && afterIndex < windowList.size()){
-                    value = field.apply(windowList.get(afterIndex));
-                }
-                result.add(new FI2<>(windowList.get(i),value));
+    /**
+     * 后N行不在窗口内时为null
+     */
+    protected <F> WindowKernel<T> windowKernelForLead(Window<T> overParam, Function<T, F> field, int n) {
+        return (windowList, values, offset) -> {
+            int[][] ranges = getFrameIndexRanges(overParam, windowList);
+            for (int i = 0; i < windowList.size(); i++) {
+                int afterIndex = i + n;
+                values[offset + i] = afterIndex >= ranges[0][i] && afterIndex <= ranges[1][i] ? field.apply(windowList.get(afterIndex)) : null;
             }
-            return result;
         };
-        return overAbject(overParam,supplier);
     }
 
     /**
      *  获取窗口内第N行的值
      */
     protected <F> List<FI2<T, F>> windowFunctionForNthValue(Window<T> overParam, Function<T, F> field, int n) {
-        SupplierFunction<T,F> supplier = (windowList) -> {
-            int index;
-            if (n == -1){
-                // 获取窗口最后一行
-                index = windowList.size() - 1;
-            }else {
-                index = n - 1;
-            }
+        return overAbject(overParam, windowSupplierForNthValue(overParam, field, n));
+    }
 
-            if (index < 0 || index >= windowList.size()){
-                return windowList.stream().map(e -> new FI2<T,F>(e,null)).collect(toList());
-            }
+    protected <F> SupplierFunction<T,F> windowSupplierForNthValue(Window<T> overParam, Function<T, F> field, int n) {
+        return windowSupplierOf(windowKernelForNthValue(overParam, field, n));
+    }
 
-            List<FI2<T, F>> result = new ArrayList<>();
+    /**
+     * 窗口内第n行, n为-1时取窗口最后一行, 超出窗口时为null
+     */
+    protected <F> WindowKernel<T> windowKernelForNthValue(Window<T> overParam, Function<T, F> field, int n) {
+        return (windowList, values, offset) -> {
+            int[][] ranges = getFrameIndexRanges(overParam, windowList);
             for (int i = 0; i < windowList.size(); i++) {
-                F value = null;
-                FI2<Integer, Integer> indexRange = getIndexRange(overParam, i, windowList);
-                if (indexRange.getC1() < 0){
-                    // 重新设置窗口开始边界
-                    indexRange.setC1(0);
-                }
+                int index = n == -1 ? ranges[1][i] : ranges[0][i] + n - 1;
+                values[offset + i] = index >= ranges[0][i] && index <= ranges[1][i] ? field.apply(windowList.get(index)) : null;
+            }
+        };
+    }
 
-                if (n != -1){
-                    // 获取窗口内的第n行
-                    index = indexRange.getC1() + n - 1;
-                }else {
-                    index = indexRange.getC2();
-                }
-                if (index >= 0 && index < windowList.size() && isInRange(indexRange,index)){
-                    value = field.apply(windowList.get(index));
-                }
-                result.add(new FI2<>(windowList.get(i),value));
+    /**
+     * 计算一个已排序分区的窗口函数, 第i行的结果写入values[offset + i]
+     */
+    @FunctionalInterface
+    protected interface WindowKernel<T> {
+
+        void apply(List<T> windowList, Object[] values, int offset);
+    }
+
+    /**
+     * 单个分区的kernel结果转为逐行二元组, 供overXxx和窗口计划使用
+     */
+    @SuppressWarnings("unchecked")
+    protected <V> SupplierFunction<T,V> windowSupplierOf(WindowKernel<T> kernel) {
+        return windowList -> {
+            Object[] values = new Object[windowList.size()];
+            kernel.apply(windowList, values, 0);
+            List<FI2<T, V>> result = new ArrayList<>(values.length);
+            for (int i = 0; i < values.length; i++) {
+                result.add(new FI2<>(windowList.get(i), (V) values[i]));
             }
             return result;
         };
-        return overAbject(overParam,supplier);
     }
 
+    /**
+     * 所有分区的kernel结果写入同一个数组后直接设置到对象, 不创建中间二元组
+     * @return      窗口顺序的数据
+     */
+    @SuppressWarnings("unchecked")
+    protected <V> List<T> setWindowValues(Window<T> overParam, WindowKernel<T> kernel, SetFunction<T, V> setFunction) {
+        WindowPartition<T> partition = partitionWindow(overParam);
+        Object[] values = new Object[partition.size()];
+        forEachPartition(overParam, partition, p -> kernel.apply(partition.partition(p), values, partition.start(p)));
+        List<T> rows = partition.rows();
+        for (int i = 0; i < values.length; i++) {
+            setFunction.accept(rows.get(i), (V) values[i]);
+        }
+        return new ArrayList<>(rows);
+    }
+
+    @SuppressWarnings("unchecked")
     public <V> FI2<Integer,Integer> getIndexRange(Window<T> overParam, int currentIndex,List<V> windowList){
+        if (isValueRange(overParam)){
+            return getValueIndexRange(overParam, currentIndex, (List<T>) windowList);
+        }
         Integer startIndex = overParam.getStartRange().getStartIndex(currentIndex, windowList);
         Integer endIndex = overParam.getEndRange().getEndIndex(currentIndex, windowList);
         return new FI2<>(startIndex, endIndex);
@@ -319,304 +490,259 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
         return Range.START_ROW.equals(overParam.getStartRange()) && Range.END_ROW.equals(overParam.getEndRange());
     }
 
-    protected <F> List<FI2<T, BigDecimal>> windowFunctionForSum(Window<T> overParam, Function<T, F> field) {
-        SupplierFunction<T,BigDecimal> supplier = (windowList) -> {
-            if (isAllRow(overParam)){
-                BigDecimal value = SDFrame.read(windowList).sum(field);
-                return windowList.stream().map(e -> new FI2<>(e,value)).collect(toList());
-            }
-            return slidingWindowSum(windowList,overParam,field);
-        };
-        return overAbject(overParam,supplier);
+    public boolean isValueRange(Window<T> overParam){
+        return overParam.getRangeValueField() != null && !isAllRow(overParam);
     }
 
-    public <F> List<FI2<T, BigDecimal>> slidingWindowSum(List<T> nums, Window<T> overParam, Function<T, F> field) {
-        FI2<Integer, Integer> firstSlidingWindow = getFirstSlidingWindow(nums, overParam);
-        Integer startIndex = firstSlidingWindow.getC1();
-        Integer endIndex = firstSlidingWindow.getC2();
-
-        // 计算第一个窗口的和
-        BigDecimal windowSum = BigDecimal.ZERO;
-        for (int i = startIndex; i <= endIndex && i < nums.size(); i++) {
-            if (i >= 0){
-                windowSum = windowSum.add(getBigDecimalValue(nums.get(i),field));
-            }
-        }
-        List<FI2<T, BigDecimal>> dataList = new ArrayList<>();
-
-        dataList.add(new FI2<>(nums.get(0),windowSum));
-
-        // 滑动窗口并计算后续窗口的和 移动次数
-        int index = 1;
-        while (dataList.size() < nums.size()) {
-            if (!overParam.getEndRange().isFixedEndIndex()){
-                ++endIndex;
-                if (endIndex >= 0 && endIndex < nums.size()){
-                    windowSum = windowSum.add(getBigDecimalValue(nums.get(endIndex),field));
+    /**
+     * RANGE窗口单行的下标范围, 二分查找排序值的边界
+     */
+    protected FI2<Integer,Integer> getValueIndexRange(Window<T> overParam, int currentIndex, List<T> windowList){
+        Function<T, ? extends Number> valueField = overParam.getRangeValueField();
+        double value = ValueRange.toValue(valueField.apply(windowList.get(currentIndex)));
+        int start = 0;
+        int end = windowList.size() - 1;
+        if (overParam.getStartRange() instanceof ValueRange){
+            // 第一个排序值 >= 下边界的行
+            double bound = value + ((ValueRange) overParam.getStartRange()).getOffset();
+            int lo = 0;
+            int hi = windowList.size();
+            while (lo < hi){
+                int mid = (lo + hi) >>> 1;
+                if (ValueRange.toValue(valueField.apply(windowList.get(mid))) < bound){
+                    lo = mid + 1;
+                }else {
+                    hi = mid;
                 }
             }
-
-            if (!overParam.getStartRange().isFixedStartIndex()){
-                if (startIndex >= 0 && startIndex < nums.size()){
-                    windowSum = windowSum.subtract(getBigDecimalValue(nums.get(startIndex),field));
+            start = lo;
+        }
+        if (overParam.getEndRange() instanceof ValueRange){
+            // 最后一个排序值 <= 上边界的行
+            double bound = value + ((ValueRange) overParam.getEndRange()).getOffset();
+            int lo = 0;
+            int hi = windowList.size();
+            while (lo < hi){
+                int mid = (lo + hi) >>> 1;
+                if (ValueRange.toValue(valueField.apply(windowList.get(mid))) <= bound){
+                    lo = mid + 1;
+                }else {
+                    hi = mid;
                 }
-                startIndex++;
-            }
-
-            if (endIndex >= 0){
-                dataList.add(new FI2<>(nums.get(index++),windowSum));
             }
+            end = lo - 1;
         }
-        return dataList;
+        return new FI2<>(start, end);
     }
 
-    public <F> BigDecimal getBigDecimalValue(T obj,Function<T, F> field){
-        F apply = field.apply(obj);
-        if (apply == null){
-            return BigDecimal.ZERO;
-        }
-        if (apply instanceof BigDecimal) {
-            return (BigDecimal) apply;
-        } else {
-            return new BigDecimal(String.valueOf(apply));
-        }
-    }
-
-    protected <F> List<FI2<T, BigDecimal>> windowFunctionForAvg(Window<T> overParam, Function<T, F> field) {
-        SupplierFunction<T,BigDecimal> supplier = (windowList) -> {
-            if (isAllRow(overParam)){
-                BigDecimal value = SDFrame.read(windowList)
-                        .defaultScale(defaultScale,defaultRoundingMode)
-                        .avg(field);
-                return windowList.stream().map(e -> new FI2<>(e,value)).collect(toList());
-            }
-
-            return slidingWindowAvg(windowList,overParam,field);
-        };
-        return overAbject(overParam,supplier);
-    }
-
-    public <F> List<FI2<T, BigDecimal>> slidingWindowAvg(List<T> nums, Window<T> overParam, Function<T, F> field) {
-        FI2<Integer, Integer> firstSlidingWindow = getFirstSlidingWindow(nums, overParam);
-        Integer startIndex = firstSlidingWindow.getC1();
-        Integer endIndex = firstSlidingWindow.getC2();
-
-        // 计算第一个窗口
-        BigDecimal windowSum = BigDecimal.ZERO;
-        int windowSize = 0;
-        for (int i = startIndex; i <= endIndex && i < nums.size(); i++) {
-            if (i >= 0){
-                windowSize++;
-                windowSum = windowSum.add(getBigDecimalValue(nums.get(i),field));
+    /**
+     * RANGE窗口所有行的下标范围
+     *      排序值递增时每行窗口的起点和终点都只会前进, 双指针O(n)计算
+     * @return      {起点数组, 终点数组}, 终点包含, 起点大于终点时窗口为空
+     */
+    protected int[][] getValueIndexRanges(Window<T> overParam, List<T> windowList){
+        Function<T, ? extends Number> valueField = overParam.getRangeValueField();
+        int n = windowList.size();
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = ValueRange.toValue(valueField.apply(windowList.get(i)));
+            if (i > 0 && values[i] < values[i - 1]){
+                throw new IllegalArgumentException("range window must be sorted ascending by the range value");
             }
         }
-        List<FI2<T, BigDecimal>> dataList = new ArrayList<>();
-        dataList.add(new FI2<>(nums.get(0),MathUtils.divide(windowSum,new BigDecimal(windowSize),defaultScale,defaultRoundingMode)));
-
-        // 滑动窗口并计算后续窗口的和 窗口大小
-        int index = 1;
-        while (dataList.size() < nums.size()) {
-            // 滑动右窗口
-            if (!overParam.getEndRange().isFixedEndIndex()){
-                ++endIndex;
-                if (endIndex >= 0 && endIndex < nums.size()){
-                    windowSum = windowSum.add(getBigDecimalValue(nums.get(endIndex),field));
+        WindowRange startRange = overParam.getStartRange();
+        WindowRange endRange = overParam.getEndRange();
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        int lo = 0;
+        int hi = -1;
+        for (int i = 0; i < n; i++) {
+            if (startRange instanceof ValueRange){
+                double bound = values[i] + ((ValueRange) startRange).getOffset();
+                while (lo < n && values[lo] < bound){
+                    lo++;
                 }
+                starts[i] = lo;
             }
-
-            // 滑动左窗口
-            if (!overParam.getStartRange().isFixedStartIndex()){
-                if (startIndex >= 0 && startIndex < nums.size()){
-                    windowSum = windowSum.subtract(getBigDecimalValue(nums.get(startIndex),field));
+            if (endRange instanceof ValueRange){
+                double bound = values[i] + ((ValueRange) endRange).getOffset();
+                while (hi + 1 < n && values[hi + 1] <= bound){
+                    hi++;
                 }
-                startIndex++;
-            }
-
-            windowSize = getActualWindowSize(nums,startIndex,endIndex);
-            if (endIndex >= 0){
-                dataList.add(new FI2<>(nums.get(index++),MathUtils.divide(windowSum,new BigDecimal(windowSize),defaultScale,defaultRoundingMode)));
+                ends[i] = hi;
+            }else {
+                ends[i] = n - 1;
             }
         }
-        return dataList;
+        return new int[][]{starts, ends};
     }
 
-    private Integer getActualWindowSize(List<T> nums, Integer startIndex, Integer endIndex) {
-        if (endIndex < 0 || startIndex >= nums.size()){
-            return 0;
-        }
-        if (startIndex < 0 && endIndex >= nums.size()){
-            return nums.size();
-        }
-
-        int left = startIndex < 0 ? 0 : startIndex;
-        int right = endIndex >= nums.size() ? nums.size() - 1 : endIndex;
-        return right - left + 1;
+    protected <F> List<FI2<T, BigDecimal>> windowFunctionForSum(Window<T> overParam, Function<T, F> field) {
+        return overAbject(overParam, windowSupplierForSum(overParam, field));
     }
 
-
-    public  FI2<Integer, Integer> getFirstSlidingWindow(List<T> windowList,Window<T> overParam) {
-        return getIndexRange(overParam, 0, windowList);
+    protected <F> SupplierFunction<T,BigDecimal> windowSupplierForSum(Window<T> overParam, Function<T, F> field) {
+        return windowSupplierOf(windowKernelForSum(overParam, field, false));
     }
 
-    public <F extends Comparable<? super F>> void updateSlidingWindowMaxQueue(LinkedList<Integer> queue,FieldValueList<T, F> obj, int i){
-        // 移除比当前元素小的. 就是之前比他（i）先进的但是比他小的已经没有意义了不会再获取他们，只会可能获取到i
-        while (!queue.isEmpty() && obj.get(queue.peekLast()).compareTo(obj.get(i)) < 0){
-            queue.removeLast();
-        }
-        // 添加队列
-        queue.add(i);
+    /**
+     * 滑动求和或平均值, 按frame的数值模式增量累加和减去进出窗口的值
+     *      null值按0处理并计入平均值的行数, 空窗口为null;  整个分区时与frame的sum、avg一致
+     */
+    protected <F> WindowKernel<T> windowKernelForSum(Window<T> overParam, Function<T, F> field, boolean isAvg) {
+        return (windowList, values, offset) -> {
+            if (isAllRow(overParam)){
+                SDFrame<T> frame = SDFrame.read(windowList).defaultScale(defaultScale, defaultRoundingMode).numericMode(numericMode);
+                BigDecimal value = isAvg ? frame.avg(field) : frame.sum(field);
+                Arrays.fill(values, offset, offset + windowList.size(), value);
+                return;
+            }
+            List<Number> fieldValues = windowList.stream().map(e -> toNumber(field.apply(e))).collect(toList());
+            int[][] ranges = getFrameIndexRanges(overParam, windowList);
+            NumberAccumulator[] sum = {new NumberAccumulator(numericMode)};
+            slideFrame(ranges,
+                    index -> sum[0].add(fieldValues.get(index)),
+                    index -> sum[0].retract(fieldValues.get(index)),
+                    () -> sum[0] = new NumberAccumulator(numericMode),
+                    i -> {
+                        int size = ranges[1][i] - ranges[0][i] + 1;
+                        if (size <= 0){
+                            values[offset + i] = null;
+                            return;
+                        }
+                        BigDecimal windowSum = sum[0].getCount() == 0 ? BigDecimal.ZERO : sum[0].getSum();
+                        values[offset + i] = isAvg ? MathUtils.divide(windowSum, new BigDecimal(size), defaultScale, defaultRoundingMode) : windowSum;
+                    });
+        };
     }
 
-    public <F extends Comparable<? super F>> void updateSlidingWindowMinQueue(LinkedList<Integer> queue,FieldValueList<T, F> obj, int i){
-        // 移除比当前元素大的. 就是之前比他（i）先进的但是比他大的已经没有意义了不会再获取他们，只会可能获取到i
-        while (!queue.isEmpty() && obj.get(queue.peekLast()).compareTo(obj.get(i)) > 0){
-            queue.removeLast();
+    private static Number toNumber(Object value) {
+        if (value == null || value instanceof Number){
+            return (Number) value;
         }
-        // 添加队列
-        queue.add(i);
+        return MathUtils.toBigDecimal(value);
     }
 
-    public <F extends Comparable<? super F>> List<FI2<T, F>> slidingWindowForMaxValue(List<T> nums, Window<T> overParam, Function<T, F> field) {
-        FI2<Integer, Integer> firstSlidingWindow = getFirstSlidingWindow(nums, overParam);
-        Integer startIndex = firstSlidingWindow.getC1();
-        Integer endIndex = firstSlidingWindow.getC2();
-        FieldValueList<T, F> obj = new FieldValueList<>(nums, field);
-
-        // 双端队列，存放窗口内的元素的索引。 单调递减
-        LinkedList<Integer> queue = new LinkedList<>();
-
-        // 初始化第一个窗口
-        for (int i = startIndex; i <= endIndex && i < nums.size(); i++) {
-            if (i < 0){
-                continue;
-            }
-            updateSlidingWindowMaxQueue(queue,obj,i);
-        }
-
-        List<FI2<T, F>> dataList = new ArrayList<>();
-        Integer maxIndex = queue.peekFirst();
-        dataList.add(new FI2<>(nums.get(0),obj.get(maxIndex)));
-
-        // 滑动窗口
-        int index = 1;
-        while (dataList.size() < nums.size()) {
-            if (!overParam.getEndRange().isFixedEndIndex()){
-                ++endIndex;
-                if (endIndex >= 0 && endIndex < nums.size()){
-                    updateSlidingWindowMaxQueue(queue,obj,endIndex);
-                }
-            }
-
-            if (!overParam.getStartRange().isFixedStartIndex()){
-                startIndex++;
-            }
-
-            // 窗口边界更新了，将越界的最大元素移除掉， 只要最大值没有越界就可以获取到，
-            // 那些不是最大值的虽然可能已经出窗口了但是获取不到不用管
-            while(!queue.isEmpty() && queue.peekFirst() < startIndex){
-                queue.removeFirst();
-            }
+    protected <F> List<FI2<T, BigDecimal>> windowFunctionForAvg(Window<T> overParam, Function<T, F> field) {
+        return overAbject(overParam, windowSupplierForAvg(overParam, field));
+    }
 
-            if (endIndex >= 0){
-                dataList.add(new FI2<>(nums.get(index++),obj.get(queue.peekFirst())));
+    protected <F> SupplierFunction<T,BigDecimal> windowSupplierForAvg(Window<T> overParam, Function<T, F> field) {
+        return windowSupplierOf(windowKernelForSum(overParam, field, true));
+    }
 
-            }
-        }
-        return dataList;
+    protected <F extends Comparable<? super F>> List<FI2<T, F>> windowFunctionForMaxValue(Window<T> overParam, Function<T, F> field) {
+        return overAbject(overParam, windowSupplierForMaxValue(overParam, field));
     }
 
-    public <F extends Comparable<? super F>> List<FI2<T, F>> slidingWindowForMinValue(List<T> nums, Window<T> overParam, Function<T, F> field) {
-        FI2<Integer, Integer> firstSlidingWindow = getFirstSlidingWindow(nums, overParam);
-        Integer startIndex = firstSlidingWindow.getC1();
-        Integer endIndex = firstSlidingWindow.getC2();
-        FieldValueList<T, F> obj = new FieldValueList<>(nums, field);
+    protected <F extends Comparable<? super F>> SupplierFunction<T,F> windowSupplierForMaxValue(Window<T> overParam, Function<T, F> field) {
+        return windowSupplierOf(windowKernelForMaxMin(overParam, field, 1));
+    }
 
-        // 双端队列，存放窗口内的元素的索引。 单调递增
-        LinkedList<Integer> queue = new LinkedList<>();
+    protected <F extends Comparable<? super F>> List<FI2<T, F>> windowFunctionForMinValue(Window<T> overParam, Function<T, F> field) {
+        return overAbject(overParam, windowSupplierForMinValue(overParam, field));
+    }
 
-        // 初始化第一个窗口
-        for (int i = startIndex; i <= endIndex && i < nums.size(); i++) {
-            if (i < 0){
-                continue;
-            }
-            updateSlidingWindowMinQueue(queue,obj,i);
-        }
+    protected <F extends Comparable<? super F>> SupplierFunction<T,F> windowSupplierForMinValue(Window<T> overParam, Function<T, F> field) {
+        return windowSupplierOf(windowKernelForMaxMin(overParam, field, -1));
+    }
 
-        List<FI2<T, F>> dataList = new ArrayList<>();
-        Integer maxIndex = queue.peekFirst();
-        dataList.add(new FI2<>(nums.get(0),obj.get(maxIndex)));
-
-        // 滑动窗口
-        int index = 1;
-        while (dataList.size() < nums.size()) {
-            if (!overParam.getEndRange().isFixedEndIndex()){
-                ++endIndex;
-                if (endIndex >= 0 && endIndex < nums.size()){
-                    updateSlidingWindowMinQueue(queue,obj,endIndex);
-                }
+    /**
+     * 滑动最大值或最小值, 单调队列存放下标, null值忽略, 空窗口为null
+     * @param sign      1为最大值, -1为最小值
+     */
+    protected <F extends Comparable<? super F>> WindowKernel<T> windowKernelForMaxMin(Window<T> overParam, Function<T, F> field, int sign) {
+        return (windowList, values, offset) -> {
+            if (isAllRow(overParam)){
+                F value = sign > 0 ? SDFrame.read(windowList).maxValue(field) : SDFrame.read(windowList).minValue(field);
+                Arrays.fill(values, offset, offset + windowList.size(), value);
+                return;
             }
+            List<F> fieldValues = windowList.stream().map(field).collect(toList());
+            IntDeque queue = new IntDeque();
+            slideFrame(getFrameIndexRanges(overParam, windowList),
+                    index -> {
+                        F value = fieldValues.get(index);
+                        if (value == null){
+                            return;
+                        }
+                        while (!queue.isEmpty() && sign * fieldValues.get(queue.peekLast()).compareTo(value) < 0){
+                            queue.removeLast();
+                        }
+                        queue.addLast(index);
+                    },
+                    // 下标按顺序离开窗口, 不在队首的已经被后来的值淘汰
+                    index -> {
+                        if (!queue.isEmpty() && queue.peekFirst() == index){
+                            queue.removeFirst();
+                        }
+                    },
+                    queue::clear,
+                    i -> values[offset + i] = queue.isEmpty() ? null : fieldValues.get(queue.peekFirst()));
+        };
+    }
 
-            if (!overParam.getStartRange().isFixedStartIndex()){
-                startIndex++;
-            }
+    protected List<FI2<T, Integer>> windowFunctionForCount(Window<T> overParam) {
+        return overAbject(overParam, windowSupplierForCount(overParam));
+    }
 
-            while(!queue.isEmpty() && queue.peekFirst() < startIndex){
-                queue.removeFirst();
+    protected SupplierFunction<T,Integer> windowSupplierForCount(Window<T> overParam) {
+        SupplierFunction<T,Integer> supplier = (windowList) -> {
+            int[] values = new int[windowList.size()];
+            windowCount(overParam, windowList, values, 0);
+            List<FI2<T, Integer>> result = new ArrayList<>(values.length);
+            for (int i = 0; i < values.length; i++) {
+                result.add(new FI2<>(windowList.get(i), values[i]));
             }
+            return result;
+        };
+        return supplier;
+    }
 
-            if (endIndex >= 0){
-                dataList.add(new FI2<>(nums.get(index++),obj.get(queue.peekFirst())));
-            }
-        }
-        return dataList;
+    protected WindowInts<T> windowCountInts(Window<T> overParam) {
+        WindowPartition<T> partition = partitionWindow(overParam);
+        int[] values = new int[partition.size()];
+        forEachPartition(overParam, partition, p -> windowCount(overParam, partition.partition(p), values, partition.start(p)));
+        return new WindowInts<>(partition.rows(), values);
     }
 
-    protected <F extends Comparable<? super F>>  List<FI2<T, F>>  windowFunctionForMaxValue(Window<T> overParam, Function<T, F> field) {
-        SupplierFunction<T,F> supplier = (windowList) -> {
-            if (isAllRow(overParam)){
-                F value = SDFrame.read(windowList).maxValue(field);
-                return windowList.stream().map(e -> new FI2<>(e,value)).collect(toList());
-            }
-            return slidingWindowForMaxValue(windowList,overParam,field);
-        };
-        return overAbject(overParam,supplier);
+    /**
+     * 一个已排序分区每行的窗口行数, 结果写入values[offset + i]
+     */
+    protected void windowCount(Window<T> overParam, List<T> windowList, int[] values, int offset) {
+        int[][] ranges = getFrameIndexRanges(overParam, windowList);
+        for (int i = 0; i < windowList.size(); i++) {
+            values[offset + i] = Math.max(0, ranges[1][i] - ranges[0][i] + 1);
+        }
     }
 
-    protected <F extends Comparable<? super F>> List<FI2<T, F>> windowFunctionForMinValue(Window<T> overParam, Function<T, F> field) {
-        SupplierFunction<T,F> supplier = (windowList) -> {
-            if (isAllRow(overParam)){
-                F value = SDFrame.read(windowList).minValue(field);
-                return windowList.stream().map(e -> new FI2<>(e,value)).collect(toList());
-            }
-            return slidingWindowForMinValue(windowList,overParam,field);
-        };
-        return overAbject(overParam,supplier);
+    protected <F extends Number> List<FI2<T, BigDecimal>> windowFunctionForPercentile(Window<T> overParam, Function<T, F> field, double q) {
+        return overAbject(overParam, windowSupplierForPercentile(overParam, field, q));
     }
 
-    protected List<FI2<T, Integer>> windowFunctionForCount(Window<T> overParam) {
-        SupplierFunction<T,Integer> supplier = (windowList) -> {
-            if (isAllRow(overParam)){
-                int count = windowList.size();
-                return windowList.stream().map(e -> new FI2<>(e,count)).collect(toList());
-            }
-            List<FI2<T, Integer>> result = new ArrayList<>();
-            for (int i = 0; i < windowList.size(); i++) {
-                FI2<Integer, Integer> indexRange = getIndexRange(overParam, i, windowList);
-                if (indexRange.getC1() <= 0){
-                    indexRange.setC1(0);
-                }
-                if (indexRange.getC2() > windowList.size() - 1){
-                    indexRange.setC2(windowList.size() - 1);
-                }
-                Integer value = indexRange.getC2() -  indexRange.getC1() + 1;
-                result.add(new FI2<>(windowList.get(i),value));
+    /**
+     * 与中位数相同, 所有窗口都用两个有序集合滑动维护, 结果精确
+     */
+    protected <F extends Number> SupplierFunction<T,BigDecimal> windowSupplierForPercentile(Window<T> overParam, Function<T, F> field, double q) {
+        TDigest.checkQuantile(q);
+        SupplierFunction<T,BigDecimal> supplier = (windowList) -> {
+            double[] values = new double[windowList.size()];
+            windowQuantile(getFrameIndexRanges(overParam, windowList), windowList, field, q, values, 0);
+            List<FI2<T, BigDecimal>> result = new ArrayList<>(windowList.size());
+            for (int i = 0; i < values.length; i++) {
+                BigDecimal value = Double.isNaN(values[i]) ? null : BigDecimal.valueOf(values[i]).setScale(defaultScale, defaultRoundingMode);
+                result.add(new FI2<>(windowList.get(i), value));
             }
             return result;
         };
-        return overAbject(overParam,supplier);
+        return supplier;
     }
 
     protected List<FI2<T, Integer>> windowFunctionForNtile(Window<T> overParam, int n) {
+        return overAbject(overParam, windowSupplierForNtile(overParam, n));
+    }
+
+    protected SupplierFunction<T,Integer> windowSupplierForNtile(Window<T> overParam, int n) {
         if (n <= 0){
             throw new IllegalArgumentException("incorrect arguments to ntile for " + n);
         }
@@ -665,7 +791,409 @@ public abstract class AbstractWindowDataFrame<T> extends AbstractCommonFrame<T>{
             }
             return result;
         };
-        return overAbject(overParam,supplier);
+        return supplier;
+    }
+
+
+    public WindowInts<T> overRowNumberInts(Window<T> overParam) {
+        WindowPartition<T> partition = partitionWindow(overParam);
+        int[] values = new int[partition.size()];
+        forEachPartition(overParam, partition, p -> {
+            int start = partition.start(p);
+            for (int i = start; i < partition.end(p); i++) {
+                values[i] = i - start + 1;
+            }
+        });
+        return new WindowInts<>(partition.rows(), values);
+    }
+
+    /**
+     * 结果直接设置到对象, 不创建中间二元组
+     * @return      窗口顺序的数据
+     */
+    protected List<T> setWindowInts(WindowInts<T> result, SetFunction<T, Integer> setFunction) {
+        result.forEach(setFunction::accept);
+        return new ArrayList<>(result.getRows());
+    }
+
+    public WindowInts<T> overRankInts(Window<T> overParam) {
+        return windowRankInts(overParam, false);
+    }
+
+    public WindowInts<T> overDenseRankInts(Window<T> overParam) {
+        return windowRankInts(overParam, true);
+    }
+
+    /**
+     * 排名直接写入int数组, 不创建中间对象
+     */
+    protected WindowInts<T> windowRankInts(Window<T> overParam, boolean isDense) {
+        checkWindow(overParam);
+        Comparator<T> comparator = overParam.getComparator();
+        WindowPartition<T> partition = partitionWindow(overParam);
+        List<T> rows = partition.rows();
+        int[] values = new int[partition.size()];
+        forEachPartition(overParam, partition, p -> {
+            int start = partition.start(p);
+            int rank = 1;
+            for (int i = start; i < partition.end(p); i++) {
+                if (i > start && comparator.compare(rows.get(i - 1), rows.get(i)) != 0){
+                    rank = isDense ? rank + 1 : i - start + 1;
+                }
+                values[i] = rank;
+            }
+        });
+        return new WindowInts<>(rows, values);
+    }
+
+    public <R extends Number> WindowDoubles<T> overSumDoubles(Window<T> overParam, NumberFunction<T, R> field) {
+        return windowSumDoubles(overParam, field, false);
+    }
+
+    public <R extends Number> WindowDoubles<T> overAvgDoubles(Window<T> overParam, NumberFunction<T, R> field) {
+        return windowSumDoubles(overParam, field, true);
+    }
+
+    /**
+     * 窗口滑动时增量加减进出窗口的值并补偿丢失的低位, 避免分区前缀和相减时大数吃掉小窗口的精度
+     */
+    protected <R extends Number> WindowDoubles<T> windowSumDoubles(Window<T> overParam, NumberFunction<T, R> field, boolean isAvg) {
+        WindowPartition<T> partition = partitionWindow(overParam);
+        double[] values = new double[partition.size()];
+        forEachPartition(overParam, partition, p -> {
+            List<T> windowList = partition.partition(p);
+            int offset = partition.start(p);
+            double[] fieldValues = new double[windowList.size()];
+            for (int i = 0; i < fieldValues.length; i++) {
+                R value = field.apply(windowList.get(i));
+                fieldValues[i] = value == null ? 0 : value.doubleValue();
+            }
+            int[][] ranges = getFrameIndexRanges(overParam, windowList);
+            NumberAccumulator[] sum = {new NumberAccumulator(NumericMode.PRIMITIVE)};
+            slideFrame(ranges,
+                    index -> sum[0].addDouble(fieldValues[index]),
+                    index -> sum[0].addDouble(-fieldValues[index]),
+                    () -> sum[0] = new NumberAccumulator(NumericMode.PRIMITIVE),
+                    i -> {
+                        int size = ranges[1][i] - ranges[0][i] + 1;
+                        if (size <= 0){
+                            values[offset + i] = Double.NaN;
+                        }else {
+                            values[offset + i] = isAvg ? sum[0].getDoubleSum() / size : sum[0].getDoubleSum();
+                        }
+                    });
+        });
+        return new WindowDoubles<>(partition.rows(), values);
+    }
+
+    public <R extends Number> WindowDoubles<T> overMedianDoubles(Window<T> overParam, NumberFunction<T, R> field) {
+        WindowPartition<T> partition = partitionWindow(overParam);
+        double[] values = new double[partition.size()];
+        forEachPartition(overParam, partition, p -> windowQuantile(getFrameIndexRanges(overParam, partition.partition(p)), partition.partition(p), field::apply, 0.5, values, partition.start(p)));
+        return new WindowDoubles<>(partition.rows(), values);
+    }
+
+    public <F> WindowInts<T> overCountDistinctInts(Window<T> overParam, Function<T, F> field) {
+        WindowPartition<T> partition = partitionWindow(overParam);
+        int[] values = new int[partition.size()];
+        forEachPartition(overParam, partition, p -> windowCountDistinct(overParam, partition.partition(p), field, values, partition.start(p)));
+        return new WindowInts<>(partition.rows(), values);
+    }
+
+    protected <F extends Number> List<FI2<T, BigDecimal>> windowFunctionForMedian(Window<T> overParam, Function<T, F> field) {
+        return overAbject(overParam, windowSupplierForMedian(overParam, field));
+    }
+
+    protected <F extends Number> SupplierFunction<T,BigDecimal> windowSupplierForMedian(Window<T> overParam, Function<T, F> field) {
+        return windowSupplierForPercentile(overParam, field, 0.5);
+    }
+
+    protected <F> List<FI2<T, Integer>> windowFunctionForCountDistinct(Window<T> overParam, Function<T, F> field) {
+        return overAbject(overParam, windowSupplierForCountDistinct(overParam, field));
+    }
+
+    protected <F> SupplierFunction<T,Integer> windowSupplierForCountDistinct(Window<T> overParam, Function<T, F> field) {
+        SupplierFunction<T,Integer> supplier = (windowList) -> {
+            int[] values = new int[windowList.size()];
+            windowCountDistinct(overParam, windowList, field, values, 0);
+            List<FI2<T, Integer>> result = new ArrayList<>(windowList.size());
+            for (int i = 0; i < values.length; i++) {
+                result.add(new FI2<>(windowList.get(i), values[i]));
+            }
+            return result;
+        };
+        return supplier;
+    }
+
+    protected <F extends Comparable<? super F>> List<FI2<T, F>> windowFunctionForMode(Window<T> overParam, Function<T, F> field) {
+        return overAbject(overParam, windowSupplierForMode(overParam, field));
+    }
+
+    protected <F extends Comparable<? super F>> SupplierFunction<T,F> windowSupplierForMode(Window<T> overParam, Function<T, F> field) {
+        SupplierFunction<T,F> supplier = (windowList) -> {
+            List<F> fieldValues = windowList.stream().map(field).collect(toList());
+            SlidingCounter<F> counter = new SlidingCounter<>(Comparator.naturalOrder());
+            List<FI2<T, F>> result = new ArrayList<>(windowList.size());
+            slideFrame(getFrameIndexRanges(overParam, windowList),
+                    index -> counter.add(fieldValues.get(index)),
+                    index -> counter.remove(fieldValues.get(index)),
+                    counter::clear,
+                    i -> result.add(new FI2<>(windowList.get(i), counter.mode())));
+            return result;
+        };
+        return supplier;
+    }
+
+    /**
+     * 一个已排序分区的滑动分位数, 结果写入values[offset + i], 空窗口为NaN, null和NaN忽略
+     */
+    protected <F extends Number> void windowQuantile(int[][] ranges, List<T> windowList, Function<T, F> field, double q, double[] values, int offset) {
+        double[] fieldValues = new double[windowList.size()];
+        boolean[] isNull = new boolean[windowList.size()];
+        for (int i = 0; i < windowList.size(); i++) {
+            F value = field.apply(windowList.get(i));
+            isNull[i] = value == null || Double.isNaN(value.doubleValue());
+            fieldValues[i] = isNull[i] ? 0 : value.doubleValue();
+        }
+        SlidingQuantile quantile = new SlidingQuantile(fieldValues, q);
+        slideFrame(ranges,
+                index -> {
+                    if (!isNull[index]){
+                        quantile.add(index);
+                    }
+                },
+                index -> {
+                    if (!isNull[index]){
+                        quantile.remove(index);
+                    }
+                },
+                quantile::clear,
+                i -> values[offset + i] = quantile.quantile());
+    }
+
+    /**
+     * 一个已排序分区的滑动去重计数, 结果写入values[offset + i]
+     */
+    protected <F> void windowCountDistinct(Window<T> overParam, List<T> windowList, Function<T, F> field, int[] values, int offset) {
+        List<F> fieldValues = windowList.stream().map(field).collect(toList());
+        SlidingCounter<F> counter = new SlidingCounter<>();
+        slideFrame(getFrameIndexRanges(overParam, windowList),
+                index -> counter.add(fieldValues.get(index)),
+                index -> counter.remove(fieldValues.get(index)),
+                counter::clear,
+                i -> values[offset + i] = counter.distinctCount());
+    }
+
+    /**
+     * 窗口边界向后移动时增量维护窗口状态, 每行最多进出窗口一次;  边界回退或窗口不相交时清空重建
+     * @param ranges        每行的窗口范围 {starts, ends}
+     * @param add           下标进入窗口
+     * @param remove        下标离开窗口
+     * @param clear         清空窗口
+     * @param output        窗口已对齐到第i行
+     */
+    protected void slideFrame(int[][] ranges, IntConsumer add, IntConsumer remove, Runnable clear, IntConsumer output) {
+        int[] starts = ranges[0];
+        int[] ends = ranges[1];
+        // 当前窗口 [low, high)
+        int low = 0;
+        int high = 0;
+        for (int i = 0; i < starts.length; i++) {
+            int start = starts[i];
+            int end = Math.max(start, ends[i] + 1);
+            if (start < low || end < high || start >= high){
+                clear.run();
+                low = start;
+                high = start;
+            }
+            while (high < end){
+                add.accept(high++);
+            }
+            while (low < start){
+                remove.accept(low++);
+            }
+            output.accept(i);
+        }
+    }
+
+    protected <V> List<FI2<T, V>> windowFunctionForAggregate(Window<T> overParam, Function<T, V> field, Monoid<V> monoid) {
+        return overAbject(overParam, windowSupplierForAggregate(overParam, field, monoid));
+    }
+
+    /**
+     * 自定义聚合:  可逆聚合用前缀差 O(1), 起点或终点固定在分区边界时用前缀/后缀 O(1), 其他窗口用线段树 O(log n)
+     */
+    protected <V> SupplierFunction<T,V> windowSupplierForAggregate(Window<T> overParam, Function<T, V> field, Monoid<V> monoid) {
+        if (monoid == null){
+            throw new IllegalArgumentException("monoid can not be null");
+        }
+        SupplierFunction<T,V> supplier = (windowList) -> {
+            int n = windowList.size();
+            List<V> values = new ArrayList<>(n);
+            for (T row : windowList) {
+                V value = field.apply(row);
+                values.add(value == null ? monoid.identity() : value);
+            }
+            List<FI2<T, V>> result = new ArrayList<>(n);
+            if (isAllRow(overParam)){
+                V total = monoid.identity();
+                for (V value : values) {
+                    total = monoid.combine(total, value);
+                }
+                for (T row : windowList) {
+                    result.add(new FI2<>(row, total));
+                }
+                return result;
+            }
+
+            int[][] ranges = getFrameIndexRanges(overParam, windowList);
+            int[] starts = ranges[0];
+            int[] ends = ranges[1];
+
+            WindowRange startRange = overParam.getStartRange();
+            WindowRange endRange = overParam.getEndRange();
+            boolean valueRange = isValueRange(overParam);
+            if (monoid.isInvertible() || (!valueRange && startRange instanceof StartRowRange)){
+                // prefix[i] 是前i个值的聚合
+                List<V> prefix = new ArrayList<>(n + 1);
+                prefix.add(monoid.identity());
+                for (int i = 0; i < n; i++) {
+                    prefix.add(monoid.combine(prefix.get(i), values.get(i)));
+                }
+                for (int i = 0; i < n; i++) {
+                    V value;
+                    if (starts[i] > ends[i]){
+                        value = monoid.identity();
+                    }else if (starts[i] == 0){
+                        value = prefix.get(ends[i] + 1);
+                    }else {
+                        value = monoid.subtract(prefix.get(ends[i] + 1), prefix.get(starts[i]));
+                    }
+                    result.add(new FI2<>(windowList.get(i), value));
+                }
+                return result;
+            }
+
+            if (!valueRange && endRange instanceof EndRowRange){
+                // suffix[i] 是从i开始到分区末尾的聚合
+                List<V> suffix = new ArrayList<>(Collections.nCopies(n + 1, monoid.identity()));
+                for (int i = n - 1; i >= 0; i--) {
+                    suffix.set(i, monoid.combine(values.get(i), suffix.get(i + 1)));
+                }
+                for (int i = 0; i < n; i++) {
+                    result.add(new FI2<>(windowList.get(i), suffix.get(Math.min(starts[i], n))));
+                }
+                return result;
+            }
+
+            SegmentTree<V> tree = new SegmentTree<>(values, monoid);
+            for (int i = 0; i < n; i++) {
+                result.add(new FI2<>(windowList.get(i), tree.query(starts[i], ends[i])));
+            }
+            return result;
+        };
+        return supplier;
+    }
+
+    /**
+     * 分区内每行的窗口范围 {starts, ends}, 已截断到分区内, 空窗口的起点大于终点
+     */
+    protected int[][] getFrameIndexRanges(Window<T> overParam, List<T> windowList) {
+        if (isValueRange(overParam)){
+            return getValueIndexRanges(overParam, windowList);
+        }
+        int n = windowList.size();
+        int[] starts = new int[n];
+        int[] ends = new int[n];
+        boolean allRow = isAllRow(overParam);
+        for (int i = 0; i < n; i++) {
+            if (allRow){
+                ends[i] = n - 1;
+            }else {
+                starts[i] = getRowStartIndex(overParam.getStartRange(), i, windowList);
+                ends[i] = getRowEndIndex(overParam.getEndRange(), i, windowList);
+            }
+        }
+        return new int[][]{starts, ends};
     }
 
+    /**
+     * 自底向上的线段树, 左右两侧分别累积, 不要求聚合满足交换律
+     */
+    protected static class SegmentTree<V> {
+
+        private final int n;
+
+        private final Object[] tree;
+
+        private final Monoid<V> monoid;
+
+        protected SegmentTree(List<V> values, Monoid<V> monoid) {
+            this.n = values.size();
+            this.monoid = monoid;
+            this.tree = new Object[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = values.get(i);
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = monoid.combine(node(2 * i), node(2 * i + 1));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private V node(int index) {
+            return (V) tree[index];
+        }
+
+        /**
+         * 闭区间[start, end]的聚合, 空区间返回单位元
+         */
+        protected V query(int start, int end) {
+            V left = monoid.identity();
+            V right = monoid.identity();
+            for (int l = start + n, r = end + n + 1; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1){
+                    left = monoid.combine(left, node(l++));
+                }
+                if ((r & 1) == 1){
+                    right = monoid.combine(node(--r), right);
+                }
+            }
+            return monoid.combine(left, right);
+        }
+    }
+
+    /**
+     * ROWS窗口单行的起点, 截断到分区内, 常用边界直接计算避免装箱
+     */
+    protected int getRowStartIndex(WindowRange range, int currentIndex, List<T> windowList) {
+        int start;
+        if (range instanceof StartRowRange){
+            start = 0;
+        }else if (range instanceof CurrentRowRange){
+            start = currentIndex;
+        }else if (range instanceof BeforeRange){
+            start = currentIndex - ((BeforeRange) range).getN();
+        }else {
+            start = range.getStartIndex(currentIndex, windowList);
+        }
+        return Math.max(start, 0);
+    }
+
+    /**
+     * ROWS窗口单行的终点, 截断到分区内
+     */
+    protected int getRowEndIndex(WindowRange range, int currentIndex, List<T> windowList) {
+        int end;
+        if (range instanceof EndRowRange){
+            end = windowList.size() - 1;
+        }else if (range instanceof CurrentRowRange){
+            end = currentIndex;
+        }else if (range instanceof AfterRange){
+            end = currentIndex + ((AfterRange) range).getN();
+        }else {
+            end = range.getEndIndex(currentIndex, windowList);
+        }
+        return Math.min(end, windowList.size() - 1);
+    }
 }
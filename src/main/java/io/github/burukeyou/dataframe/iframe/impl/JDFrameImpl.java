@@ -6,10 +6,16 @@ import io.github.burukeyou.dataframe.iframe.JDFrame;
 import io.github.burukeyou.dataframe.iframe.SDFrame;
 import io.github.burukeyou.dataframe.iframe.WindowJDFrame;
 import io.github.burukeyou.dataframe.iframe.function.*;
+import io.github.burukeyou.dataframe.iframe.group.Agg;
 import io.github.burukeyou.dataframe.iframe.group.GroupConcat;
+import io.github.burukeyou.dataframe.iframe.group.IncrementalGroupBy;
+import io.github.burukeyou.dataframe.iframe.group.IncrementalGroupByImpl;
+import io.github.burukeyou.dataframe.iframe.item.AggRow;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.item.FI3;
 import io.github.burukeyou.dataframe.iframe.item.FI4;
+import io.github.burukeyou.dataframe.iframe.item.GroupingRow;
+import io.github.burukeyou.dataframe.iframe.item.PivotTable;
 import io.github.burukeyou.dataframe.iframe.support.*;
 import io.github.burukeyou.dataframe.iframe.window.Sorter;
 import io.github.burukeyou.dataframe.iframe.window.Window;
@@ -19,9 +25,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Comparator;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -137,6 +147,32 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
         return this;
     }
 
+    @Override
+    public JDFrameImpl<T> numericMode(NumericMode numericMode) {
+        initNumericMode(numericMode);
+        return this;
+    }
+
+    @Override
+    public JDFrameImpl<T> parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public JDFrameImpl<T> parallel(Executor executor) {
+        if (executor == null){
+            throw new IllegalArgumentException("executor can not be null");
+        }
+        initParallelExecutor(executor);
+        return this;
+    }
+
+    @Override
+    public JDFrameImpl<T> sequential() {
+        initParallelExecutor(null);
+        return this;
+    }
+
     @Override
     public <R> JDFrameImpl<R> map(Function<T, R> map) {
         return returnDF(stream().map(map));
@@ -251,6 +287,245 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
         return this;
     }
 
+    @Override
+    public <R, K, V> JDFrameImpl<R> join(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(joinList(other,leftKey,rightKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> joinOnce(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(joinList(other,leftKey,rightKey,join,true));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> joinVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        joinListLink(other,leftKey,rightKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> joinOnceVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        joinListLink(other,leftKey,rightKey,join,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> leftJoin(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(leftJoinList(other,leftKey,rightKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> leftJoinOnce(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(leftJoinList(other,leftKey,rightKey,join,true));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> leftJoinVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        leftJoinListLink(other,leftKey,rightKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> leftJoinOnceVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        leftJoinListLink(other,leftKey,rightKey,join,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> rightJoin(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(other,leftKey,rightKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> rightJoinOnce(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(other,leftKey,rightKey,join,true));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> rightJoinVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        rightJoinListLink(other,leftKey,rightKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> rightJoinOnceVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        rightJoinListLink(other,leftKey,rightKey,join,true);
+        return this;
+    }
+
+
+    @Override
+    public <R, K> JDFrameImpl<R> mergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(mergeJoinList(other,on,join,false,false));
+    }
+
+    @Override
+    public <R, K> JDFrameImpl<R> leftMergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(mergeJoinList(other,on,join,true,false));
+    }
+
+    @Override
+    public <R, K> JDFrameImpl<R> rightMergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(rightMergeJoinList(other,on,join));
+    }
+
+    @Override
+    public <R, K> JDFrameImpl<R> fullMergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(mergeJoinList(other,on,join,true,true));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> joinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return joinParallel(other,leftKey,rightKey,join,null,true);
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> joinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join, Executor executor, boolean isKeepOrder) {
+        return returnDF(joinParallelList(other,leftKey,rightKey,join,false,executor,isKeepOrder));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> leftJoinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return leftJoinParallel(other,leftKey,rightKey,join,null,true);
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> leftJoinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join, Executor executor, boolean isKeepOrder) {
+        return returnDF(joinParallelList(other,leftKey,rightKey,join,true,executor,isKeepOrder));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> semiJoin(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,false,false));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> semiJoinParallel(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,false,true));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> antiJoin(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,true,false));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> antiJoinParallel(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,true,true));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> join(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,false,false));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> joinOnce(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,true,false));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> joinVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,false,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> joinOnceVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,true,false);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> leftJoin(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,false,true));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> leftJoinOnce(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,true,true));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> leftJoinVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,false,true);
+        return this;
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> leftJoinOnceVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,true,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> rightJoin(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(index,leftKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> rightJoinOnce(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(index,leftKey,join,true));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> rightJoinVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        rightJoinListLink(index,leftKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> rightJoinOnceVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        rightJoinListLink(index,leftKey,join,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> joinParallel(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinParallelList(index,leftKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> leftJoinParallel(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinParallelList(index,leftKey,join,true));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> semiJoin(JoinIndex<K, V> index, Function<T, V> leftKey) {
+        return returnDF(semiJoinList(index,leftKey,false));
+    }
+
+    @Override
+    public <K, V> JDFrameImpl<T> antiJoin(JoinIndex<K, V> index, Function<T, V> leftKey) {
+        return returnDF(semiJoinList(index,leftKey,true));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> fullJoin(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(fullJoinList(index,leftKey,join));
+    }
+
+    @Override
+    public <R, K, V extends Comparable<? super V>> JDFrameImpl<R> asOfJoin(IFrame<K> other, Function<T, V> leftTime, Function<K, V> rightTime, Join<T, K, R> join) {
+        return returnDF(asOfJoinList(other,leftTime,rightTime,null,null,join));
+    }
+
+    @Override
+    public <R, K, V extends Comparable<? super V>, P> JDFrameImpl<R> asOfJoin(IFrame<K> other, Function<T, V> leftTime, Function<K, V> rightTime,
+                                                                       Function<T, P> leftPartition, Function<K, P> rightPartition, Join<T, K, R> join) {
+        return returnDF(asOfJoinList(other,leftTime,rightTime,leftPartition,rightPartition,join));
+    }
+
+    @Override
+    public <R, K, V extends Comparable<? super V>> JDFrameImpl<R> rangeJoin(IFrame<K> other, Function<T, V> leftValue, Function<K, V> rightStart, Function<K, V> rightEnd, Join<T, K, R> join) {
+        return returnDF(rangeJoinList(other,leftValue,rightStart,rightEnd,join));
+    }
+
+    @Override
+    public <R, K, V> JDFrameImpl<R> fullJoin(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(fullJoinList(other,leftKey,rightKey,join));
+    }
+
     @Override
     public JDFrameImpl<FI2<T, Integer>> addRowNumberCol() {
         List<FI2<T, Integer>> result = new ArrayList<>();
@@ -366,7 +641,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public JDFrameImpl<T> cutFirstRank(Sorter<T> sorter, int n) {
-        return overRank(Window.sortBy(sorter)).whereLe(FI2::getC2, n).map(FI2::getC1);
+        return returnDF(collectFlat(CollectorsPlusUtil.topN(sorter, n)));
     }
 
 
@@ -633,6 +908,16 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
         return returnDF(groupListKey(key,key2,key3));
     }
 
+    @Override
+    public JDFrameImpl<FI2<List<Object>, List<T>>> groupN(List<Function<T, ?>> keys) {
+        return returnDF(groupKeys(keys, toList()));
+    }
+
+    @Override
+    public <V> JDFrameImpl<FI2<List<Object>, V>> groupN(List<Function<T, ?>> keys, Collector<? super T, ?, V> collector) {
+        return returnDF(groupKeys(keys, collector));
+    }
+
     @Override
     public <K, J, H, V> JDFrameImpl<FI4<K, J, H, V>> group3ByCustom(Function<T, K> key, Function<T, J> key2, Function<T, H> key3, ListToOneValueFunction<T, V> function) {
         return returnDF(groupListKey(key,key2,key3,function));
@@ -640,16 +925,32 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
     @Override
     public <K,R extends Number> JDFrameImpl<FI2<K, BigDecimal>> groupBySum(Function<T, K> key,
                                                                            NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingNumber(value, numericMode);
         List<FI2<K, BigDecimal>> collect = groupKey(key, tBigDecimalCollector);
         return returnDF(collect);
     }
 
+    @Override
+    public <K> JDFrameImpl<FI2<K, Long>> groupBySumLong(Function<T, K> key, ToLongFunction<T> value) {
+        return returnDF(groupKey(key, Collectors.summingLong(value)));
+    }
+
+    @Override
+    public <K> JDFrameImpl<FI2<K, Double>> groupBySumDouble(Function<T, K> key, ToDoubleFunction<T> value) {
+        return returnDF(groupKey(key, Collectors.summingDouble(value)));
+    }
+
+    @Override
+    public <K> JDFrameImpl<FI2<K, BigDecimal>> groupByAvgDouble(Function<T, K> key, ToDoubleFunction<T> value) {
+        return returnDF(groupKey(key, Collectors.collectingAndThen(Collectors.averagingDouble(value),
+                e -> BigDecimal.valueOf(e).setScale(defaultScale, defaultRoundingMode))));
+    }
+
     @Override
     public <K, J,R extends Number> JDFrameImpl<FI3<K, J, BigDecimal>> group2BySum(Function<T, K> key,
                                                                                   Function<T, J> key2,
                                                                                   NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingNumber(value, numericMode);
         List<FI3<K, J, BigDecimal>> collect = groupKey(key, key2, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -660,7 +961,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
                                                                                         Function<T, J> key2,
                                                                                         Function<T, H> key3,
                                                                                         NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingNumber(value, numericMode);
         List<FI4<K, J, H, BigDecimal>> collect = groupKey(key, key2, key3, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -668,16 +969,14 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
     @Override
     public <K> JDFrameImpl<FI2<K, Long>> groupByCount(Function<T, K> key) {
         Collector<Object, ?, Long> counting = counting();
-        Map<K, Long> collect = stream().collect(groupingBy(key, counting));
-        return returnDF(FrameUtil.toListFI2(collect));
+        return returnDF(groupKey(key, counting));
     }
 
     @Override
     public <K, J> JDFrameImpl<FI3<K, J, Long>> group2ByCount(Function<T, K> key,
                                                              Function<T, J> key2) {
         Collector<Object, ?, Long> counting = counting();
-        Map<K, Map<J, Long>> collect = stream().collect(groupingBy(key, groupingBy(key2, counting)));
-        return returnDF(FrameUtil.toListFI3(collect));
+        return returnDF(groupKey(key, key2, counting));
     }
 
     @Override
@@ -685,18 +984,36 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
                                                                    Function<T, J> key2,
                                                                    Function<T, H> key3) {
         Collector<Object, ?, Long> counting = counting();
-        Map<K, Map<J, Map<H, Long>>> collect = stream().collect(groupingBy(key, groupingBy(key2, groupingBy(key3, counting))));
-        return returnDF(FrameUtil.toListFI4(collect));
+        return returnDF(groupKey(key, key2, key3, counting));
+    }
+
+    @Override
+    public <K> JDFrameImpl<FI2<K, Long>> groupByApproxCountDistinct(Function<T, K> key, Function<T, ?> value) {
+        return groupByApproxCountDistinct(key, value, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    @Override
+    public <K> JDFrameImpl<FI2<K, Long>> groupByApproxCountDistinct(Function<T, K> key, Function<T, ?> value, int precision) {
+        return returnDF(groupKey(key, CollectorsPlusUtil.approxCountDistinct(value, precision)));
+    }
+
+    @Override
+    public <K,R extends Number> JDFrameImpl<FI2<K, BigDecimal>> groupByPercentile(Function<T, K> key, NumberFunction<T,R> value, double q) {
+        Collector<T, ?, List<BigDecimal>> percentile = CollectorsPlusUtil.percentile(value, new double[]{q}, TDigest.DEFAULT_COMPRESSION, defaultScale, defaultRoundingMode);
+        return returnDF(groupKey(key, collectingAndThen(percentile, list -> list.get(0))));
+    }
+
+    @Override
+    public <K,R extends Number> JDFrameImpl<FI2<K, List<BigDecimal>>> groupByPercentile(Function<T, K> key, NumberFunction<T,R> value, double... qs) {
+        return returnDF(groupKey(key, CollectorsPlusUtil.percentile(value, qs, TDigest.DEFAULT_COMPRESSION, defaultScale, defaultRoundingMode)));
     }
 
     @Override
     public <K,R extends Number> JDFrameImpl<FI3<K, BigDecimal,Long>> groupBySumCount(Function<T, K> key, NumberFunction<T,R> value) {
-        List<T> dataList = viewList();
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
-        List<FI2<K, BigDecimal>> sumList = returnDF(dataList).groupKey(key, tBigDecimalCollector);
-        List<FI2<K, Long>> countList =  from(dataList).groupByCount(key).viewList();
-        Map<K, Long> countMap = countList.stream().collect(Collectors.toMap(FI2::getC1, FI2::getC2));
-        List<FI3<K, BigDecimal, Long>> collect = sumList.stream().map(e -> new FI3<>(e.getC1(), e.getC2(), countMap.get(e.getC1()))).collect(Collectors.toList());
+        Agg<T, BigDecimal> sum = Agg.sum(value);
+        Agg<T, Long> count = Agg.count();
+        List<FI3<K, BigDecimal, Long>> collect = groupAggKey(key, Arrays.asList(sum, count)).stream()
+                .map(e -> new FI3<>(e.getKey(), e.get(sum), e.get(count))).collect(Collectors.toList());
         return returnDF(collect);
     }
 
@@ -704,23 +1021,60 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
     public <K, J,R extends Number> JDFrameImpl<FI4<K, J, BigDecimal, Long>> group2BySumCount(Function<T, K> key,
                                                                                              Function<T, J> key2,
                                                                                              NumberFunction<T,R> value) {
-        List<T> dataList = viewList();
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
-        List<FI3<K, J, BigDecimal>> sumList = returnDF(dataList).groupKey(key, key2, tBigDecimalCollector);
-        List<FI3<K, J, Long>> countList =  from(dataList).group2ByCount(key, key2).viewList();
-        // 合并sum和count字段
-        Map<String, FI3<K, J, Long>> countMap = countList.stream().collect(Collectors.toMap(e -> e.getC1() + "_" + e.getC2(), Function.identity()));
-        List<FI4<K, J, BigDecimal, Long>> collect = sumList.stream().map(e -> {
-            FI3<K, J, Long> countItem = countMap.get(e.getC1() + "_" + e.getC2());
-            return new FI4<>(e.getC1(), e.getC2(), e.getC3(), countItem.getC3());
-        }).collect(Collectors.toList());
+        Agg<T, BigDecimal> sum = Agg.sum(value);
+        Agg<T, Long> count = Agg.count();
+        List<FI4<K, J, BigDecimal, Long>> collect = groupAggKey(key, key2, Arrays.asList(sum, count)).stream()
+                .map(e -> new FI4<>(e.getKey().getC1(), e.getKey().getC2(), e.get(sum), e.get(count))).collect(Collectors.toList());
         return returnDF(collect);
     }
 
+    @Override
+    public <K> JDFrameImpl<AggRow<K>> groupByAgg(Function<T, K> key, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupAggKey(key, aggs));
+    }
+
+    @Override
+    public <K, J> JDFrameImpl<AggRow<FI2<K, J>>> group2ByAgg(Function<T, K> key, Function<T, J> key2, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupAggKey(key, key2, aggs));
+    }
+
+    @Override
+    public JDFrameImpl<GroupingRow> rollup(List<Function<T, ?>> keys, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupingSetsKey(keys, rollupGroupingIds(keys == null ? 0 : keys.size()), aggs));
+    }
+
+    @Override
+    public JDFrameImpl<GroupingRow> cube(List<Function<T, ?>> keys, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupingSetsKey(keys, cubeGroupingIds(keys == null ? 0 : keys.size()), aggs));
+    }
+
+    @Override
+    public JDFrameImpl<GroupingRow> groupingSets(List<Function<T, ?>> keys, List<int[]> sets, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupingSetsKey(keys, groupingSetsIds(keys == null ? 0 : keys.size(), sets), aggs));
+    }
+
+    @Override
+    public <K> IncrementalGroupBy<T, K> groupByIncremental(Function<T, K> key, List<? extends Agg<T, ?>> aggs) {
+        return new IncrementalGroupByImpl<>(key, aggs, defaultScale, defaultRoundingMode, numericMode).append(viewList());
+    }
+
+    @Override
+    public <R, C, V> PivotTable<R, C, V> pivot(Function<T, R> rowKey, Function<T, C> columnKey, Agg<T, V> agg) {
+        return pivotKey(rowKey, columnKey, null, agg);
+    }
+
+    @Override
+    public <R, C, V> PivotTable<R, C, V> pivot(Function<T, R> rowKey, Function<T, C> columnKey, List<C> columns, Agg<T, V> agg) {
+        if (columns == null) {
+            throw new IllegalArgumentException("columns can not be null");
+        }
+        return pivotKey(rowKey, columnKey, columns, agg);
+    }
+
     @Override
     public <K,R extends Number> JDFrameImpl<FI2<K, BigDecimal>> groupByAvg(Function<T, K> key,
                                                                            NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingBigDecimal(value, defaultScale, getOldRoundingMode());
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingNumber(value, numericMode, defaultScale, defaultRoundingMode);
         List<FI2<K, BigDecimal>> collect = groupKey(key, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -730,7 +1084,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
                                                                                   Function<T, J> key2,
                                                                                   NumberFunction<T,R> value) {
 
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingBigDecimal(value, defaultScale, getOldRoundingMode());
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingNumber(value, numericMode, defaultScale, defaultRoundingMode);
         List<FI3<K, J, BigDecimal>> collect = groupKey(key, key2, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -740,7 +1094,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
                                                                                         Function<T, J> key2,
                                                                                         Function<T, H> key3,
                                                                                         NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingBigDecimal(value, defaultScale, getOldRoundingMode());
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingNumber(value, numericMode, defaultScale, defaultRoundingMode);
         List<FI4<K, J, H, BigDecimal>> collect = groupKey(key, key2, key3, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -748,16 +1102,14 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
     @Override
     public <K, V extends Comparable<? super V>> JDFrameImpl<FI2<K, T>> groupByMax(Function<T, K> key,
                                                                                   Function<T, V> value) {
-        Map<K, T> collect = stream().collect(groupingBy(key, collectingAndThen(toList(), getListMaxFunction(value))));
-        return returnDF(FrameUtil.toListFI2(collect));
+        return returnDF(groupKey(key, maxCollector(value)));
     }
 
 
 
     @Override
     public <K,J, V extends Comparable<? super V>> JDFrameImpl<FI3<K,J,T>> group2ByMax(Function<T, K> key, Function<T, J> key2, Function<T, V> value) {
-        Map<K, Map<J, T>> collect = groupToMap(key, key2,getListMaxFunction(value));
-        return returnDF(FrameUtil.toListFI3(collect));
+        return returnDF(groupKey(key, key2, maxCollector(value)));
     }
 
 
@@ -774,14 +1126,12 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     public <K, V extends Comparable<? super V>> JDFrameImpl<FI2<K, T>> groupByMin(Function<T, K> key,
                                                                                   Function<T, V> value) {
-        Map<K, T> collect = stream().collect(groupingBy(key, collectingAndThen(toList(), getListMinFunction(value))));
-        return returnDF(FrameUtil.toListFI2(collect));
+        return returnDF(groupKey(key, minCollector(value)));
     }
 
     @Override
     public <K, J, V extends Comparable<? super V>> JDFrameImpl<FI3<K, J, T>> group2ByMin(Function<T, K> key, Function<T, J> key2, Function<T, V> value) {
-        Map<K, Map<J, T>> collect = groupToMap(key, key2,getListMinFunction(value));
-        return returnDF(FrameUtil.toListFI3(collect));
+        return returnDF(groupKey(key, key2, minCollector(value)));
     }
 
     @Override
@@ -797,31 +1147,32 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
     @Override
     public <K, V extends Comparable<? super V>> JDFrameImpl<FI2<K, MaxMin<V>>> groupByMaxMinValue(Function<T, K> key,
                                                                                                   Function<T, V> value) {
-        Map<K, MaxMin<V>> map = stream().collect(groupingBy(key, collectingAndThen(toList(), getListGroupMaxMinValueFunction(value))));
-        return returnDF(FrameUtil.toListFI2(map));
+        return returnDF(groupKey(key, maxMinValueCollector(value)));
     }
 
     @Override
     public <K, J, V extends Comparable<? super V>> JDFrameImpl<FI3<K, J, MaxMin<V>>> group2ByMaxMinValue(Function<T, K> key,
                                                                                                          Function<T, J> key2,
                                                                                                          Function<T, V> value) {
-        Map<K, Map<J, MaxMin<V>>> map = stream().collect(groupingBy(key, groupingBy(key2, collectingAndThen(toList(), getListGroupMaxMinValueFunction(value)))));
-        return returnDF(FrameUtil.toListFI3(map));
+        return returnDF(groupKey(key, key2, maxMinValueCollector(value)));
     }
 
     @Override
     public <K, V extends Comparable<? super V>> JDFrameImpl<FI2<K, MaxMin<T>>> groupByMaxMin(Function<T, K> key,
                                                                                              Function<T, V> value) {
-        Map<K, MaxMin<T>> map = stream().collect(groupingBy(key, collectingAndThen(toList(), getListGroupMaxMinFunction(value))));
-        return returnDF(FrameUtil.toListFI2(map));
+        return returnDF(groupKey(key, maxMinCollector(value)));
     }
 
     @Override
     public <K, J, V extends Comparable<? super V>> JDFrameImpl<FI3<K, J, MaxMin<T>>> group2ByMaxMin(Function<T, K> key,
                                                                                                     Function<T, J> key2,
                                                                                                     Function<T, V> value) {
-        Map<K, Map<J, MaxMin<T>>> map = stream().collect(groupingBy(key, groupingBy(key2, collectingAndThen(toList(), getListGroupMaxMinFunction(value)))));
-        return returnDF(FrameUtil.toListFI3(map));
+        return returnDF(groupKey(key, key2, maxMinCollector(value)));
+    }
+
+    @Override
+    public <K> JDFrameImpl<FI2<K, List<T>>> groupByTopN(Function<T, K> key, Sorter<T> sorter, int n) {
+        return returnDF(groupKey(key, CollectorsPlusUtil.topN(sorter, n)));
     }
 
     @Override
@@ -880,7 +1231,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
     }
     @Override
     public JDFrameImpl<T> overRowNumberS(SetFunction<T,Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overRowNumber(overParam),setFunction);
+        return returnDF(setWindowInts(overRowNumberInts(overParam), setFunction));
     }
 
     @Override
@@ -895,7 +1246,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public JDFrameImpl<T> overRankS(SetFunction<T, Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overRank(overParam),setFunction);
+        return returnDF(setWindowInts(overRankInts(overParam), setFunction));
     }
 
     @Override
@@ -905,7 +1256,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public JDFrameImpl<T> overDenseRankS(SetFunction<T, Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overDenseRank(overParam),setFunction);
+        return returnDF(setWindowInts(overDenseRankInts(overParam), setFunction));
     }
 
     @Override
@@ -934,7 +1285,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overLagS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field, int n) {
-        return fi2Frame(overLag(overParam,field,n),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForLag(overParam, field, n), setFunction));
     }
 
     @Override
@@ -944,12 +1295,12 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overLagS(SetFunction<T, F> setFunction, Function<T, F> field, int n) {
-        return fi2Frame(overLag(field,n),setFunction);
+        return overLagS(setFunction, emptyWindow, field, n);
     }
 
     @Override
     public <F> JDFrameImpl<T> overLeadS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field, int n) {
-        return fi2Frame(overLead(overParam,field,n),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForLead(overParam, field, n), setFunction));
     }
 
     @Override
@@ -964,7 +1315,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overLeadS(SetFunction<T, F> setFunction, Function<T, F> field, int n) {
-        return fi2Frame(overLead(field,n),setFunction);
+        return overLeadS(setFunction, emptyWindow, field, n);
     }
 
     @Override
@@ -974,7 +1325,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overNthValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field, int n) {
-        return fi2Frame(overNthValue(overParam,field,n),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForNthValue(overParam, field, n), setFunction));
     }
 
     @Override
@@ -984,7 +1335,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overNthValueS(SetFunction<T, F> setFunction, Function<T, F> field, int n) {
-        return fi2Frame(overNthValue(field,n),setFunction);
+        return overNthValueS(setFunction, emptyWindow, field, n);
     }
 
     @Override
@@ -994,7 +1345,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overFirstValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overFirstValue(overParam, field),setFunction);
+        return overNthValueS(setFunction, overParam, field, 1);
     }
 
     @Override
@@ -1004,7 +1355,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overFirstValueS(SetFunction<T, F> setFunction, Function<T, F> field) {
-        return fi2Frame(overFirstValue(field),setFunction);
+        return overNthValueS(setFunction, emptyWindow, field, 1);
     }
 
     @Override
@@ -1014,7 +1365,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overLastValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overLastValue(overParam,field),setFunction);
+        return overNthValueS(setFunction, overParam, field, -1);
     }
 
     @Override
@@ -1024,7 +1375,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overLastValueS(SetFunction<T, F> setFunction, Function<T, F> field) {
-        return fi2Frame(overLastValue(field),setFunction);
+        return overNthValueS(setFunction, emptyWindow, field, -1);
     }
 
     @Override
@@ -1039,7 +1390,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overSumS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overSum(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForSum(overParam, field, false), setFunction));
     }
 
     @Override
@@ -1047,6 +1398,26 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
         return overSumS(setFunction, emptyWindow,field);
     }
 
+    @Override
+    public <V> JDFrameImpl<FI2<T, V>> overAggregate(Window<T> overParam, Function<T, V> field, Monoid<V> monoid) {
+        return returnDF(windowFunctionForAggregate(overParam, field, monoid));
+    }
+
+    @Override
+    public <V> JDFrameImpl<FI2<T, V>> overAggregate(Function<T, V> field, Monoid<V> monoid) {
+        return overAggregate(emptyWindow, field, monoid);
+    }
+
+    @Override
+    public <V> JDFrameImpl<T> overAggregateS(SetFunction<T, V> setFunction, Window<T> overParam, Function<T, V> field, Monoid<V> monoid) {
+        return fi2Frame(overAggregate(overParam, field, monoid), setFunction);
+    }
+
+    @Override
+    public <V> JDFrameImpl<T> overAggregateS(SetFunction<T, V> setFunction, Function<T, V> field, Monoid<V> monoid) {
+        return overAggregateS(setFunction, emptyWindow, field, monoid);
+    }
+
     @Override
     public <F> JDFrameImpl<FI2<T, BigDecimal>> overAvg(Window<T> overParam, Function<T, F> field) {
         return returnDF(windowFunctionForAvg(overParam,field));
@@ -1059,7 +1430,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F> JDFrameImpl<T> overAvgS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overAvg(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForSum(overParam, field, true), setFunction));
     }
 
     @Override
@@ -1079,7 +1450,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F extends Comparable<? super F>> JDFrameImpl<T> overMaxValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overMaxValue(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForMaxMin(overParam, field, 1), setFunction));
     }
 
     @Override
@@ -1099,7 +1470,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public <F extends Comparable<? super F>> JDFrameImpl<T> overMinValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overMinValue(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForMaxMin(overParam, field, -1), setFunction));
     }
 
     @Override
@@ -1119,7 +1490,7 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
 
     @Override
     public JDFrameImpl<T> overCountS(SetFunction<T, Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overCount(overParam),setFunction);
+        return returnDF(setWindowInts(windowCountInts(overParam), setFunction));
     }
 
     @Override
@@ -1127,6 +1498,86 @@ public class JDFrameImpl<T> extends AbstractDataFrameImpl<T> implements JDFrame<
         return overCountS(setFunction, emptyWindow);
     }
 
+    @Override
+    public <F extends Number> JDFrameImpl<FI2<T, BigDecimal>> overPercentile(Window<T> overParam, Function<T, F> field, double q) {
+        return returnDF(windowFunctionForPercentile(overParam, field, q));
+    }
+
+    @Override
+    public <F extends Number> JDFrameImpl<FI2<T, BigDecimal>> overPercentile(Function<T, F> field, double q) {
+        return overPercentile(emptyWindow, field, q);
+    }
+
+    @Override
+    public <F extends Number> JDFrameImpl<T> overPercentileS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field, double q) {
+        return fi2Frame(overPercentile(overParam, field, q), setFunction);
+    }
+
+    @Override
+    public <F extends Number> JDFrameImpl<T> overPercentileS(SetFunction<T, BigDecimal> setFunction, Function<T, F> field, double q) {
+        return overPercentileS(setFunction, emptyWindow, field, q);
+    }
+
+    @Override
+    public <F extends Number> JDFrameImpl<FI2<T, BigDecimal>> overMedian(Window<T> overParam, Function<T, F> field) {
+        return returnDF(windowFunctionForMedian(overParam, field));
+    }
+
+    @Override
+    public <F extends Number> JDFrameImpl<FI2<T, BigDecimal>> overMedian(Function<T, F> field) {
+        return overMedian(emptyWindow, field);
+    }
+
+    @Override
+    public <F extends Number> JDFrameImpl<T> overMedianS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field) {
+        return fi2Frame(overMedian(overParam, field), setFunction);
+    }
+
+    @Override
+    public <F extends Number> JDFrameImpl<T> overMedianS(SetFunction<T, BigDecimal> setFunction, Function<T, F> field) {
+        return overMedianS(setFunction, emptyWindow, field);
+    }
+
+    @Override
+    public <F> JDFrameImpl<FI2<T, Integer>> overCountDistinct(Window<T> overParam, Function<T, F> field) {
+        return returnDF(windowFunctionForCountDistinct(overParam, field));
+    }
+
+    @Override
+    public <F> JDFrameImpl<FI2<T, Integer>> overCountDistinct(Function<T, F> field) {
+        return overCountDistinct(emptyWindow, field);
+    }
+
+    @Override
+    public <F> JDFrameImpl<T> overCountDistinctS(SetFunction<T, Integer> setFunction, Window<T> overParam, Function<T, F> field) {
+        return returnDF(setWindowInts(overCountDistinctInts(overParam, field), setFunction));
+    }
+
+    @Override
+    public <F> JDFrameImpl<T> overCountDistinctS(SetFunction<T, Integer> setFunction, Function<T, F> field) {
+        return overCountDistinctS(setFunction, emptyWindow, field);
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> JDFrameImpl<FI2<T, F>> overMode(Window<T> overParam, Function<T, F> field) {
+        return returnDF(windowFunctionForMode(overParam, field));
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> JDFrameImpl<FI2<T, F>> overMode(Function<T, F> field) {
+        return overMode(emptyWindow, field);
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> JDFrameImpl<T> overModeS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
+        return fi2Frame(overMode(overParam, field), setFunction);
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> JDFrameImpl<T> overModeS(SetFunction<T, F> setFunction, Function<T, F> field) {
+        return overModeS(setFunction, emptyWindow, field);
+    }
+
 
     @Override
     public JDFrameImpl<FI2<T, Integer>> overNtile(int n) {
@@ -5,10 +5,16 @@ import io.github.burukeyou.dataframe.iframe.IFrame;
 import io.github.burukeyou.dataframe.iframe.SDFrame;
 import io.github.burukeyou.dataframe.iframe.WindowSDFrame;
 import io.github.burukeyou.dataframe.iframe.function.*;
+import io.github.burukeyou.dataframe.iframe.group.Agg;
 import io.github.burukeyou.dataframe.iframe.group.GroupConcat;
+import io.github.burukeyou.dataframe.iframe.group.IncrementalGroupBy;
+import io.github.burukeyou.dataframe.iframe.group.IncrementalGroupByImpl;
+import io.github.burukeyou.dataframe.iframe.item.AggRow;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.item.FI3;
 import io.github.burukeyou.dataframe.iframe.item.FI4;
+import io.github.burukeyou.dataframe.iframe.item.GroupingRow;
+import io.github.burukeyou.dataframe.iframe.item.PivotTable;
 import io.github.burukeyou.dataframe.iframe.support.*;
 import io.github.burukeyou.dataframe.iframe.window.Sorter;
 import io.github.burukeyou.dataframe.iframe.window.Window;
@@ -18,9 +24,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Comparator;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -135,6 +145,32 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
         return this;
     }
 
+    @Override
+    public SDFrame<T> numericMode(NumericMode numericMode) {
+        initNumericMode(numericMode);
+        return this;
+    }
+
+    @Override
+    public SDFrame<T> parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public SDFrame<T> parallel(Executor executor) {
+        if (executor == null){
+            throw new IllegalArgumentException("executor can not be null");
+        }
+        initParallelExecutor(executor);
+        return this;
+    }
+
+    @Override
+    public SDFrame<T> sequential() {
+        initParallelExecutor(null);
+        return this;
+    }
+
     @Override
     public <R> SDFrameImpl<R> map(Function<T, R> map) {
         return returnDF(stream().map(map));
@@ -247,6 +283,245 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
         return this;
     }
 
+    @Override
+    public <R, K, V> SDFrameImpl<R> join(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(joinList(other,leftKey,rightKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> joinOnce(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(joinList(other,leftKey,rightKey,join,true));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> joinVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        joinListLink(other,leftKey,rightKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> joinOnceVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        joinListLink(other,leftKey,rightKey,join,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> leftJoin(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(leftJoinList(other,leftKey,rightKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> leftJoinOnce(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(leftJoinList(other,leftKey,rightKey,join,true));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> leftJoinVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        leftJoinListLink(other,leftKey,rightKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> leftJoinOnceVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        leftJoinListLink(other,leftKey,rightKey,join,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> rightJoin(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(other,leftKey,rightKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> rightJoinOnce(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(other,leftKey,rightKey,join,true));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> rightJoinVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        rightJoinListLink(other,leftKey,rightKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> rightJoinOnceVoid(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, VoidJoin<T, K> join) {
+        rightJoinListLink(other,leftKey,rightKey,join,true);
+        return this;
+    }
+
+
+    @Override
+    public <R, K> SDFrameImpl<R> mergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(mergeJoinList(other,on,join,false,false));
+    }
+
+    @Override
+    public <R, K> SDFrameImpl<R> leftMergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(mergeJoinList(other,on,join,true,false));
+    }
+
+    @Override
+    public <R, K> SDFrameImpl<R> rightMergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(rightMergeJoinList(other,on,join));
+    }
+
+    @Override
+    public <R, K> SDFrameImpl<R> fullMergeJoin(IFrame<K> other, CompareTwo<T, K> on, Join<T, K, R> join) {
+        return returnDF(mergeJoinList(other,on,join,true,true));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> joinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return joinParallel(other,leftKey,rightKey,join,null,true);
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> joinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join, Executor executor, boolean isKeepOrder) {
+        return returnDF(joinParallelList(other,leftKey,rightKey,join,false,executor,isKeepOrder));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> leftJoinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return leftJoinParallel(other,leftKey,rightKey,join,null,true);
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> leftJoinParallel(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join, Executor executor, boolean isKeepOrder) {
+        return returnDF(joinParallelList(other,leftKey,rightKey,join,true,executor,isKeepOrder));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> semiJoin(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,false,false));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> semiJoinParallel(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,false,true));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> antiJoin(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,true,false));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> antiJoinParallel(Iterable<K> other, Function<T, V> leftKey, Function<K, V> rightKey) {
+        return returnDF(semiJoinList(other,leftKey,rightKey,true,true));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> join(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,false,false));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> joinOnce(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,true,false));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> joinVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,false,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> joinOnceVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,true,false);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> leftJoin(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,false,true));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> leftJoinOnce(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinList(index,leftKey,join,true,true));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> leftJoinVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,false,true);
+        return this;
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> leftJoinOnceVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        joinListLink(index,leftKey,join,true,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> rightJoin(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(index,leftKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> rightJoinOnce(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(rightJoinList(index,leftKey,join,true));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> rightJoinVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        rightJoinListLink(index,leftKey,join,false);
+        return this;
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> rightJoinOnceVoid(JoinIndex<K, V> index, Function<T, V> leftKey, VoidJoin<T, K> join) {
+        rightJoinListLink(index,leftKey,join,true);
+        return this;
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> joinParallel(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinParallelList(index,leftKey,join,false));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> leftJoinParallel(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(joinParallelList(index,leftKey,join,true));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> semiJoin(JoinIndex<K, V> index, Function<T, V> leftKey) {
+        return returnDF(semiJoinList(index,leftKey,false));
+    }
+
+    @Override
+    public <K, V> SDFrameImpl<T> antiJoin(JoinIndex<K, V> index, Function<T, V> leftKey) {
+        return returnDF(semiJoinList(index,leftKey,true));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> fullJoin(JoinIndex<K, V> index, Function<T, V> leftKey, Join<T, K, R> join) {
+        return returnDF(fullJoinList(index,leftKey,join));
+    }
+
+    @Override
+    public <R, K, V extends Comparable<? super V>> SDFrameImpl<R> asOfJoin(IFrame<K> other, Function<T, V> leftTime, Function<K, V> rightTime, Join<T, K, R> join) {
+        return returnDF(asOfJoinList(other,leftTime,rightTime,null,null,join));
+    }
+
+    @Override
+    public <R, K, V extends Comparable<? super V>, P> SDFrameImpl<R> asOfJoin(IFrame<K> other, Function<T, V> leftTime, Function<K, V> rightTime,
+                                                                       Function<T, P> leftPartition, Function<K, P> rightPartition, Join<T, K, R> join) {
+        return returnDF(asOfJoinList(other,leftTime,rightTime,leftPartition,rightPartition,join));
+    }
+
+    @Override
+    public <R, K, V extends Comparable<? super V>> SDFrameImpl<R> rangeJoin(IFrame<K> other, Function<T, V> leftValue, Function<K, V> rightStart, Function<K, V> rightEnd, Join<T, K, R> join) {
+        return returnDF(rangeJoinList(other,leftValue,rightStart,rightEnd,join));
+    }
+
+    @Override
+    public <R, K, V> SDFrameImpl<R> fullJoin(IFrame<K> other, Function<T, V> leftKey, Function<K, V> rightKey, Join<T, K, R> join) {
+        return returnDF(fullJoinList(other,leftKey,rightKey,join));
+    }
+
     @Override
     public SDFrameImpl<FI2<T, Integer>> addRowNumberCol() {
         List<FI2<T, Integer>> result = new ArrayList<>();
@@ -377,7 +652,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public SDFrame<T> cutFirstRank(Sorter<T> sorter, int n) {
-        return overRank(Window.sortBy(sorter)).whereLe(FI2::getC2, n).map(FI2::getC1);
+        return returnDF(collectFlat(CollectorsPlusUtil.topN(sorter, n)));
     }
 
 
@@ -651,6 +926,16 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
         return returnDF(groupListKey(key,key2,key3));
     }
 
+    @Override
+    public SDFrameImpl<FI2<List<Object>, List<T>>> groupN(List<Function<T, ?>> keys) {
+        return returnDF(groupKeys(keys, toList()));
+    }
+
+    @Override
+    public <V> SDFrameImpl<FI2<List<Object>, V>> groupN(List<Function<T, ?>> keys, Collector<? super T, ?, V> collector) {
+        return returnDF(groupKeys(keys, collector));
+    }
+
     @Override
     public <K, J, H, V> SDFrameImpl<FI4<K, J, H, V>> group3ByCustom(Function<T, K> key, Function<T, J> key2, Function<T, H> key3, ListToOneValueFunction<T, V> function) {
         return returnDF(groupListKey(key,key2,key3,function));
@@ -658,16 +943,32 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <K,R extends Number> SDFrameImpl<FI2<K, BigDecimal>> groupBySum(Function<T, K> key, NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingNumber(value, numericMode);
         List<FI2<K, BigDecimal>> collect = groupKey(key, tBigDecimalCollector);
         return returnDF(collect);
     }
 
+    @Override
+    public <K> SDFrameImpl<FI2<K, Long>> groupBySumLong(Function<T, K> key, ToLongFunction<T> value) {
+        return returnDF(groupKey(key, Collectors.summingLong(value)));
+    }
+
+    @Override
+    public <K> SDFrameImpl<FI2<K, Double>> groupBySumDouble(Function<T, K> key, ToDoubleFunction<T> value) {
+        return returnDF(groupKey(key, Collectors.summingDouble(value)));
+    }
+
+    @Override
+    public <K> SDFrameImpl<FI2<K, BigDecimal>> groupByAvgDouble(Function<T, K> key, ToDoubleFunction<T> value) {
+        return returnDF(groupKey(key, Collectors.collectingAndThen(Collectors.averagingDouble(value),
+                e -> BigDecimal.valueOf(e).setScale(defaultScale, defaultRoundingMode))));
+    }
+
     @Override
     public <K, J,R extends Number> SDFrameImpl<FI3<K, J, BigDecimal>> group2BySum(Function<T, K> key,
                                                                                   Function<T, J> key2,
                                                                                   NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingNumber(value, numericMode);
         List<FI3<K, J, BigDecimal>> collect = groupKey(key, key2, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -678,7 +979,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
                                                                                         Function<T, J> key2,
                                                                                         Function<T, H> key3,
                                                                                         NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingNumber(value, numericMode);
         List<FI4<K, J, H, BigDecimal>> collect = groupKey(key, key2, key3, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -686,16 +987,14 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
     @Override
     public <K> SDFrameImpl<FI2<K, Long>> groupByCount(Function<T, K> key) {
         Collector<Object, ?, Long> counting = counting();
-        Map<K, Long> collect = stream().collect(groupingBy(key, counting));
-        return returnDF(FrameUtil.toListFI2(collect));
+        return returnDF(groupKey(key, counting));
     }
 
     @Override
     public <K, J> SDFrameImpl<FI3<K, J, Long>> group2ByCount(Function<T, K> key,
                                                              Function<T, J> key2) {
         Collector<Object, ?, Long> counting = counting();
-        Map<K, Map<J, Long>> collect = stream().collect(groupingBy(key, groupingBy(key2, counting)));
-        return returnDF(FrameUtil.toListFI3(collect));
+        return returnDF(groupKey(key, key2, counting));
     }
 
     @Override
@@ -703,18 +1002,36 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
                                                                    Function<T, J> key2,
                                                                    Function<T, H> key3) {
         Collector<Object, ?, Long> counting = counting();
-        Map<K, Map<J, Map<H, Long>>> collect = stream().collect(groupingBy(key, groupingBy(key2, groupingBy(key3, counting))));
-        return returnDF(FrameUtil.toListFI4(collect));
+        return returnDF(groupKey(key, key2, key3, counting));
+    }
+
+    @Override
+    public <K> SDFrameImpl<FI2<K, Long>> groupByApproxCountDistinct(Function<T, K> key, Function<T, ?> value) {
+        return groupByApproxCountDistinct(key, value, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    @Override
+    public <K> SDFrameImpl<FI2<K, Long>> groupByApproxCountDistinct(Function<T, K> key, Function<T, ?> value, int precision) {
+        return returnDF(groupKey(key, CollectorsPlusUtil.approxCountDistinct(value, precision)));
+    }
+
+    @Override
+    public <K,R extends Number> SDFrameImpl<FI2<K, BigDecimal>> groupByPercentile(Function<T, K> key, NumberFunction<T,R> value, double q) {
+        Collector<T, ?, List<BigDecimal>> percentile = CollectorsPlusUtil.percentile(value, new double[]{q}, TDigest.DEFAULT_COMPRESSION, defaultScale, defaultRoundingMode);
+        return returnDF(groupKey(key, collectingAndThen(percentile, list -> list.get(0))));
+    }
+
+    @Override
+    public <K,R extends Number> SDFrameImpl<FI2<K, List<BigDecimal>>> groupByPercentile(Function<T, K> key, NumberFunction<T,R> value, double... qs) {
+        return returnDF(groupKey(key, CollectorsPlusUtil.percentile(value, qs, TDigest.DEFAULT_COMPRESSION, defaultScale, defaultRoundingMode)));
     }
 
     @Override
     public <K,R extends Number> SDFrameImpl<FI3<K, BigDecimal,Long>> groupBySumCount(Function<T, K> key, NumberFunction<T,R> value) {
-        List<T> dataList = viewList();
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
-        List<FI2<K, BigDecimal>> sumList = returnDF(dataList).groupKey(key, tBigDecimalCollector);
-        List<FI2<K, Long>> countList =  returnDF(dataList).groupByCount(key).viewList();
-        Map<K, Long> countMap = countList.stream().collect(Collectors.toMap(FI2::getC1, FI2::getC2));
-        List<FI3<K, BigDecimal, Long>> collect = sumList.stream().map(e -> new FI3<>(e.getC1(), e.getC2(), countMap.get(e.getC1()))).collect(Collectors.toList());
+        Agg<T, BigDecimal> sum = Agg.sum(value);
+        Agg<T, Long> count = Agg.count();
+        List<FI3<K, BigDecimal, Long>> collect = groupAggKey(key, Arrays.asList(sum, count)).stream()
+                .map(e -> new FI3<>(e.getKey(), e.get(sum), e.get(count))).collect(Collectors.toList());
         return returnDF(collect);
     }
 
@@ -722,23 +1039,60 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
     public <K, J,R extends Number> SDFrameImpl<FI4<K, J, BigDecimal, Long>> group2BySumCount(Function<T, K> key,
                                                                                              Function<T, J> key2,
                                                                                              NumberFunction<T,R> value) {
-        List<T> dataList = viewList();
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.summingBigDecimalForNumber(value);
-        List<FI3<K, J, BigDecimal>> sumList = returnDF(dataList).groupKey(key, key2, tBigDecimalCollector);
-        List<FI3<K, J, Long>> countList =  returnDF(dataList).group2ByCount(key, key2).viewList();
-        // 合并sum和count字段
-        Map<String, FI3<K, J, Long>> countMap = countList.stream().collect(Collectors.toMap(e -> e.getC1() + "_" + e.getC2(), Function.identity()));
-        List<FI4<K, J, BigDecimal, Long>> collect = sumList.stream().map(e -> {
-            FI3<K, J, Long> countItem = countMap.get(e.getC1() + "_" + e.getC2());
-            return new FI4<>(e.getC1(), e.getC2(), e.getC3(), countItem.getC3());
-        }).collect(Collectors.toList());
+        Agg<T, BigDecimal> sum = Agg.sum(value);
+        Agg<T, Long> count = Agg.count();
+        List<FI4<K, J, BigDecimal, Long>> collect = groupAggKey(key, key2, Arrays.asList(sum, count)).stream()
+                .map(e -> new FI4<>(e.getKey().getC1(), e.getKey().getC2(), e.get(sum), e.get(count))).collect(Collectors.toList());
         return returnDF(collect);
     }
 
+    @Override
+    public <K> SDFrameImpl<AggRow<K>> groupByAgg(Function<T, K> key, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupAggKey(key, aggs));
+    }
+
+    @Override
+    public <K, J> SDFrameImpl<AggRow<FI2<K, J>>> group2ByAgg(Function<T, K> key, Function<T, J> key2, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupAggKey(key, key2, aggs));
+    }
+
+    @Override
+    public SDFrameImpl<GroupingRow> rollup(List<Function<T, ?>> keys, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupingSetsKey(keys, rollupGroupingIds(keys == null ? 0 : keys.size()), aggs));
+    }
+
+    @Override
+    public SDFrameImpl<GroupingRow> cube(List<Function<T, ?>> keys, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupingSetsKey(keys, cubeGroupingIds(keys == null ? 0 : keys.size()), aggs));
+    }
+
+    @Override
+    public SDFrameImpl<GroupingRow> groupingSets(List<Function<T, ?>> keys, List<int[]> sets, List<? extends Agg<T, ?>> aggs) {
+        return returnDF(groupingSetsKey(keys, groupingSetsIds(keys == null ? 0 : keys.size(), sets), aggs));
+    }
+
+    @Override
+    public <K> IncrementalGroupBy<T, K> groupByIncremental(Function<T, K> key, List<? extends Agg<T, ?>> aggs) {
+        return new IncrementalGroupByImpl<>(key, aggs, defaultScale, defaultRoundingMode, numericMode).append(viewList());
+    }
+
+    @Override
+    public <R, C, V> PivotTable<R, C, V> pivot(Function<T, R> rowKey, Function<T, C> columnKey, Agg<T, V> agg) {
+        return pivotKey(rowKey, columnKey, null, agg);
+    }
+
+    @Override
+    public <R, C, V> PivotTable<R, C, V> pivot(Function<T, R> rowKey, Function<T, C> columnKey, List<C> columns, Agg<T, V> agg) {
+        if (columns == null) {
+            throw new IllegalArgumentException("columns can not be null");
+        }
+        return pivotKey(rowKey, columnKey, columns, agg);
+    }
+
     @Override
     public <K,R extends Number> SDFrameImpl<FI2<K, BigDecimal>> groupByAvg(Function<T, K> key,
                                                                            NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingBigDecimal(value, defaultScale, getOldRoundingMode());
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingNumber(value, numericMode, defaultScale, defaultRoundingMode);
         List<FI2<K, BigDecimal>> collect = groupKey(key, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -748,7 +1102,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
                                                                                   Function<T, J> key2,
                                                                                   NumberFunction<T,R> value) {
 
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingBigDecimal(value, defaultScale, getOldRoundingMode());
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingNumber(value, numericMode, defaultScale, defaultRoundingMode);
         List<FI3<K, J, BigDecimal>> collect = groupKey(key, key2, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -758,7 +1112,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
                                                                                         Function<T, J> key2,
                                                                                         Function<T, H> key3,
                                                                                         NumberFunction<T,R> value) {
-        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingBigDecimal(value, defaultScale, getOldRoundingMode());
+        Collector<T, ?, BigDecimal> tBigDecimalCollector = CollectorsPlusUtil.averagingNumber(value, numericMode, defaultScale, defaultRoundingMode);
         List<FI4<K, J, H, BigDecimal>> collect = groupKey(key, key2, key3, tBigDecimalCollector);
         return returnDF(collect);
     }
@@ -767,14 +1121,12 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
     @Override
     public <K, V extends Comparable<? super V>> SDFrameImpl<FI2<K, T>> groupByMax(Function<T, K> key,
                                                                       Function<T, V> value) {
-        Map<K, T> collect = stream().collect(groupingBy(key, collectingAndThen(toList(), getListMaxFunction(value))));
-        return returnDF(FrameUtil.toListFI2(collect));
+        return returnDF(groupKey(key, maxCollector(value)));
     }
 
     @Override
     public <K, J, V extends Comparable<? super V>> SDFrameImpl<FI3<K, J, T>> group2ByMax(Function<T, K> key, Function<T, J> key2, Function<T, V> value) {
-        Map<K, Map<J, T>> collect = groupToMap(key, key2,getListMaxFunction(value));
-        return returnDF(FrameUtil.toListFI3(collect));
+        return returnDF(groupKey(key, key2, maxCollector(value)));
     }
 
     @Override
@@ -790,14 +1142,12 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
     @Override
     public <K, V extends Comparable<? super V>> SDFrameImpl<FI2<K, T>> groupByMin(Function<T, K> key,
                                                                       Function<T, V> value) {
-        Map<K, T> collect = stream().collect(groupingBy(key, collectingAndThen(toList(), e -> e.stream().min(java.util.Comparator.comparing(value)).orElse(null))));
-        return returnDF(FrameUtil.toListFI2(collect));
+        return returnDF(groupKey(key, minCollector(value)));
     }
 
     @Override
     public <K, J, V extends Comparable<? super V>> SDFrameImpl<FI3<K, J, T>> group2ByMin(Function<T, K> key, Function<T, J> key2, Function<T, V> value) {
-        Map<K, Map<J, T>> collect = groupToMap(key, key2,getListMinFunction(value));
-        return returnDF(FrameUtil.toListFI3(collect));
+        return returnDF(groupKey(key, key2, minCollector(value)));
     }
 
     @Override
@@ -813,31 +1163,32 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
     @Override
     public <K, V extends Comparable<? super V>> SDFrameImpl<FI2<K, MaxMin<V>>> groupByMaxMinValue(Function<T, K> key,
                                                                                       Function<T, V> value) {
-        Map<K, MaxMin<V>> map = stream().collect(groupingBy(key, collectingAndThen(toList(), getListGroupMaxMinValueFunction(value))));
-        return returnDF(FrameUtil.toListFI2(map));
+        return returnDF(groupKey(key, maxMinValueCollector(value)));
     }
 
     @Override
     public <K, J, V extends Comparable<? super V>> SDFrameImpl<FI3<K, J, MaxMin<V>>> group2ByMaxMinValue(Function<T, K> key,
                                                                                                          Function<T, J> key2,
                                                                                                          Function<T, V> value) {
-        Map<K, Map<J, MaxMin<V>>> map = stream().collect(groupingBy(key, groupingBy(key2, collectingAndThen(toList(), getListGroupMaxMinValueFunction(value)))));
-        return returnDF(FrameUtil.toListFI3(map));
+        return returnDF(groupKey(key, key2, maxMinValueCollector(value)));
     }
 
     @Override
     public <K, V extends Comparable<? super V>> SDFrameImpl<FI2<K, MaxMin<T>>> groupByMaxMin(Function<T, K> key,
                                                                                  Function<T, V> value) {
-        Map<K, MaxMin<T>> map = stream().collect(groupingBy(key, collectingAndThen(toList(), getListGroupMaxMinFunction(value))));
-        return returnDF(FrameUtil.toListFI2(map));
+        return returnDF(groupKey(key, maxMinCollector(value)));
     }
 
     @Override
     public <K, J, V extends Comparable<? super V>> SDFrameImpl<FI3<K, J, MaxMin<T>>> group2ByMaxMin(Function<T, K> key,
                                                                                                     Function<T, J> key2,
                                                                                                     Function<T, V> value) {
-        Map<K, Map<J, MaxMin<T>>> map = stream().collect(groupingBy(key, groupingBy(key2, collectingAndThen(toList(), getListGroupMaxMinFunction(value)))));
-        return returnDF(FrameUtil.toListFI3(map));
+        return returnDF(groupKey(key, key2, maxMinCollector(value)));
+    }
+
+    @Override
+    public <K> SDFrameImpl<FI2<K, List<T>>> groupByTopN(Function<T, K> key, Sorter<T> sorter, int n) {
+        return returnDF(groupKey(key, CollectorsPlusUtil.topN(sorter, n)));
     }
 
     @Override
@@ -898,7 +1249,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
     }
     @Override
     public SDFrameImpl<T> overRowNumberS(SetFunction<T,Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overRowNumber(overParam),setFunction);
+        return returnDF(setWindowInts(overRowNumberInts(overParam), setFunction));
     }
 
     @Override
@@ -913,7 +1264,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public SDFrameImpl<T> overRankS(SetFunction<T, Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overRank(overParam),setFunction);
+        return returnDF(setWindowInts(overRankInts(overParam), setFunction));
     }
 
     @Override
@@ -923,7 +1274,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public SDFrameImpl<T> overDenseRankS(SetFunction<T, Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overDenseRank(overParam),setFunction);
+        return returnDF(setWindowInts(overDenseRankInts(overParam), setFunction));
     }
 
     @Override
@@ -952,7 +1303,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrame<T> overLagS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field, int n) {
-        return fi2Frame(overLag(overParam,field,n),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForLag(overParam, field, n), setFunction));
     }
 
     @Override
@@ -962,12 +1313,12 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrame<T> overLagS(SetFunction<T, F> setFunction, Function<T, F> field, int n) {
-        return fi2Frame(overLag(field,n),setFunction);
+        return overLagS(setFunction, emptyWindow, field, n);
     }
 
     @Override
     public <F> SDFrame<T> overLeadS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field, int n) {
-        return fi2Frame(overLead(overParam,field,n),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForLead(overParam, field, n), setFunction));
     }
 
     @Override
@@ -982,7 +1333,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrame<T> overLeadS(SetFunction<T, F> setFunction, Function<T, F> field, int n) {
-        return fi2Frame(overLead(field,n),setFunction);
+        return overLeadS(setFunction, emptyWindow, field, n);
     }
 
     @Override
@@ -991,8 +1342,8 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
     }
 
     @Override
-    public <F> SDFrame<T> overNthValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field, int n) {
-        return fi2Frame(overNthValue(overParam,field,n),setFunction);
+    public <F> SDFrameImpl<T> overNthValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field, int n) {
+        return returnDF(setWindowValues(overParam, windowKernelForNthValue(overParam, field, n), setFunction));
     }
 
     @Override
@@ -1002,7 +1353,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrameImpl<T> overNthValueS(SetFunction<T, F> setFunction, Function<T, F> field, int n) {
-        return fi2Frame(overNthValue(field,n),setFunction);
+        return overNthValueS(setFunction, emptyWindow, field, n);
     }
 
     @Override
@@ -1012,7 +1363,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrame<T> overFirstValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overFirstValue(overParam, field),setFunction);
+        return overNthValueS(setFunction, overParam, field, 1);
     }
 
     @Override
@@ -1022,7 +1373,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrameImpl<T> overFirstValueS(SetFunction<T, F> setFunction, Function<T, F> field) {
-        return fi2Frame(overFirstValue(field),setFunction);
+        return overNthValueS(setFunction, emptyWindow, field, 1);
     }
 
     @Override
@@ -1032,7 +1383,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrameImpl<T> overLastValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overLastValue(overParam,field),setFunction);
+        return overNthValueS(setFunction, overParam, field, -1);
     }
 
     @Override
@@ -1042,7 +1393,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrame<T> overLastValueS(SetFunction<T, F> setFunction, Function<T, F> field) {
-        return fi2Frame(overLastValue(field),setFunction);
+        return overNthValueS(setFunction, emptyWindow, field, -1);
     }
 
     @Override
@@ -1057,7 +1408,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrameImpl<T> overSumS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overSum(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForSum(overParam, field, false), setFunction));
     }
 
     @Override
@@ -1065,6 +1416,26 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
         return overSumS(setFunction, emptyWindow,field);
     }
 
+    @Override
+    public <V> SDFrameImpl<FI2<T, V>> overAggregate(Window<T> overParam, Function<T, V> field, Monoid<V> monoid) {
+        return returnDF(windowFunctionForAggregate(overParam, field, monoid));
+    }
+
+    @Override
+    public <V> SDFrameImpl<FI2<T, V>> overAggregate(Function<T, V> field, Monoid<V> monoid) {
+        return overAggregate(emptyWindow, field, monoid);
+    }
+
+    @Override
+    public <V> SDFrameImpl<T> overAggregateS(SetFunction<T, V> setFunction, Window<T> overParam, Function<T, V> field, Monoid<V> monoid) {
+        return fi2Frame(overAggregate(overParam, field, monoid), setFunction);
+    }
+
+    @Override
+    public <V> SDFrameImpl<T> overAggregateS(SetFunction<T, V> setFunction, Function<T, V> field, Monoid<V> monoid) {
+        return overAggregateS(setFunction, emptyWindow, field, monoid);
+    }
+
     @Override
     public <F> SDFrameImpl<FI2<T, BigDecimal>> overAvg(Window<T> overParam, Function<T, F> field) {
         return returnDF(windowFunctionForAvg(overParam,field));
@@ -1077,7 +1448,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F> SDFrameImpl<T> overAvgS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overAvg(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForSum(overParam, field, true), setFunction));
     }
 
     @Override
@@ -1097,7 +1468,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F extends Comparable<? super F>> SDFrameImpl<T> overMaxValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overMaxValue(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForMaxMin(overParam, field, 1), setFunction));
     }
 
     @Override
@@ -1117,7 +1488,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public <F extends Comparable<? super F>> SDFrameImpl<T> overMinValueS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
-        return fi2Frame(overMinValue(overParam,field),setFunction);
+        return returnDF(setWindowValues(overParam, windowKernelForMaxMin(overParam, field, -1), setFunction));
     }
 
     @Override
@@ -1137,7 +1508,7 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
 
     @Override
     public SDFrameImpl<T> overCountS(SetFunction<T, Integer> setFunction, Window<T> overParam) {
-        return fi2Frame(overCount(overParam),setFunction);
+        return returnDF(setWindowInts(windowCountInts(overParam), setFunction));
     }
 
     @Override
@@ -1145,6 +1516,86 @@ public class SDFrameImpl<T>  extends AbstractDataFrameImpl<T> implements SDFrame
         return overCountS(setFunction, emptyWindow);
     }
 
+    @Override
+    public <F extends Number> SDFrameImpl<FI2<T, BigDecimal>> overPercentile(Window<T> overParam, Function<T, F> field, double q) {
+        return returnDF(windowFunctionForPercentile(overParam, field, q));
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<FI2<T, BigDecimal>> overPercentile(Function<T, F> field, double q) {
+        return overPercentile(emptyWindow, field, q);
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<T> overPercentileS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field, double q) {
+        return fi2Frame(overPercentile(overParam, field, q), setFunction);
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<T> overPercentileS(SetFunction<T, BigDecimal> setFunction, Function<T, F> field, double q) {
+        return overPercentileS(setFunction, emptyWindow, field, q);
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<FI2<T, BigDecimal>> overMedian(Window<T> overParam, Function<T, F> field) {
+        return returnDF(windowFunctionForMedian(overParam, field));
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<FI2<T, BigDecimal>> overMedian(Function<T, F> field) {
+        return overMedian(emptyWindow, field);
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<T> overMedianS(SetFunction<T, BigDecimal> setFunction, Window<T> overParam, Function<T, F> field) {
+        return fi2Frame(overMedian(overParam, field), setFunction);
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<T> overMedianS(SetFunction<T, BigDecimal> setFunction, Function<T, F> field) {
+        return overMedianS(setFunction, emptyWindow, field);
+    }
+
+    @Override
+    public <F> SDFrameImpl<FI2<T, Integer>> overCountDistinct(Window<T> overParam, Function<T, F> field) {
+        return returnDF(windowFunctionForCountDistinct(overParam, field));
+    }
+
+    @Override
+    public <F> SDFrameImpl<FI2<T, Integer>> overCountDistinct(Function<T, F> field) {
+        return overCountDistinct(emptyWindow, field);
+    }
+
+    @Override
+    public <F> SDFrameImpl<T> overCountDistinctS(SetFunction<T, Integer> setFunction, Window<T> overParam, Function<T, F> field) {
+        return returnDF(setWindowInts(overCountDistinctInts(overParam, field), setFunction));
+    }
+
+    @Override
+    public <F> SDFrameImpl<T> overCountDistinctS(SetFunction<T, Integer> setFunction, Function<T, F> field) {
+        return overCountDistinctS(setFunction, emptyWindow, field);
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> SDFrameImpl<FI2<T, F>> overMode(Window<T> overParam, Function<T, F> field) {
+        return returnDF(windowFunctionForMode(overParam, field));
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> SDFrameImpl<FI2<T, F>> overMode(Function<T, F> field) {
+        return overMode(emptyWindow, field);
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> SDFrameImpl<T> overModeS(SetFunction<T, F> setFunction, Window<T> overParam, Function<T, F> field) {
+        return fi2Frame(overMode(overParam, field), setFunction);
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> SDFrameImpl<T> overModeS(SetFunction<T, F> setFunction, Function<T, F> field) {
+        return overModeS(setFunction, emptyWindow, field);
+    }
+
 
     @Override
     public SDFrameImpl<FI2<T, Integer>> overNtile(int n) {
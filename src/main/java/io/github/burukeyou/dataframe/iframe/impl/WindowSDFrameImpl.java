@@ -1,9 +1,13 @@
 package io.github.burukeyou.dataframe.iframe.impl;
 
 import io.github.burukeyou.dataframe.iframe.WindowSDFrame;
+import io.github.burukeyou.dataframe.iframe.function.Monoid;
 import io.github.burukeyou.dataframe.iframe.function.SetFunction;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.window.Window;
+import io.github.burukeyou.dataframe.iframe.window.WindowFunction;
+import io.github.burukeyou.dataframe.iframe.window.WindowPlan;
+import io.github.burukeyou.dataframe.iframe.window.WindowPlanImpl;
 
 import java.math.BigDecimal;
 import java.util.function.Function;
@@ -136,6 +140,16 @@ public class WindowSDFrameImpl<T> extends SDFrameImpl<T> implements WindowSDFram
         return returnWDF(this.window, overSumS(setFunction, this.window,field).stream());
     }
 
+    @Override
+    public <V> SDFrameImpl<FI2<T, V>> overAggregate(Function<T, V> field, Monoid<V> monoid) {
+        return super.overAggregate(this.window, field, monoid);
+    }
+
+    @Override
+    public <V> WindowSDFrameImpl<T> overAggregateS(SetFunction<T, V> setFunction, Function<T, V> field, Monoid<V> monoid) {
+        return returnWDF(this.window, overAggregateS(setFunction, this.window, field, monoid).stream());
+    }
+
     @Override
     public <F> SDFrameImpl<FI2<T, BigDecimal>> overAvg(Function<T, F> field) {
         return overAvg(this.window,field);
@@ -176,6 +190,46 @@ public class WindowSDFrameImpl<T> extends SDFrameImpl<T> implements WindowSDFram
         return returnWDF(this.window, overCountS(setFunction,this.window).stream());
     }
 
+    @Override
+    public <F extends Number> SDFrameImpl<FI2<T, BigDecimal>> overPercentile(Function<T, F> field, double q) {
+        return super.overPercentile(this.window, field, q);
+    }
+
+    @Override
+    public <F extends Number> WindowSDFrameImpl<T> overPercentileS(SetFunction<T, BigDecimal> setFunction, Function<T, F> field, double q) {
+        return returnWDF(this.window, overPercentileS(setFunction, this.window, field, q).stream());
+    }
+
+    @Override
+    public <F extends Number> SDFrameImpl<FI2<T, BigDecimal>> overMedian(Function<T, F> field) {
+        return super.overMedian(this.window, field);
+    }
+
+    @Override
+    public <F extends Number> WindowSDFrameImpl<T> overMedianS(SetFunction<T, BigDecimal> setFunction, Function<T, F> field) {
+        return returnWDF(this.window, overMedianS(setFunction, this.window, field).stream());
+    }
+
+    @Override
+    public <F> SDFrameImpl<FI2<T, Integer>> overCountDistinct(Function<T, F> field) {
+        return super.overCountDistinct(this.window, field);
+    }
+
+    @Override
+    public <F> WindowSDFrameImpl<T> overCountDistinctS(SetFunction<T, Integer> setFunction, Function<T, F> field) {
+        return returnWDF(this.window, overCountDistinctS(setFunction, this.window, field).stream());
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> SDFrameImpl<FI2<T, F>> overMode(Function<T, F> field) {
+        return super.overMode(this.window, field);
+    }
+
+    @Override
+    public <F extends Comparable<? super F>> WindowSDFrameImpl<T> overModeS(SetFunction<T, F> setFunction, Function<T, F> field) {
+        return returnWDF(this.window, overModeS(setFunction, this.window, field).stream());
+    }
+
     @Override
     public SDFrameImpl<FI2<T, Integer>> overNtile(int n) {
         return super.overNtile(this.window,n);
@@ -185,4 +239,10 @@ public class WindowSDFrameImpl<T> extends SDFrameImpl<T> implements WindowSDFram
     public WindowSDFrameImpl<T> overNtileS(SetFunction<T, Integer> setFunction, int n) {
         return returnWDF(this.window,super.overNtileS(setFunction, n).stream());
     }
+
+    @Override
+    public WindowPlan<T, WindowSDFrame<T>> compute(WindowFunction<T> function) {
+        WindowPlanImpl<T, WindowSDFrame<T>> plan = new WindowPlanImpl<>(list -> returnWDF(this.window, windowFunctionForPlan(this.window, list).stream()));
+        return plan.compute(function);
+    }
 }
@@ -0,0 +1,90 @@
+package io.github.burukeyou.dataframe.iframe.item;
+
+import io.github.burukeyou.dataframe.iframe.group.Agg;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Group row of multi aggregate results
+ *      the value of each aggregate function can be got by the Agg instance which is passed to group
+ *
+ * @param <K>       group key type
+ *
+ * @author caizhihao
+ */
+public class AggRow<K> implements FItem {
+
+    private final K key;
+
+    private final List<Object> values;
+
+    private final List<? extends Agg<?,?>> aggList;
+
+    public AggRow(K key, Object[] values, List<? extends Agg<?, ?>> aggList) {
+        this.key = key;
+        this.values = Collections.unmodifiableList(Arrays.asList(values));
+        this.aggList = aggList;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * get the result of aggregate function
+     * @param agg           the aggregate function passed to group
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Agg<?,V> agg) {
+        for (int i = 0; i < aggList.size(); i++) {
+            if (aggList.get(i) == agg) {
+                return (V) values.get(i);
+            }
+        }
+        throw new IllegalArgumentException("aggregate function " + agg + " is not in the group");
+    }
+
+    /**
+     * get the result by the index of aggregate function
+     * @param index         index of aggregate function,  start from 0
+     */
+    public Object get(int index) {
+        return values.get(index);
+    }
+
+    /**
+     * all aggregate results in the order of aggregate functions
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AggRow<?> aggRow = (AggRow<?>) o;
+        return Objects.equals(key, aggRow.key) && values.equals(aggRow.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, values);
+    }
+
+    @Override
+    public String toString() {
+        return "AggRow(key=" + key + ", values=" + values + ")";
+    }
+}
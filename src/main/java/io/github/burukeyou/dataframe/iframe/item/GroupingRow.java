@@ -0,0 +1,71 @@
+package io.github.burukeyou.dataframe.iframe.item;
+
+import io.github.burukeyou.dataframe.iframe.group.Agg;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Aggregate row of grouping sets,  rollup and cube
+ *      the key list has one value per group field,  and the value of rolled-up field is null.
+ *      use isGrouping or getGroupingId to distinguish the rolled-up field from the null value,  like GROUPING() of sql
+ *
+ * @author caizhihao
+ */
+public class GroupingRow extends AggRow<List<Object>> {
+
+    /**
+     * the bit of rolled-up field is 1,  the first field is the highest bit
+     */
+    private final int groupingId;
+
+    public GroupingRow(List<Object> key, int groupingId, Object[] values, List<? extends Agg<?, ?>> aggList) {
+        super(key, values, aggList);
+        this.groupingId = groupingId;
+    }
+
+    /**
+     * get the value of group field with the type of caller,  null if rolled up
+     * @param index         index of group field
+     */
+    @SuppressWarnings("unchecked")
+    public <E> E getKey(int index) {
+        return (E) getKey().get(index);
+    }
+
+    /**
+     * same as GROUPING(field) of sql
+     * @param index         index of group field
+     * @return              true if the field is rolled up in this row
+     */
+    public boolean isGrouping(int index) {
+        int size = getKey().size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for group field size " + size);
+        }
+        return (groupingId >>> (size - 1 - index) & 1) == 1;
+    }
+
+    /**
+     * same as GROUPING_ID(field1, field2, ...) of sql
+     *      the bit of rolled-up field is 1 and the first field is the highest bit,  0 for the finest level
+     */
+    public int getGroupingId() {
+        return groupingId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && groupingId == ((GroupingRow) o).groupingId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), groupingId);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupingRow(key=" + getKey() + ", groupingId=" + groupingId + ", values=" + getValues() + ")";
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.burukeyou.dataframe.iframe.item;
+
+import java.util.*;
+
+/**
+ * Dense pivot table (cross tab)
+ *      row keys and column keys are indexed in the order of first appearance (or the order of fixed columns),
+ *      cells are stored in a row-major array so the table can be read by index or by key
+ *
+ * @author          caizhihao
+ * @param <R>       row key type
+ * @param <C>       column key type
+ * @param <V>       cell value type
+ */
+public class PivotTable<R, C, V> {
+
+    private final List<R> rowKeys;
+
+    private final List<C> columnKeys;
+
+    private final Map<R, Integer> rowIndexMap;
+
+    private final Map<C, Integer> columnIndexMap;
+
+    /**
+     * 按行存储的单元格, 下标为 row * columnCount + column
+     */
+    private final Object[] cells;
+
+    public PivotTable(List<R> rowKeys, List<C> columnKeys, Object[] cells) {
+        if (cells.length != rowKeys.size() * columnKeys.size()) {
+            throw new IllegalArgumentException("cell size " + cells.length + " does not match " + rowKeys.size() + " rows and " + columnKeys.size() + " columns");
+        }
+        this.rowKeys = Collections.unmodifiableList(new ArrayList<>(rowKeys));
+        this.columnKeys = Collections.unmodifiableList(new ArrayList<>(columnKeys));
+        this.rowIndexMap = indexMap(rowKeys);
+        this.columnIndexMap = indexMap(columnKeys);
+        this.cells = cells.clone();
+    }
+
+    private static <E> Map<E, Integer> indexMap(List<E> keys) {
+        Map<E, Integer> map = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        return map;
+    }
+
+    public List<R> getRowKeys() {
+        return rowKeys;
+    }
+
+    public List<C> getColumnKeys() {
+        return columnKeys;
+    }
+
+    public int rowCount() {
+        return rowKeys.size();
+    }
+
+    public int columnCount() {
+        return columnKeys.size();
+    }
+
+    /**
+     * @return      index of row key,  -1 if not exist
+     */
+    public int rowIndex(R rowKey) {
+        Integer index = rowIndexMap.get(rowKey);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @return      index of column key,  -1 if not exist
+     */
+    public int columnIndex(C columnKey) {
+        Integer index = columnIndexMap.get(columnKey);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * get cell by index
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= rowCount() || columnIndex < 0 || columnIndex >= columnCount()) {
+            throw new IndexOutOfBoundsException("cell (" + rowIndex + ", " + columnIndex + ") out of bounds for " + rowCount() + " rows and " + columnCount() + " columns");
+        }
+        return (V) cells[rowIndex * columnKeys.size() + columnIndex];
+    }
+
+    /**
+     * get cell by key,  null if the row or column does not exist
+     */
+    public V getValue(R rowKey, C columnKey) {
+        int rowIndex = rowIndex(rowKey);
+        int columnIndex = columnIndex(columnKey);
+        if (rowIndex < 0 || columnIndex < 0) {
+            return null;
+        }
+        return get(rowIndex, columnIndex);
+    }
+
+    /**
+     * values of one row in the order of column keys,  null if the row does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> getRow(R rowKey) {
+        int rowIndex = rowIndex(rowKey);
+        if (rowIndex < 0) {
+            return null;
+        }
+        int columnCount = columnKeys.size();
+        return (List<V>) Collections.unmodifiableList(Arrays.asList(Arrays.copyOfRange(cells, rowIndex * columnCount, (rowIndex + 1) * columnCount)));
+    }
+
+    /**
+     * values of one column in the order of row keys,  null if the column does not exist
+     */
+    public List<V> getColumn(C columnKey) {
+        int columnIndex = columnIndex(columnKey);
+        if (columnIndex < 0) {
+            return null;
+        }
+        List<V> column = new ArrayList<>(rowKeys.size());
+        for (int i = 0; i < rowKeys.size(); i++) {
+            column.add(get(i, columnIndex));
+        }
+        return column;
+    }
+
+    /**
+     * convert to row list,  each row is (row key, values in the order of column keys)
+     */
+    public List<FI2<R, List<V>>> toRows() {
+        List<FI2<R, List<V>>> rows = new ArrayList<>(rowKeys.size());
+        for (R rowKey : rowKeys) {
+            rows.add(new FI2<>(rowKey, getRow(rowKey)));
+        }
+        return rows;
+    }
+
+    /**
+     * convert to primitive matrix,  null or non-number cell is NaN
+     */
+    public double[][] toDoubleMatrix() {
+        int columnCount = columnKeys.size();
+        double[][] matrix = new double[rowKeys.size()][columnCount];
+        for (int i = 0; i < matrix.length; i++) {
+            for (int j = 0; j < columnCount; j++) {
+                Object cell = cells[i * columnCount + j];
+                matrix[i][j] = cell instanceof Number ? ((Number) cell).doubleValue() : Double.NaN;
+            }
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PivotTable<?, ?, ?> that = (PivotTable<?, ?, ?>) o;
+        return rowKeys.equals(that.rowKeys) && columnKeys.equals(that.columnKeys) && Arrays.equals(cells, that.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowKeys, columnKeys, Arrays.hashCode(cells));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PivotTable(columns=").append(columnKeys);
+        for (FI2<R, List<V>> row : toRows()) {
+            sb.append(", ").append(row.getC1()).append("=").append(row.getC2());
+        }
+        return sb.append(")").toString();
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.burukeyou.dataframe.iframe.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Primitive double result of window function
+ *      the value at index i belongs to the row at index i,  the rows are in the window order (partition, then sort).
+ *      the value of empty window is NaN
+ *
+ * @author caizhihao
+ * @param <T>   element type
+ */
+public class WindowDoubles<T> {
+
+    private final List<T> rows;
+
+    private final double[] values;
+
+    public WindowDoubles(List<T> rows, double[] values) {
+        if (rows.size() != values.length) {
+            throw new IllegalArgumentException("value size " + values.length + " does not match row size " + rows.size());
+        }
+        this.rows = rows;
+        this.values = values;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public T getRow(int index) {
+        return rows.get(index);
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    /**
+     * rows in the window order
+     */
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * the backing array aligned with the rows,  not copied
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * visit each row with its value without boxing
+     */
+    public void forEach(ObjDoubleConsumer<? super T> action) {
+        for (int i = 0; i < values.length; i++) {
+            action.accept(rows.get(i), values[i]);
+        }
+    }
+
+    /**
+     * convert to the tuple list of overXxx function
+     */
+    public List<FI2<T, Double>> toLists() {
+        List<FI2<T, Double>> resultList = new ArrayList<>(values.length);
+        forEach((row, value) -> resultList.add(new FI2<>(row, value)));
+        return resultList;
+    }
+}
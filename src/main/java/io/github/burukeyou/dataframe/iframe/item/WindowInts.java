@@ -0,0 +1,71 @@
+package io.github.burukeyou.dataframe.iframe.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Primitive int result of window function
+ *      the value at index i belongs to the row at index i,  the rows are in the window order (partition, then sort)
+ *
+ * @author caizhihao
+ * @param <T>   element type
+ */
+public class WindowInts<T> {
+
+    private final List<T> rows;
+
+    private final int[] values;
+
+    public WindowInts(List<T> rows, int[] values) {
+        if (rows.size() != values.length) {
+            throw new IllegalArgumentException("value size " + values.length + " does not match row size " + rows.size());
+        }
+        this.rows = rows;
+        this.values = values;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public T getRow(int index) {
+        return rows.get(index);
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * rows in the window order
+     */
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * the backing array aligned with the rows,  not copied
+     */
+    public int[] getValues() {
+        return values;
+    }
+
+    /**
+     * visit each row with its value without boxing
+     */
+    public void forEach(ObjIntConsumer<? super T> action) {
+        for (int i = 0; i < values.length; i++) {
+            action.accept(rows.get(i), values[i]);
+        }
+    }
+
+    /**
+     * convert to the tuple list of overXxx function
+     */
+    public List<FI2<T, Integer>> toLists() {
+        List<FI2<T, Integer>> resultList = new ArrayList<>(values.length);
+        forEach((row, value) -> resultList.add(new FI2<>(row, value)));
+        return resultList;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.burukeyou.dataframe.iframe.support;
+
+import io.github.burukeyou.dataframe.iframe.IFrame;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Prebuilt hash index of a frame for join
+ *      build once and reuse as the right side of join,  avoid scanning the frame every time
+ *      it is immutable,  so it can be shared across threads.
+ *      it serves the key equality joins (inner, left, right, full, semi and anti join),
+ *      merge join, as-of join and range join compare ordered values and still take the other frame
+ *
+ * @param <K>           element type of the indexed frame
+ * @param <V>           join key type
+ *
+ * @author  caizhihao
+ */
+public final class JoinIndex<K,V> {
+
+    /**
+     * all element in original order
+     */
+    private final List<K> rowList;
+
+    /**
+     * join key to element list,  null element is not indexed
+     */
+    private final Map<V,List<K>> indexMap;
+
+    /**
+     * join key to the positions of its elements in rowList
+     */
+    private final Map<V,int[]> positionMap;
+
+    private final Function<K,V> keyFunction;
+
+    private JoinIndex(List<K> rowList, Function<K,V> keyFunction) {
+        this.rowList = Collections.unmodifiableList(rowList);
+        this.keyFunction = keyFunction;
+        Map<V,List<K>> map = new HashMap<>();
+        Map<V,List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < rowList.size(); i++) {
+            K k = rowList.get(i);
+            if (k != null){
+                V key = keyFunction.apply(k);
+                map.computeIfAbsent(key, e -> new ArrayList<>(1)).add(k);
+                positions.computeIfAbsent(key, e -> new ArrayList<>(1)).add(i);
+            }
+        }
+        for (Map.Entry<V, List<K>> entry : map.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        Map<V,int[]> positionMap = new HashMap<>(positions.size() * 2);
+        positions.forEach((key, list) -> positionMap.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        this.indexMap = map;
+        this.positionMap = positionMap;
+    }
+
+    /**
+     * build index from frame
+     * @param frame             indexed frame
+     * @param keyFunction       join key
+     */
+    public static <K,V> JoinIndex<K,V> of(IFrame<K> frame, Function<K,V> keyFunction){
+        return of(frame.toLists(),keyFunction);
+    }
+
+    /**
+     * build index from collection
+     * @param list              indexed collection
+     * @param keyFunction       join key
+     */
+    public static <K,V> JoinIndex<K,V> of(Collection<K> list, Function<K,V> keyFunction){
+        return new JoinIndex<>(list == null ? new ArrayList<>() : new ArrayList<>(list),keyFunction);
+    }
+
+    /**
+     * get the elements of the key
+     * @param key           join key
+     * @return              unmodifiable element list, empty list if not exists
+     */
+    public List<K> get(V key){
+        return indexMap.getOrDefault(key,Collections.emptyList());
+    }
+
+    /**
+     * visit the elements of the key with their positions in {@link #getRowList()},  in original order
+     *      the position lets the caller record which rows of the index have been matched
+     * @param key           join key
+     * @param action        accept the element and its position
+     */
+    public void forEachMatch(V key, ObjIntConsumer<K> action){
+        int[] positions = positionMap.get(key);
+        if (positions == null){
+            return;
+        }
+        for (int position : positions) {
+            action.accept(rowList.get(position), position);
+        }
+    }
+
+    /**
+     * get the first element of the key
+     * @param key           join key
+     * @return              null if not exists
+     */
+    public K getFirst(V key){
+        List<K> list = indexMap.get(key);
+        return list == null ? null : list.get(0);
+    }
+
+    /**
+     * whether the key exists
+     * @param key           join key
+     */
+    public boolean containsKey(V key){
+        return indexMap.containsKey(key);
+    }
+
+    /**
+     * all keys of the index
+     */
+    public Set<V> keySet(){
+        return Collections.unmodifiableSet(indexMap.keySet());
+    }
+
+    /**
+     * all element in original order
+     */
+    public List<K> getRowList() {
+        return rowList;
+    }
+
+    public Function<K, V> getKeyFunction() {
+        return keyFunction;
+    }
+
+    public int size(){
+        return rowList.size();
+    }
+}
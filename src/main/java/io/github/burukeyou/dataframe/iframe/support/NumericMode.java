@@ -0,0 +1,21 @@
+package io.github.burukeyou.dataframe.iframe.support;
+
+/**
+ * Numeric mode of summation and average
+ *      used by sum/avg of frame,  group aggregates and the window overSum/overAvg
+ *
+ * @author  caizhihao
+ */
+public enum NumericMode {
+
+    /**
+     * every value is accumulated as BigDecimal,  exact for all number types
+     */
+    BIG_DECIMAL,
+
+    /**
+     * integral value is accumulated as long and floating value as double with compensated (Kahan-Babuska) summation,
+     * BigDecimal is only created for the final result.  floating result may differ from BIG_DECIMAL in the last digits
+     */
+    PRIMITIVE
+}
@@ -61,7 +61,7 @@ public enum OverEnum {
     /**
      * Bucket number of current row within its partition.
      */
-   // NTILE,
+    NTILE,
 
 
     SUM,
@@ -74,6 +74,23 @@ public enum OverEnum {
 
     COUNT,
 
+    /**
+     * Percentile of window frame,  exact for every frame
+     */
+    PERCENTILE,
+    /**
+     * Median of window frame
+     */
+    MEDIAN,
+    /**
+     * Number of distinct values of window frame
+     */
+    COUNT_DISTINCT,
+    /**
+     * Most frequent value of window frame
+     */
+    MODE,
+
     /**
      *
      */
@@ -119,6 +119,17 @@ public interface Window<T>  {
         return new WindowBuilder<>(Range.BEFORE(before), Range.AFTER(after));
     }
 
+    /**
+     * open a RANGE window by the sort value,  the window of the current row contains the rows whose value is within the boundaries,
+     *      such as rangeBetweenBy(Order::getTs, Range.BEFORE_VALUE(Duration.ofMinutes(30)), Range.CURRENT_VALUE)
+     * @param valueField            sort value,  the window is sorted ascending by it if no sort is specified
+     * @param start                 START_ROW or value boundary such as Range.BEFORE_VALUE(n)
+     * @param end                   END_ROW or value boundary such as Range.AFTER_VALUE(n)
+     */
+    static <T,U extends Number> Window<T> rangeBetweenBy(Function<T,U> valueField, WindowRange start, WindowRange end){
+        return new WindowBuilder<T>().rangeBetween(valueField, start, end);
+    }
+
     /**
      * Sort windows in ascending order according to specified fields
      * @param sortField                 sort field
@@ -145,6 +156,16 @@ public interface Window<T>  {
     Window<T> roundBetween(WindowRange start, WindowRange end);
 
 
+    /**
+     * Specify RANGE window by the sort value
+     *      the window of the current row contains the rows whose value is within [value + start offset, value + end offset],
+     *      the rows must be sorted ascending by the value,  and sum, avg, max, min, count are evaluated by two pointers in O(n)
+     * @param valueField            sort value,  null is not allowed.  the window is sorted ascending by it if no sort is specified
+     * @param start                 START_ROW or value boundary such as Range.BEFORE_VALUE(n)
+     * @param end                   END_ROW or value boundary such as Range.AFTER_VALUE(n)
+     */
+    <U extends Number> Window<T> rangeBetween(Function<T,U> valueField, WindowRange start, WindowRange end);
+
     /**
      * Specify window range
      *      this range is form the first n lines of the current row to the current row
@@ -205,4 +226,9 @@ public interface Window<T>  {
      * get window end range
      */
     WindowRange getEndRange();
+
+    /**
+     * get the sort value of RANGE window,  null for ROWS window
+     */
+    Function<T, ? extends Number> getRangeValueField();
 }
@@ -1,6 +1,7 @@
 package io.github.burukeyou.dataframe.iframe.window;
 
 import io.github.burukeyou.dataframe.iframe.window.round.Range;
+import io.github.burukeyou.dataframe.iframe.window.round.ValueRange;
 import io.github.burukeyou.dataframe.iframe.window.round.WindowRange;
 
 import java.util.Comparator;
@@ -20,6 +21,11 @@ public class WindowBuilder<T>  implements Window<T> {
 
     private WindowRange endRange;
 
+    /**
+     * RANGE窗口的排序值, 为null时为ROWS窗口
+     */
+    private Function<T, ? extends Number> rangeValueField;
+
     public WindowBuilder() {
     }
 
@@ -59,6 +65,11 @@ public class WindowBuilder<T>  implements Window<T> {
         return endRange;
     }
 
+    @Override
+    public Function<T, ? extends Number> getRangeValueField() {
+        return rangeValueField;
+    }
+
     public List<Function<T, ?>> partitions() {
         return groupBy;
     }
@@ -108,11 +119,44 @@ public class WindowBuilder<T>  implements Window<T> {
             throw new IllegalArgumentException("The ending boundary param cannot be set to BEFORE_ROW");
         }
 
+        if (start instanceof ValueRange || end instanceof ValueRange){
+            throw new IllegalArgumentException("The value boundary param should be specified by rangeBetween");
+        }
+
+        start.check();
+        end.check();
+
+        this.startRange = start;
+        this.endRange = end;
+        this.rangeValueField = null;
+        return this;
+    }
+
+    @Override
+    public <U extends Number> Window<T> rangeBetween(Function<T, U> valueField, WindowRange start, WindowRange end) {
+        if (valueField == null){
+            throw new IllegalArgumentException("The range value field cannot be null");
+        }
+        if (!(start instanceof ValueRange) && !Range.START_ROW.eq(start)){
+            throw new IllegalArgumentException("The starting boundary param of range window must be START_ROW or value boundary");
+        }
+        if (!(end instanceof ValueRange) && !Range.END_ROW.eq(end)){
+            throw new IllegalArgumentException("The ending boundary param of range window must be END_ROW or value boundary");
+        }
+        if (start instanceof ValueRange && end instanceof ValueRange
+                && ((ValueRange) start).getOffset() > ((ValueRange) end).getOffset()){
+            throw new IllegalArgumentException("The starting boundary param cannot be after the ending boundary param");
+        }
+
         start.check();
         end.check();
 
         this.startRange = start;
         this.endRange = end;
+        this.rangeValueField = valueField;
+        if (sorter == null){
+            this.sorter = Sorter.toSorter(Comparator.comparingDouble(e -> ValueRange.toValue(valueField.apply(e))));
+        }
         return this;
     }
 
@@ -0,0 +1,199 @@
+package io.github.burukeyou.dataframe.iframe.window;
+
+import io.github.burukeyou.dataframe.iframe.function.SetFunction;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Window function of window plan
+ *      all functions of one plan share one partition and sort pass,  the result of each row is set by the setFunction
+ *
+ * @author          caizhihao
+ * @param <T>       element type
+ */
+public interface WindowFunction<T> {
+
+    /**
+     * rowNumber window function
+     * @param setFunction            function result accept
+     */
+    static <T> WindowFunction<T> rowNumber(SetFunction<T,Integer> setFunction){
+        return new WindowFunctionImpl<>(OverEnum.ROW_NUMBER, setFunction);
+    }
+
+    /**
+     * rank window function
+     * @param setFunction            function result accept
+     */
+    static <T> WindowFunction<T> rank(SetFunction<T,Integer> setFunction){
+        return new WindowFunctionImpl<>(OverEnum.RANK, setFunction);
+    }
+
+    /**
+     * denseRank window function
+     * @param setFunction            function result accept
+     */
+    static <T> WindowFunction<T> denseRank(SetFunction<T,Integer> setFunction){
+        return new WindowFunctionImpl<>(OverEnum.DENSE_RANK, setFunction);
+    }
+
+    /**
+     * percentRank window function,  (rank-1) / (rows-1)
+     * @param setFunction            function result accept
+     */
+    static <T> WindowFunction<T> percentRank(SetFunction<T,BigDecimal> setFunction){
+        return new WindowFunctionImpl<>(OverEnum.PERCENT_RANK, setFunction);
+    }
+
+    /**
+     * cumeDist window function
+     * @param setFunction            function result accept
+     */
+    static <T> WindowFunction<T> cumeDist(SetFunction<T,BigDecimal> setFunction){
+        return new WindowFunctionImpl<>(OverEnum.CUME_DIST, setFunction);
+    }
+
+    /**
+     * lag window function,  the value of the first n rows before the current row
+     * @param setFunction            function result accept
+     * @param field                  field value
+     * @param n                      the first n rows
+     */
+    static <T,F> WindowFunction<T> lag(SetFunction<T,F> setFunction, Function<T,F> field, int n){
+        return new WindowFunctionImpl<>(OverEnum.LAG, setFunction, field, n);
+    }
+
+    /**
+     * lead window function,  the value of the last n rows after the current row
+     * @param setFunction            function result accept
+     * @param field                  field value
+     * @param n                      the last n rows
+     */
+    static <T,F> WindowFunction<T> lead(SetFunction<T,F> setFunction, Function<T,F> field, int n){
+        return new WindowFunctionImpl<>(OverEnum.LEAD, setFunction, field, n);
+    }
+
+    /**
+     * nthValue window function,  the value of the nth row within the window range
+     * @param setFunction            function result accept
+     * @param field                  field value
+     * @param n                      the nth row
+     */
+    static <T,F> WindowFunction<T> nthValue(SetFunction<T,F> setFunction, Function<T,F> field, int n){
+        return new WindowFunctionImpl<>(OverEnum.NTH_VALUE, setFunction, field, n);
+    }
+
+    /**
+     * firstValue window function,  the value of the first row within the window range
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F> WindowFunction<T> firstValue(SetFunction<T,F> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.FIRST_VALUE, setFunction, field, 1);
+    }
+
+    /**
+     * lastValue window function,  the value of the last row within the window range
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F> WindowFunction<T> lastValue(SetFunction<T,F> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.LAST_VALUE, setFunction, field, -1);
+    }
+
+    /**
+     * sum window function
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F> WindowFunction<T> sum(SetFunction<T,BigDecimal> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.SUM, setFunction, field, 0);
+    }
+
+    /**
+     * avg window function
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F> WindowFunction<T> avg(SetFunction<T,BigDecimal> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.AVG, setFunction, field, 0);
+    }
+
+    /**
+     * maxValue window function
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F extends Comparable<? super F>> WindowFunction<T> maxValue(SetFunction<T,F> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.MAX, setFunction, field, 0);
+    }
+
+    /**
+     * minValue window function
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F extends Comparable<? super F>> WindowFunction<T> minValue(SetFunction<T,F> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.MIN, setFunction, field, 0);
+    }
+
+    /**
+     * count window function
+     * @param setFunction            function result accept
+     */
+    static <T> WindowFunction<T> count(SetFunction<T,Integer> setFunction){
+        return new WindowFunctionImpl<>(OverEnum.COUNT, setFunction);
+    }
+
+    /**
+     * percentile window function,  exact for every frame
+     * @param setFunction            function result accept
+     * @param field                  field value
+     * @param q                      quantile between 0 and 1
+     */
+    static <T,F extends Number> WindowFunction<T> percentile(SetFunction<T,BigDecimal> setFunction, Function<T,F> field, double q){
+        return new WindowFunctionImpl<>(OverEnum.PERCENTILE, setFunction, field, 0, q);
+    }
+
+    /**
+     * median window function,  maintained incrementally as the window slides
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F extends Number> WindowFunction<T> median(SetFunction<T,BigDecimal> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.MEDIAN, setFunction, field, 0);
+    }
+
+    /**
+     * countDistinct window function,  maintained incrementally as the window slides
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F> WindowFunction<T> countDistinct(SetFunction<T,Integer> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.COUNT_DISTINCT, setFunction, field, 0);
+    }
+
+    /**
+     * mode window function,  the smallest value wins on tie
+     * @param setFunction            function result accept
+     * @param field                  field value
+     */
+    static <T,F extends Comparable<? super F>> WindowFunction<T> mode(SetFunction<T,F> setFunction, Function<T,F> field){
+        return new WindowFunctionImpl<>(OverEnum.MODE, setFunction, field, 0);
+    }
+
+    /**
+     * ntile window function
+     * @param setFunction            function result accept
+     * @param n                      size of buckets
+     */
+    static <T> WindowFunction<T> ntile(SetFunction<T,Integer> setFunction, int n){
+        return new WindowFunctionImpl<>(OverEnum.NTILE, setFunction, null, n);
+    }
+
+    /**
+     * get window function type
+     */
+    OverEnum getType();
+}
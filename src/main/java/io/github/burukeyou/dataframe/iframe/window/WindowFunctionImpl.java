@@ -0,0 +1,76 @@
+package io.github.burukeyou.dataframe.iframe.window;
+
+import io.github.burukeyou.dataframe.iframe.function.SetFunction;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * @author          caizhihao
+ * @param <T>       element type
+ * @param <V>       function result type
+ */
+public final class WindowFunctionImpl<T,V> implements WindowFunction<T> {
+
+    private final OverEnum type;
+
+    private final SetFunction<T,V> setFunction;
+
+    private final Function<T,?> field;
+
+    /**
+     * lag、lead、nthValue的行数, ntile的桶数
+     */
+    private final int n;
+
+    /**
+     * percentile的分位
+     */
+    private final double q;
+
+    WindowFunctionImpl(OverEnum type, SetFunction<T, V> setFunction) {
+        this(type, setFunction, null, 0);
+    }
+
+    WindowFunctionImpl(OverEnum type, SetFunction<T, V> setFunction, Function<T, ?> field, int n) {
+        this(type, setFunction, field, n, 0);
+    }
+
+    WindowFunctionImpl(OverEnum type, SetFunction<T, V> setFunction, Function<T, ?> field, int n, double q) {
+        this.type = type;
+        this.setFunction = Objects.requireNonNull(setFunction, "setFunction can not be null");
+        this.field = field;
+        this.n = n;
+        this.q = q;
+    }
+
+    @Override
+    public OverEnum getType() {
+        return type;
+    }
+
+    public Function<T, ?> getField() {
+        return field;
+    }
+
+    public int getN() {
+        return n;
+    }
+
+    public double getQ() {
+        return q;
+    }
+
+    /**
+     * set the function result of the row
+     */
+    @SuppressWarnings("unchecked")
+    public void accept(T row, Object value) {
+        setFunction.accept(row, (V) value);
+    }
+
+    @Override
+    public String toString() {
+        return type.name().toLowerCase();
+    }
+}
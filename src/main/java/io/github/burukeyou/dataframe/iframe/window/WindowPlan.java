@@ -0,0 +1,24 @@
+package io.github.burukeyou.dataframe.iframe.window;
+
+/**
+ * Multi-function window plan
+ *      the data is partitioned and sorted once,  then every window function is evaluated over the same ordered partitions
+ *
+ * @author          caizhihao
+ * @param <T>       element type
+ * @param <R>       frame type of the result
+ */
+public interface WindowPlan<T,R> {
+
+    /**
+     * add a window function into the plan,  chain the calls to add more
+     * @param function          window function,  see {@link WindowFunction}
+     */
+    WindowPlan<T,R> compute(WindowFunction<T> function);
+
+    /**
+     * evaluate all window functions and set the results into the rows
+     * @return          frame of the rows in the window order,  same as the overXxxS functions
+     */
+    R execute();
+}
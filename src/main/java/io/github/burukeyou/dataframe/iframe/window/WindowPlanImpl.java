@@ -0,0 +1,42 @@
+package io.github.burukeyou.dataframe.iframe.window;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * @author          caizhihao
+ * @param <T>       element type
+ * @param <R>       frame type of the result
+ */
+public final class WindowPlanImpl<T,R> implements WindowPlan<T,R> {
+
+    private final List<WindowFunction<T>> functionList = new ArrayList<>();
+
+    /**
+     * 由窗口frame提供, 一次分区排序计算全部窗口函数
+     */
+    private final Function<List<WindowFunction<T>>, R> executor;
+
+    public WindowPlanImpl(Function<List<WindowFunction<T>>, R> executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public WindowPlan<T, R> compute(WindowFunction<T> function) {
+        if (function == null) {
+            throw new IllegalArgumentException("window function can not be null");
+        }
+        functionList.add(function);
+        return this;
+    }
+
+    @Override
+    public R execute() {
+        if (functionList.isEmpty()) {
+            throw new IllegalArgumentException("window function can not be empty");
+        }
+        return executor.apply(Collections.unmodifiableList(new ArrayList<>(functionList)));
+    }
+}
@@ -17,6 +17,10 @@ public class BeforeRange implements WindowRange {
         this.n = n;
     }
 
+    public int getN() {
+        return n;
+    }
+
     @Override
     public void check() {
        if (n < 0){
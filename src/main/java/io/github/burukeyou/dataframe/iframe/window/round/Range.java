@@ -1,5 +1,7 @@
 package io.github.burukeyou.dataframe.iframe.window.round;
 
+import java.time.Duration;
+
 /**
  * WindowRange Builder
  *
@@ -50,4 +52,45 @@ public class Range {
         return new AfterRange(n);
     }
 
+    /**
+     *  The current sort value of RANGE window,  the rows with the same sort value as the current row
+     */
+    public static final WindowRange CURRENT_VALUE = new ValueRange(0);
+
+    /**
+     *  The sort value of the current row minus n,  used by RANGE window
+     */
+    public static WindowRange BEFORE_VALUE(Number n){
+        return new ValueRange(-checkValueOffset(n));
+    }
+
+    /**
+     *  The sort value of the current row plus n,  used by RANGE window
+     */
+    public static WindowRange AFTER_VALUE(Number n){
+        return new ValueRange(checkValueOffset(n));
+    }
+
+    /**
+     *  The sort value of the current row minus the duration,  the sort value must be epoch milliseconds
+     */
+    public static WindowRange BEFORE_VALUE(Duration duration){
+        return BEFORE_VALUE(duration.toMillis());
+    }
+
+    /**
+     *  The sort value of the current row plus the duration,  the sort value must be epoch milliseconds
+     */
+    public static WindowRange AFTER_VALUE(Duration duration){
+        return AFTER_VALUE(duration.toMillis());
+    }
+
+    private static double checkValueOffset(Number n){
+        double offset = ValueRange.toValue(n);
+        if (offset < 0){
+            throw new IllegalArgumentException("Boundary parameter values cannot be negative");
+        }
+        return offset;
+    }
+
 }
@@ -0,0 +1,53 @@
+package io.github.burukeyou.dataframe.iframe.window.round;
+
+import java.util.List;
+
+/**
+ * Value based boundary of RANGE window
+ *      the boundary is the sort value of the current row plus the offset,  not a row offset,
+ *      so it can only be used by {@link io.github.burukeyou.dataframe.iframe.window.Window#rangeBetween}
+ *
+ * @author caizhihao
+ */
+public class ValueRange implements WindowRange {
+
+    /**
+     * 相对当前行排序值的偏移, 负数为之前, 正数为之后
+     */
+    protected final double offset;
+
+    public ValueRange(double offset) {
+        this.offset = offset;
+    }
+
+    public double getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void check() {
+        if (Double.isNaN(offset) || Double.isInfinite(offset)){
+            throw new IllegalArgumentException("Boundary parameter value must be finite but was " + offset);
+        }
+    }
+
+    @Override
+    public <T> Integer getStartIndex(Integer currentRowIndex, List<T> windowList) {
+        throw new IllegalStateException("value range must be specified by rangeBetween");
+    }
+
+    @Override
+    public <T> Integer getEndIndex(Integer currentRowIndex, List<T> windowList) {
+        throw new IllegalStateException("value range must be specified by rangeBetween");
+    }
+
+    /**
+     * the range value of row,  null is not allowed
+     */
+    public static double toValue(Number value) {
+        if (value == null){
+            throw new IllegalArgumentException("range value of window can not be null");
+        }
+        return value.doubleValue();
+    }
+}
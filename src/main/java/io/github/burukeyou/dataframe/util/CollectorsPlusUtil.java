@@ -2,9 +2,11 @@ package io.github.burukeyou.dataframe.util;
 
 import io.github.burukeyou.dataframe.iframe.function.BigDecimalFunction;
 import io.github.burukeyou.dataframe.iframe.function.NumberFunction;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.math.RoundingMode;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
@@ -77,16 +79,80 @@ public class CollectorsPlusUtil {
 		return summingBigDecimal(mapper);
 	}
 
-	private static <T, R extends Number> BigDecimalFunction<? super T> getBigDecimalFunction(NumberFunction<T, R> numberFunction) {
+	public static <T, R extends Number> BigDecimalFunction<? super T> getBigDecimalFunction(NumberFunction<T, R> numberFunction) {
 		return (e) -> {
 			Number apply = numberFunction.apply(e);
 			if (apply == null){
 				return null;
 			}
-			return apply instanceof BigDecimal ? (BigDecimal)apply : new BigDecimal(apply.toString());
+			return MathUtils.toBigDecimal(apply);
 		};
 	}
 
+	/**
+	 * summation by numeric mode,  ignore null value and return null if no value
+	 */
+	public static <T,R extends Number> Collector<T, ?, BigDecimal> summingNumber(NumberFunction<T,R> numberFunction, NumericMode mode) {
+		return new CollectorImpl<>(() -> new NumberAccumulator(mode),
+				(a, t) -> a.add(numberFunction.apply(t)),
+				(a, b) -> {
+					a.merge(b);
+					return a;
+				}, NumberAccumulator::getSum, CH_NOID);
+	}
+
+	/**
+	 * average by numeric mode,  ignore null value and return null if no value
+	 */
+	public static <T,R extends Number> Collector<T, ?, BigDecimal> averagingNumber(NumberFunction<T,R> numberFunction, NumericMode mode,
+																				   int newScale, RoundingMode roundingMode) {
+		return new CollectorImpl<>(() -> new NumberAccumulator(mode),
+				(a, t) -> a.add(numberFunction.apply(t)),
+				(a, b) -> {
+					a.merge(b);
+					return a;
+				}, a -> a.getAvg(newScale, roundingMode), CH_NOID);
+	}
+
+	/**
+	 * approximate percentile by t-digest,  ignore null value and the element is null if no value
+	 * @param qs			quantiles between 0 and 1,  the result is in the same order
+	 * @param compression	compression of t-digest
+	 */
+	public static <T,R extends Number> Collector<T, ?, List<BigDecimal>> percentile(NumberFunction<T,R> numberFunction, double[] qs, double compression,
+																				  int newScale, RoundingMode roundingMode) {
+		TDigest.checkCompression(compression);
+		if (qs == null || qs.length == 0) {
+			throw new IllegalArgumentException("quantile can not be empty");
+		}
+		double[] quantiles = qs.clone();
+		for (double q : quantiles) {
+			TDigest.checkQuantile(q);
+		}
+		return new CollectorImpl<T, TDigest, List<BigDecimal>>(() -> new TDigest(compression),
+				(a, t) -> a.add(t == null ? null : numberFunction.apply(t)),
+				TDigest::merge,
+				a -> {
+					List<BigDecimal> result = new ArrayList<>(quantiles.length);
+					for (double q : quantiles) {
+						result.add(a.quantile(q, newScale, roundingMode));
+					}
+					return result;
+				}, CH_NOID);
+	}
+
+	/**
+	 * top n rows by rank semantics with a bounded heap,  the tied rows of the last ranking are all kept
+	 * @param comparator	the ranking comparator
+	 * @param n				the top n
+	 */
+	public static <T> Collector<T, ?, List<T>> topN(Comparator<? super T> comparator, int n) {
+		return new CollectorImpl<T, TopN<T>, List<T>>(() -> new TopN<>(comparator, n),
+				TopN::add,
+				TopN::merge,
+				TopN::toList, CH_NOID);
+	}
+
 	public static <T> Collector<T, ?, BigDecimal> summingBigDecimal(BigDecimalFunction<? super T> mapper) {
 		return new CollectorImpl<>(() -> new BigDecimal[1], (a, t) -> {
 			if (a[0] == null) {
@@ -94,12 +160,25 @@ public class CollectorsPlusUtil {
 			}
 			a[0] = a[0].add(mapper.applyAsBigDecimal(t));
 		}, (a, b) -> {
-			a[0] = a[0].add(b[0]);
+			if (b[0] != null) {
+				a[0] = a[0] == null ? b[0] : a[0].add(b[0]);
+			}
 			return a;
 		}, a -> a[0], CH_NOID);
 	}
 
 
+	/**
+	 * approximate distinct count by HyperLogLog,  ignore null value
+	 */
+	public static <T> Collector<T, ?, Long> approxCountDistinct(Function<? super T, ?> mapper, int precision) {
+		HyperLogLog.checkPrecision(precision);
+		return new CollectorImpl<T, HyperLogLog, Long>(() -> new HyperLogLog(precision),
+				(a, t) -> a.add(t == null ? null : mapper.apply(t)),
+				HyperLogLog::merge,
+				HyperLogLog::cardinality, CH_NOID);
+	}
+
 	public static List<Map.Entry<String, BigDecimal>> sortByValueAndReverse(List<Map.Entry<String, BigDecimal>> unorderedList) {
 		Collections.sort(unorderedList, new Comparator<Map.Entry<String, BigDecimal>>() {
 		@Override
@@ -175,6 +254,7 @@ public class CollectorsPlusUtil {
 				},
 				(a, b) -> {
 					a[0] = a[0].add(b[0]);
+					a[1] = a[1].add(b[1]);
 					return a;
 				},
 				a -> a[0].divide(a[1], MathContext.DECIMAL32).setScale(newScale, roundingMode), CH_NOID);
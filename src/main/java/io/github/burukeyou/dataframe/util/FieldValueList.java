@@ -22,4 +22,8 @@ public class FieldValueList<T,F> {
         }
         return field.apply(data.get(index));
     }
+
+    public F get(int index){
+        return field.apply(data.get(index));
+    }
 }
@@ -0,0 +1,145 @@
+package io.github.burukeyou.dataframe.util;
+
+/**
+ * HyperLogLog sketch for approximate distinct count
+ *      memory is 2^precision bytes and the standard error is about 1.04 / sqrt(2^precision),
+ *      small cardinality is corrected by linear counting.  sketches with the same precision can be merged
+ *
+ * @author caizhihao
+ */
+public final class HyperLogLog {
+
+    public static final int MIN_PRECISION = 4;
+
+    public static final int MAX_PRECISION = 18;
+
+    /**
+     * 16KB,  standard error about 0.81%
+     */
+    public static final int DEFAULT_PRECISION = 14;
+
+    private final int precision;
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        this.precision = checkPrecision(precision);
+        this.registers = new byte[1 << precision];
+    }
+
+    public static int checkPrecision(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision should be between " + MIN_PRECISION + " and " + MAX_PRECISION + " but was " + precision);
+        }
+        return precision;
+    }
+
+    /**
+     * add value,  null is ignored
+     */
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        addHash(hash64(value));
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // 低位补1保证前导0个数不超过 64 - precision
+        long w = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(w) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * merge other sketch into this
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("can not merge HyperLogLog with different precision " + precision + " and " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * estimated distinct count
+     */
+    public long cardinality() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * 64位哈希, 数值和字符串使用完整的值计算, 其他对象使用hashCode
+     */
+    static long hash64(Object value) {
+        long h;
+        if (value instanceof String) {
+            String str = (String) value;
+            h = 0xcbf29ce484222325L;
+            for (int i = 0; i < str.length(); i++) {
+                h = (h ^ str.charAt(i)) * 0x100000001b3L;
+            }
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            h = ((Number) value).longValue();
+        } else if (value instanceof Double) {
+            h = Double.doubleToLongBits((Double) value);
+        } else {
+            h = value.hashCode();
+        }
+        return fmix64(h);
+    }
+
+    /**
+     * murmur3 finalizer
+     */
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
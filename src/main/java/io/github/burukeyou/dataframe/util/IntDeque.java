@@ -0,0 +1,98 @@
+package io.github.burukeyou.dataframe.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Double ended queue of primitive int backed by a growable ring array,  used as the monotonic index queue of sliding window
+ *
+ * @author caizhihao
+ */
+public final class IntDeque {
+
+    private int[] elements;
+
+    private int head;
+
+    private int size;
+
+    public IntDeque() {
+        this(16);
+    }
+
+    public IntDeque(int capacity) {
+        this.elements = new int[Math.max(capacity, 4)];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void addLast(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) % elements.length] = value;
+        size++;
+    }
+
+    public int peekFirst() {
+        checkNotEmpty();
+        return elements[head];
+    }
+
+    public int peekLast() {
+        checkNotEmpty();
+        return elements[(head + size - 1) % elements.length];
+    }
+
+    public int removeFirst() {
+        checkNotEmpty();
+        int value = elements[head];
+        head = (head + 1) % elements.length;
+        size--;
+        return value;
+    }
+
+    public int removeLast() {
+        checkNotEmpty();
+        size--;
+        return elements[(head + size) % elements.length];
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("deque is empty");
+        }
+    }
+
+    /**
+     * 扩容时把环形数组展开到新数组的开头
+     */
+    private void grow() {
+        int[] newElements = new int[elements.length * 2];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, newElements, 0, firstPart);
+        System.arraycopy(elements, 0, newElements, firstPart, size - firstPart);
+        elements = newElements;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = elements[(head + i) % elements.length];
+        }
+        return Arrays.toString(values);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.burukeyou.dataframe.util;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.util.List;
 import java.util.Objects;
@@ -100,8 +101,17 @@ public class MathUtils {
             return (BigDecimal)value;
         }
 
-        if (value instanceof Integer){
-            return new BigDecimal((Integer)value);
+        // 整数和浮点数直接转换, 避免先转成字符串
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte){
+            return BigDecimal.valueOf(((Number)value).longValue());
+        }
+
+        if (value instanceof Double){
+            return BigDecimal.valueOf((Double)value);
+        }
+
+        if (value instanceof BigInteger){
+            return new BigDecimal((BigInteger)value);
         }
 
         return new BigDecimal(String.valueOf(value));
@@ -0,0 +1,74 @@
+package io.github.burukeyou.dataframe.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable composite key of multi group fields
+ *      used as a flat hash key instead of nested maps,  equals and hashCode follow the List contract
+ *      null field value is allowed
+ *
+ * @author caizhihao
+ */
+public final class MultiKey extends AbstractList<Object> implements RandomAccess {
+
+    private final Object[] keys;
+
+    private final int hash;
+
+    public MultiKey(Object... keys) {
+        this.keys = keys == null ? new Object[]{null} : keys;
+        this.hash = Arrays.hashCode(this.keys);
+    }
+
+    public static MultiKey of(Object key1, Object key2) {
+        return new MultiKey(key1, key2);
+    }
+
+    public static MultiKey of(Object key1, Object key2, Object key3) {
+        return new MultiKey(key1, key2, key3);
+    }
+
+    @Override
+    public Object get(int index) {
+        PartitionList.checkElementIndex(index, keys.length, "index");
+        return keys[index];
+    }
+
+    /**
+     * get the field value with the type of caller
+     * @param index         field index
+     */
+    @SuppressWarnings("unchecked")
+    public <E> E getKey(int index) {
+        return (E) get(index);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof MultiKey) {
+            MultiKey other = (MultiKey) o;
+            return hash == other.hash && Arrays.equals(keys, other.keys);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return keys.clone();
+    }
+}
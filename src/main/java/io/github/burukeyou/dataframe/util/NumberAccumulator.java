@@ -0,0 +1,175 @@
+package io.github.burukeyou.dataframe.util;
+
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mutable accumulator of summation and average
+ *      integral value is always summed in a long (spilled into BigDecimal on overflow),
+ *      floating value is summed with Kahan-Babuska (Neumaier) compensated summation in PRIMITIVE mode,  otherwise as BigDecimal
+ *
+ * @author caizhihao
+ */
+public final class NumberAccumulator {
+
+    private final boolean primitive;
+
+    private long longSum;
+
+    private boolean hasLong;
+
+    private double doubleSum;
+
+    /**
+     * 累加丢失的低位, 结果为 doubleSum + doubleCompensation
+     */
+    private double doubleCompensation;
+
+    private boolean hasDouble;
+
+    private BigDecimal decimalSum;
+
+    private long count;
+
+    public NumberAccumulator(NumericMode mode) {
+        this.primitive = mode == NumericMode.PRIMITIVE;
+    }
+
+    /**
+     * add value,  null is ignored
+     */
+    public void add(Number value) {
+        if (value == null) {
+            return;
+        }
+        count++;
+        if (isIntegral(value)) {
+            addLong(value.longValue());
+        } else if (primitive && (value instanceof Double || value instanceof Float)) {
+            addDouble(value.doubleValue());
+        } else {
+            addDecimal(MathUtils.toBigDecimal(value));
+        }
+    }
+
+    /**
+     * remove the value added before,  null is ignored
+     *      floating value in PRIMITIVE mode is compensated,  so removing a large value keeps the small ones
+     */
+    public void retract(Number value) {
+        if (value == null) {
+            return;
+        }
+        count--;
+        if (isIntegral(value) && value.longValue() != Long.MIN_VALUE) {
+            addLong(-value.longValue());
+        } else if (primitive && (value instanceof Double || value instanceof Float)) {
+            addDouble(-value.doubleValue());
+        } else {
+            addDecimal(MathUtils.toBigDecimal(value).negate());
+        }
+    }
+
+    public void addLong(long value) {
+        long r = longSum + value;
+        // 溢出时把当前和转移到BigDecimal
+        if (((longSum ^ r) & (value ^ r)) < 0) {
+            addDecimal(BigDecimal.valueOf(longSum));
+            r = value;
+        }
+        longSum = r;
+        hasLong = true;
+    }
+
+    public void addDouble(double value) {
+        double t = doubleSum + value;
+        // 绝对值较小的一方在相加时丢失低位, 滑动窗口移除大数后补偿值仍然有效
+        if (Math.abs(doubleSum) >= Math.abs(value)) {
+            doubleCompensation += (doubleSum - t) + value;
+        } else {
+            doubleCompensation += (value - t) + doubleSum;
+        }
+        doubleSum = t;
+        hasDouble = true;
+    }
+
+    private void addDecimal(BigDecimal value) {
+        decimalSum = decimalSum == null ? value : decimalSum.add(value);
+    }
+
+    /**
+     * count value of primitive overload,  which has no null value
+     */
+    public void increment() {
+        count++;
+    }
+
+    /**
+     * merge other accumulator into this
+     */
+    public void merge(NumberAccumulator other) {
+        if (other.hasLong) {
+            addLong(other.longSum);
+        }
+        if (other.hasDouble) {
+            addDouble(other.doubleSum);
+            addDouble(other.doubleCompensation);
+        }
+        if (other.decimalSum != null) {
+            addDecimal(other.decimalSum);
+        }
+        count += other.count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getLongSum() {
+        return longSum;
+    }
+
+    /**
+     * @return      the compensated sum of floating value
+     */
+    public double getDoubleSum() {
+        return Double.isInfinite(doubleSum) ? doubleSum : doubleSum + doubleCompensation;
+    }
+
+    /**
+     * @return      the sum,  null if no value
+     */
+    public BigDecimal getSum() {
+        if (count == 0) {
+            return null;
+        }
+        BigDecimal sum = decimalSum;
+        if (hasLong) {
+            sum = sum == null ? BigDecimal.valueOf(longSum) : sum.add(BigDecimal.valueOf(longSum));
+        }
+        if (hasDouble) {
+            double doubleValue = getDoubleSum();
+            sum = sum == null ? BigDecimal.valueOf(doubleValue) : sum.add(BigDecimal.valueOf(doubleValue));
+        }
+        return sum == null ? BigDecimal.ZERO : sum;
+    }
+
+    /**
+     * @return      the average,  null if no value
+     */
+    public BigDecimal getAvg(int scale, RoundingMode roundingMode) {
+        if (count == 0) {
+            return null;
+        }
+        return getSum().divide(BigDecimal.valueOf(count), scale, roundingMode);
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong;
+    }
+}
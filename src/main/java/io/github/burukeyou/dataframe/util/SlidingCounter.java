@@ -0,0 +1,145 @@
+package io.github.burukeyou.dataframe.util;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Value counts of a sliding window,  answers the distinct count in O(1) and the mode in O(log w)
+ *      values are distinguished by equals/hashCode in both answers,  null value is ignored
+ *
+ * @author caizhihao
+ * @param <F>   value type
+ */
+public final class SlidingCounter<F> {
+
+    private final Map<F, Counted<F>> counts = new HashMap<>();
+
+    /**
+     * 出现次数 -> 该次数的值, 只在需要众数时维护
+     */
+    private final Map<Integer, TreeSet<Counted<F>>> buckets;
+
+    /**
+     * 桶内先按tieComparator排序, 比较相等但equals不同的值(如BigDecimal的1.0和1.00)再按首次进入窗口的顺序区分
+     */
+    private final Comparator<Counted<F>> bucketComparator;
+
+    private long nextId;
+
+    private int maxCount;
+
+    /**
+     * counter for distinct count only
+     */
+    public SlidingCounter() {
+        this.buckets = null;
+        this.bucketComparator = null;
+    }
+
+    /**
+     * counter also tracking the mode
+     * @param tieComparator     the smallest value by the comparator wins when several values have the max count,
+     *                          values comparing equal are ordered by the time they entered the window
+     */
+    public SlidingCounter(Comparator<? super F> tieComparator) {
+        if (tieComparator == null) {
+            throw new IllegalArgumentException("tieComparator can not be null");
+        }
+        this.buckets = new HashMap<>();
+        this.bucketComparator = Comparator.<Counted<F>, F>comparing(e -> e.value, tieComparator).thenComparingLong(e -> e.id);
+    }
+
+    public void add(F value) {
+        if (value == null) {
+            return;
+        }
+        Counted<F> counted = counts.get(value);
+        if (counted == null) {
+            counted = new Counted<>(value, nextId++);
+            counts.put(value, counted);
+        }
+        counted.count++;
+        if (buckets != null) {
+            moveBucket(counted, counted.count - 1);
+            maxCount = Math.max(maxCount, counted.count);
+        }
+    }
+
+    public void remove(F value) {
+        if (value == null) {
+            return;
+        }
+        Counted<F> counted = counts.get(value);
+        if (counted == null) {
+            return;
+        }
+        counted.count--;
+        if (counted.count == 0) {
+            counts.remove(value);
+        }
+        if (buckets != null) {
+            moveBucket(counted, counted.count + 1);
+            // 被移除的值现在是maxCount-1次, 所以最多下降1
+            if (counted.count + 1 == maxCount && !buckets.containsKey(maxCount)) {
+                maxCount--;
+            }
+        }
+    }
+
+    public void clear() {
+        counts.clear();
+        if (buckets != null) {
+            buckets.clear();
+        }
+        maxCount = 0;
+    }
+
+    /**
+     * @return  number of distinct non-null values in the window
+     */
+    public int distinctCount() {
+        return counts.size();
+    }
+
+    /**
+     * @return  the most frequent value in the window,  null for empty window
+     */
+    public F mode() {
+        if (buckets == null) {
+            throw new IllegalStateException("counter is not tracking the mode");
+        }
+        return maxCount == 0 ? null : buckets.get(maxCount).first().value;
+    }
+
+    /**
+     * 从旧次数的桶移到当前次数的桶, 移除时排序键(值和id)未变, 所以能准确找到
+     */
+    private void moveBucket(Counted<F> counted, int from) {
+        if (from > 0) {
+            TreeSet<Counted<F>> bucket = buckets.get(from);
+            bucket.remove(counted);
+            if (bucket.isEmpty()) {
+                buckets.remove(from);
+            }
+        }
+        if (counted.count > 0) {
+            buckets.computeIfAbsent(counted.count, k -> new TreeSet<>(bucketComparator)).add(counted);
+        }
+    }
+
+    private static final class Counted<F> {
+
+        private final F value;
+
+        private final long id;
+
+        private int count;
+
+        private Counted(F value, long id) {
+            this.value = value;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.burukeyou.dataframe.util;
+
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Exact quantile of a sliding window over a fixed value array,  add and remove cost O(log w)
+ *      the values up to the quantile rank and the rest are kept in two ordered index sets,  so duplicated values are removed exactly.
+ *      the quantile interpolates linearly between the closest ranks,  the same as the exact mode of {@link TDigest}
+ *
+ * @author caizhihao
+ */
+public final class SlidingQuantile {
+
+    private final double[] values;
+
+    private final double q;
+
+    /**
+     * 排名不超过floor(q * (size - 1))的值, 其余的在upper
+     */
+    private final TreeSet<Integer> lower;
+
+    private final TreeSet<Integer> upper;
+
+    /**
+     * @param values    value of each index
+     * @param q         quantile in [0,1],  0.5 is the median
+     */
+    public SlidingQuantile(double[] values, double q) {
+        this.values = values;
+        this.q = TDigest.checkQuantile(q);
+        // 值相同按下标区分, 保证每个下标都是集合里唯一的元素
+        Comparator<Integer> comparator = (a, b) -> {
+            int compare = Double.compare(values[a], values[b]);
+            return compare != 0 ? compare : Integer.compare(a, b);
+        };
+        this.lower = new TreeSet<>(comparator);
+        this.upper = new TreeSet<>(comparator);
+    }
+
+    public void add(int index) {
+        if (!upper.isEmpty() && upper.comparator().compare(index, upper.first()) > 0) {
+            upper.add(index);
+        } else {
+            lower.add(index);
+        }
+        rebalance();
+    }
+
+    public void remove(int index) {
+        if (!lower.remove(index)) {
+            upper.remove(index);
+        }
+        rebalance();
+    }
+
+    public void clear() {
+        lower.clear();
+        upper.clear();
+    }
+
+    public int size() {
+        return lower.size() + upper.size();
+    }
+
+    /**
+     * @return  quantile of the window,  NaN for empty window
+     */
+    public double quantile() {
+        if (lower.isEmpty()) {
+            return Double.NaN;
+        }
+        double rank = q * (size() - 1);
+        double y0 = values[lower.last()];
+        int x0 = lower.size() - 1;
+        if (upper.isEmpty() || rank <= x0) {
+            return y0;
+        }
+        double y1 = values[upper.first()];
+        return y0 == y1 ? y1 : y0 + (y1 - y0) * (rank - x0);
+    }
+
+    private void rebalance() {
+        int size = size();
+        int lowerSize = size == 0 ? 0 : (int) Math.floor(q * (size - 1)) + 1;
+        while (lower.size() > lowerSize) {
+            upper.add(lower.pollLast());
+        }
+        while (lower.size() < lowerSize) {
+            lower.add(upper.pollFirst());
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package io.github.burukeyou.dataframe.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for approximate quantile
+ *      values are buffered and merged into at most about compression centroids when the buffer is full,
+ *      centroids near the tails are kept small so p95/p99 are more accurate than the median.
+ *      as long as the digest has never been compressed (count not over the exact limit) the quantile is exact.
+ *      digests with the same compression can be merged
+ *
+ * @author caizhihao
+ */
+public final class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+
+    /**
+     * 已合并的质心, 按均值升序
+     */
+    private double[] means;
+
+    private double[] weights;
+
+    private int centroidCount;
+
+    /**
+     * 未合并的值
+     */
+    private double[] bufferMeans;
+
+    private double[] bufferWeights;
+
+    private int bufferCount;
+
+    private long count;
+
+    /**
+     * 从未压缩过时缓冲区即为全部原始值
+     */
+    private boolean exact = true;
+
+    /**
+     * 缓冲区已按均值升序, 精确模式下重复查询不再排序
+     */
+    private boolean bufferSorted = true;
+
+    private double min = Double.POSITIVE_INFINITY;
+
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression       larger is more accurate and uses more memory,  the exact limit is 5 * compression values
+     */
+    public TDigest(double compression) {
+        this.compression = checkCompression(compression);
+        int capacity = (int) Math.ceil(compression) * 2 + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        int bufferCapacity = (int) Math.ceil(compression) * 5;
+        this.bufferMeans = new double[bufferCapacity];
+        this.bufferWeights = new double[bufferCapacity];
+    }
+
+    public static double checkCompression(double compression) {
+        if (!(compression >= 10)) {
+            throw new IllegalArgumentException("compression should be at least 10 but was " + compression);
+        }
+        return compression;
+    }
+
+    public static double checkQuantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("quantile should be between 0 and 1 but was " + q);
+        }
+        return q;
+    }
+
+    /**
+     * add value,  null and NaN is ignored
+     */
+    public void add(Number value) {
+        if (value == null) {
+            return;
+        }
+        add(value.doubleValue());
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        addWeighted(value, 1);
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    private void addWeighted(double mean, double weight) {
+        if (bufferCount == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[bufferCount] = mean;
+        bufferWeights[bufferCount] = weight;
+        bufferCount++;
+        bufferSorted = false;
+    }
+
+    /**
+     * merge other digest into this
+     */
+    public TDigest merge(TDigest other) {
+        if (other.compression != compression) {
+            throw new IllegalArgumentException("can not merge TDigest with different compression " + compression + " and " + other.compression);
+        }
+        exact = exact && other.exact;
+        for (int i = 0; i < other.centroidCount; i++) {
+            addWeighted(other.means[i], other.weights[i]);
+        }
+        for (int i = 0; i < other.bufferCount; i++) {
+            addWeighted(other.bufferMeans[i], other.bufferWeights[i]);
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * merge buffer and centroids by the k1 scale function
+     */
+    private void compress() {
+        if (bufferCount == 0) {
+            return;
+        }
+        exact = false;
+        // 质心本身有序, 只排序缓冲区再归并
+        sortBuffer();
+        int n = centroidCount + bufferCount;
+        double[] allMeans = new double[n];
+        double[] allWeights = new double[n];
+        int c = 0;
+        int b = 0;
+        for (int i = 0; i < n; i++) {
+            if (b == bufferCount || (c < centroidCount && means[c] <= bufferMeans[b])) {
+                allMeans[i] = means[c];
+                allWeights[i] = weights[c++];
+            } else {
+                allMeans[i] = bufferMeans[b];
+                allWeights[i] = bufferWeights[b++];
+            }
+        }
+        bufferCount = 0;
+        bufferSorted = true;
+
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += allWeights[i];
+        }
+        int size = 0;
+        double curMean = allMeans[0];
+        double curWeight = allWeights[0];
+        double weightSoFar = 0;
+        double weightLimit = total * kInverse(k(0) + 1);
+        for (int i = 1; i < n; i++) {
+            if (weightSoFar + curWeight + allWeights[i] <= weightLimit) {
+                curWeight += allWeights[i];
+                curMean += (allMeans[i] - curMean) * allWeights[i] / curWeight;
+            } else {
+                size = appendCentroid(size, curMean, curWeight);
+                weightSoFar += curWeight;
+                weightLimit = total * kInverse(k(weightSoFar / total) + 1);
+                curMean = allMeans[i];
+                curWeight = allWeights[i];
+            }
+        }
+        centroidCount = appendCentroid(size, curMean, curWeight);
+    }
+
+    private int appendCentroid(int size, double mean, double weight) {
+        if (size == means.length) {
+            means = Arrays.copyOf(means, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        means[size] = mean;
+        weights[size] = weight;
+        return size + 1;
+    }
+
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private double kInverse(double k) {
+        if (k >= compression / 4) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    /**
+     * estimated quantile with linear interpolation between closest ranks,  NaN if no value
+     * @param q         between 0 and 1
+     */
+    public double quantile(double q) {
+        checkQuantile(q);
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (exact) {
+            return exactQuantile(q);
+        }
+        compress();
+        // 质心i的中心排名为之前的权重和 + (w - 1) / 2, 单值质心时即为精确排名
+        double rank = q * (count - 1);
+        double weightSoFar = 0;
+        double prevRank = 0;
+        double prevMean = min;
+        for (int i = 0; i < centroidCount; i++) {
+            double centerRank = weightSoFar + (weights[i] - 1) / 2;
+            if (rank <= centerRank) {
+                return interpolate(prevRank, prevMean, centerRank, means[i], rank);
+            }
+            weightSoFar += weights[i];
+            prevRank = centerRank;
+            prevMean = means[i];
+        }
+        return interpolate(prevRank, prevMean, count - 1, max, rank);
+    }
+
+    /**
+     * @return      the quantile as decimal,  null if no value
+     */
+    public BigDecimal quantile(double q, int scale, RoundingMode roundingMode) {
+        double value = quantile(q);
+        return Double.isNaN(value) ? null : BigDecimal.valueOf(value).setScale(scale, roundingMode);
+    }
+
+    /**
+     * 精确模式下缓冲区的权重都是1, 原地排序后按排名插值
+     */
+    private double exactQuantile(double q) {
+        sortBuffer();
+        double rank = q * (bufferCount - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = Math.min(lower + 1, bufferCount - 1);
+        return interpolate(lower, bufferMeans[lower], upper, bufferMeans[upper], rank);
+    }
+
+    private static double interpolate(double x0, double y0, double x1, double y1, double x) {
+        if (x1 <= x0 || y0 == y1) {
+            return y1;
+        }
+        return y0 + (y1 - y0) * (x - x0) / (x1 - x0);
+    }
+
+    /**
+     * @return      true if quantile is exact,  which means no value has been merged into centroid
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    /**
+     * 缓冲区按均值原地堆排序, 权重跟随移动
+     */
+    private void sortBuffer() {
+        if (bufferSorted) {
+            return;
+        }
+        for (int i = bufferCount / 2 - 1; i >= 0; i--) {
+            siftDown(i, bufferCount);
+        }
+        for (int end = bufferCount - 1; end > 0; end--) {
+            swapBuffer(0, end);
+            siftDown(0, end);
+        }
+        bufferSorted = true;
+    }
+
+    private void siftDown(int i, int size) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && bufferMeans[child + 1] > bufferMeans[child]) {
+                child++;
+            }
+            if (bufferMeans[i] >= bufferMeans[child]) {
+                return;
+            }
+            swapBuffer(i, child);
+            i = child;
+        }
+    }
+
+    private void swapBuffer(int i, int j) {
+        double mean = bufferMeans[i];
+        bufferMeans[i] = bufferMeans[j];
+        bufferMeans[j] = mean;
+        double weight = bufferWeights[i];
+        bufferWeights[i] = bufferWeights[j];
+        bufferWeights[j] = weight;
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.burukeyou.dataframe.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded top N by rank semantics
+ *      keep the rows whose rank is not greater than n,  the same value is considered to have the same ranking,
+ *      so more than n rows may be kept when the last ranking is tied.
+ *      a heap of size n is used so the cost is O(N log n) and memory is O(n + ties)
+ *
+ * @author caizhihao
+ * @param <T>   element type
+ */
+public final class TopN<T> {
+
+    private final Comparator<? super T> comparator;
+
+    private final int n;
+
+    /**
+     * 排名最靠后的在堆顶
+     */
+    private final PriorityQueue<Entry<T>> heap;
+
+    /**
+     * 与堆顶并列的被挤出的元素, 排名仍不超过n
+     */
+    private final List<Entry<T>> ties = new ArrayList<>();
+
+    private long seq;
+
+    public TopN(Comparator<? super T> comparator, int n) {
+        this.comparator = comparator;
+        this.n = n;
+        this.heap = new PriorityQueue<>(Math.max(n, 1), (a, b) -> comparator.compare(b.row, a.row));
+    }
+
+    public void add(T row) {
+        add(new Entry<>(row, seq++));
+    }
+
+    private void add(Entry<T> entry) {
+        if (n <= 0) {
+            return;
+        }
+        if (heap.size() < n) {
+            heap.add(entry);
+            return;
+        }
+        int c = comparator.compare(entry.row, heap.peek().row);
+        if (c > 0) {
+            return;
+        }
+        if (c == 0) {
+            ties.add(entry);
+            return;
+        }
+        Entry<T> evicted = heap.poll();
+        heap.add(entry);
+        if (comparator.compare(evicted.row, heap.peek().row) == 0) {
+            ties.add(evicted);
+        } else {
+            // 之前并列的元素前面已有n个更优的元素
+            ties.clear();
+        }
+    }
+
+    /**
+     * merge other into this,  the rows of other are considered to be after the rows of this
+     */
+    public TopN<T> merge(TopN<T> other) {
+        long offset = seq;
+        for (Entry<T> entry : other.heap) {
+            add(new Entry<>(entry.row, entry.seq + offset));
+        }
+        for (Entry<T> entry : other.ties) {
+            add(new Entry<>(entry.row, entry.seq + offset));
+        }
+        seq += other.seq;
+        return this;
+    }
+
+    /**
+     * @return      the kept rows sorted by the comparator,  the tied rows keep the adding order
+     */
+    public List<T> toList() {
+        List<Entry<T>> entries = new ArrayList<>(heap.size() + ties.size());
+        entries.addAll(heap);
+        entries.addAll(ties);
+        entries.sort((a, b) -> {
+            int c = comparator.compare(a.row, b.row);
+            return c != 0 ? c : Long.compare(a.seq, b.seq);
+        });
+        List<T> result = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            result.add(entry.row);
+        }
+        return result;
+    }
+
+    private static final class Entry<T> {
+        private final T row;
+        private final long seq;
+
+        private Entry(T row, long seq) {
+            this.row = row;
+            this.seq = seq;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.burukeyou.dataframe.util;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Flat partitions of window function
+ *      the composite partition key of each row is hashed once to get a partition id,  then the rows are placed into one array
+ *      ordered by (partition id, sort key) with a counting sort and a sort of each partition range.
+ *      partitions are in the order of the first appearance of their key,  and each partition is a range of the array
+ *
+ * @author caizhihao
+ * @param <T>   element type
+ */
+public final class WindowPartition<T> {
+
+    /**
+     * 按(分区, 排序key)重排后的数据
+     */
+    private final Object[] rows;
+
+    /**
+     * 第i个分区的下标范围为 [bounds[i], bounds[i+1])
+     */
+    private final int[] bounds;
+
+    private WindowPartition(Object[] rows, int[] bounds) {
+        this.rows = rows;
+        this.bounds = bounds;
+    }
+
+    /**
+     * partition and sort the rows,  the source list is not modified
+     * @param dataList          rows
+     * @param partitions        partition fields,  all rows are one partition if empty
+     * @param comparator        sort of each partition,  keep the original order if null
+     */
+    public static <T> WindowPartition<T> of(List<T> dataList, List<Function<T, ?>> partitions, Comparator<? super T> comparator) {
+        WindowPartition<T> partition = hash(dataList, partitions);
+        for (int i = 0; i < partition.partitionCount(); i++) {
+            partition.sortPartition(i, comparator);
+        }
+        return partition;
+    }
+
+    /**
+     * partition the rows without sort,  the rows of each partition keep the original order
+     * @param dataList          rows
+     * @param partitions        partition fields,  all rows are one partition if empty
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> WindowPartition<T> hash(List<T> dataList, List<Function<T, ?>> partitions) {
+        int n = dataList.size();
+        Object[] source = dataList.toArray();
+        Object[] rows;
+        int[] bounds;
+        if (ListUtils.isEmpty(partitions)) {
+            rows = source;
+            bounds = n == 0 ? new int[]{0} : new int[]{0, n};
+        } else {
+            // 一次哈希得到每行的分区id, 分区id按key第一次出现的顺序分配
+            int[] partitionIds = new int[n];
+            int[] counts = new int[16];
+            Map<Object, Integer> idMap = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                Integer id = idMap.computeIfAbsent(partitionKey(partitions, (T) source[i]), k -> idMap.size());
+                if (id == counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+                counts[id]++;
+                partitionIds[i] = id;
+            }
+            int partitionCount = idMap.size();
+            bounds = new int[partitionCount + 1];
+            for (int i = 0; i < partitionCount; i++) {
+                bounds[i + 1] = bounds[i] + counts[i];
+            }
+            // 计数排序, 分区内保持原始顺序
+            int[] cursor = Arrays.copyOf(bounds, partitionCount);
+            rows = new Object[n];
+            for (int i = 0; i < n; i++) {
+                rows[cursor[partitionIds[i]]++] = source[i];
+            }
+        }
+        return new WindowPartition<>(rows, bounds);
+    }
+
+    /**
+     * sort the rows of the partition in place,  different partitions can be sorted concurrently
+     * @param partition         partition index
+     * @param comparator        sort of the partition,  do nothing if null
+     */
+    @SuppressWarnings("unchecked")
+    public void sortPartition(int partition, Comparator<? super T> comparator) {
+        if (comparator != null) {
+            Arrays.sort((T[]) rows, bounds[partition], bounds[partition + 1], comparator);
+        }
+    }
+
+    private static <T> Object partitionKey(List<Function<T, ?>> partitions, T row) {
+        if (partitions.size() == 1) {
+            return partitions.get(0).apply(row);
+        }
+        Object[] values = new Object[partitions.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = partitions.get(i).apply(row);
+        }
+        return new MultiKey(values);
+    }
+
+    /**
+     * count of partitions
+     */
+    public int partitionCount() {
+        return bounds.length - 1;
+    }
+
+    /**
+     * start index (inclusive) of the partition in the ordered rows
+     */
+    public int start(int partition) {
+        return bounds[partition];
+    }
+
+    /**
+     * end index (exclusive) of the partition in the ordered rows
+     */
+    public int end(int partition) {
+        return bounds[partition + 1];
+    }
+
+    /**
+     * count of all rows
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * all rows ordered by (partition, sort key)
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> rows() {
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(rows));
+    }
+
+    /**
+     * rows of the partition,  a view of the ordered array without copy
+     */
+    public List<T> partition(int partition) {
+        return rows().subList(bounds[partition], bounds[partition + 1]);
+    }
+}
@@ -5,22 +5,33 @@ import io.github.burukeyou.data.UserInfo;
 import io.github.burukeyou.dataframe.iframe.JDFrame;
 import io.github.burukeyou.dataframe.iframe.SDFrame;
 import io.github.burukeyou.dataframe.iframe.function.CompareTwo;
+import io.github.burukeyou.dataframe.iframe.group.Agg;
 import io.github.burukeyou.dataframe.iframe.group.GroupConcat;
+import io.github.burukeyou.dataframe.iframe.group.IncrementalGroupBy;
+import io.github.burukeyou.dataframe.iframe.item.AggRow;
 import io.github.burukeyou.dataframe.iframe.item.FI2;
 import io.github.burukeyou.dataframe.iframe.item.FI3;
 import io.github.burukeyou.dataframe.iframe.item.FI4;
+import io.github.burukeyou.dataframe.iframe.item.GroupingRow;
+import io.github.burukeyou.dataframe.iframe.item.PivotTable;
+import io.github.burukeyou.dataframe.iframe.support.JoinIndex;
 import io.github.burukeyou.dataframe.iframe.support.JoinOn;
 import io.github.burukeyou.dataframe.iframe.support.MaxMin;
+import io.github.burukeyou.dataframe.iframe.support.NumericMode;
 import io.github.burukeyou.dataframe.iframe.window.Sorter;
 import io.github.burukeyou.dataframe.iframe.window.Window;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 public class JDFrameTest {
@@ -692,4 +703,624 @@ public class JDFrameTest {
                 .group2(Student::getSchool,Student::getAge).toLists();
     }
 
+    @Test
+    public void testJoinByKey(){
+        List<UserInfo> us1 = new ArrayList<>();
+        us1.add(new UserInfo("一中",1,"a"));
+        us1.add(new UserInfo("二中",2,"b"));
+        us1.add(new UserInfo("一中",3,"c"));
+        us1.add(new UserInfo("四中",4,"d"));
+        us1.add(null);
+
+        SDFrame<Student> sdf = SDFrame.read(studentList);
+        System.out.println("===== 按key内连接 ====");
+        List<String> hashJoin = sdf.join(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> a.getId() + "-" + b.getKey3()).toLists();
+        System.out.println(hashJoin);
+        List<String> loopJoin = sdf.join(SDFrame.read(us1), JoinOn.on(Student::getSchool, UserInfo::getKey1), (a, b) -> a.getId() + "-" + b.getKey3()).toLists();
+        Assert.assertEquals(loopJoin, hashJoin);
+
+        System.out.println("===== 按key左连接一次 ====");
+        List<String> leftJoinOnce = sdf.leftJoinOnce(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> a.getId() + "-" + (b == null ? null : b.getKey3())).toLists();
+        System.out.println(leftJoinOnce);
+        Assert.assertEquals(sdf.leftJoinOnce(SDFrame.read(us1), JoinOn.on(Student::getSchool, UserInfo::getKey1), (a, b) -> a.getId() + "-" + (b == null ? null : b.getKey3())).toLists(), leftJoinOnce);
+
+        System.out.println("===== 按key右连接(左边较小) ====");
+        JDFrame<Student> small = JDFrame.read(studentList).cutFirst(2);
+        List<String> rightJoin = small.rightJoin(JDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).toLists();
+        System.out.println(rightJoin);
+        Assert.assertEquals(small.rightJoin(JDFrame.read(us1), JoinOn.on(Student::getSchool, UserInfo::getKey1), (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).toLists(), rightJoin);
+    }
+
+    @Test
+    public void testMergeJoin(){
+        List<UserInfo> us1 = new ArrayList<>();
+        us1.add(new UserInfo("a",13,"a1"));
+        us1.add(new UserInfo("b",13,"b1"));
+        us1.add(new UserInfo("c",14,"c1"));
+        us1.add(new UserInfo("d",17,"d1"));
+
+        // 两边需要先按连接key升序排序
+        SDFrame<Student> sdf = SDFrame.read(studentList).sortAsc(Student::getAge);
+        SDFrame<UserInfo> other = SDFrame.read(us1).sortAsc(UserInfo::getKey2);
+        CompareTwo<Student, UserInfo> on = CompareTwo.on(Student::getAge, UserInfo::getKey2);
+
+        System.out.println("===== 排序合并内连接 ====");
+        List<String> mergeJoin = sdf.mergeJoin(other, on, (a, b) -> a.getId() + "-" + b.getKey3()).toLists();
+        System.out.println(mergeJoin);
+        Assert.assertEquals(sdf.join(other, JoinOn.on(Student::getAge, UserInfo::getKey2), (a, b) -> a.getId() + "-" + b.getKey3()).toLists(), mergeJoin);
+
+        System.out.println("===== 排序合并右连接 ====");
+        List<String> rightMergeJoin = sdf.rightMergeJoin(other, on, (a, b) -> (a == null ? null : a.getId()) + "-" + b.getKey3()).toLists();
+        System.out.println(rightMergeJoin);
+        Assert.assertEquals(sdf.rightJoin(other, JoinOn.on(Student::getAge, UserInfo::getKey2), (a, b) -> (a == null ? null : a.getId()) + "-" + b.getKey3()).toLists(), rightMergeJoin);
+
+        System.out.println("===== 排序合并全连接 ====");
+        sdf.fullMergeJoin(other, on, (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).show(20);
+    }
+
+    @Test
+    public void testJoinParallel(){
+        List<UserInfo> orders = new ArrayList<>();
+        List<UserInfo> users = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            orders.add(new UserInfo("u" + random.nextInt(6000), i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            users.add(new UserInfo("u" + i, i, "name" + i));
+        }
+        JDFrame<UserInfo> orderFrame = JDFrame.read(orders);
+        JDFrame<UserInfo> userFrame = JDFrame.read(users);
+
+        List<String> expect = orderFrame.leftJoin(userFrame, UserInfo::getKey1, UserInfo::getKey1, (a, b) -> a.getKey2() + "-" + (b == null ? null : b.getKey3())).toLists();
+        List<String> result = orderFrame.leftJoinParallel(userFrame, UserInfo::getKey1, UserInfo::getKey1, (a, b) -> a.getKey2() + "-" + (b == null ? null : b.getKey3())).toLists();
+        Assert.assertEquals(expect, result);
+
+        // 不保留左边顺序
+        List<String> unordered = orderFrame.joinParallel(userFrame, UserInfo::getKey1, UserInfo::getKey1, (a, b) -> a.getKey2() + "-" + b.getKey3(), null, false).toLists();
+        List<String> ordered = orderFrame.join(userFrame, UserInfo::getKey1, UserInfo::getKey1, (a, b) -> a.getKey2() + "-" + b.getKey3()).toLists();
+        Assert.assertEquals(new HashSet<>(ordered), new HashSet<>(unordered));
+        Assert.assertEquals(ordered.size(), unordered.size());
+    }
+
+    @Test
+    public void testSemiJoin(){
+        List<UserInfo> us1 = new ArrayList<>();
+        us1.add(new UserInfo("a",13));
+        us1.add(new UserInfo("e",15));
+        us1.add(null);
+
+        System.out.println("---- semiJoin -----");
+        List<Student> semi = SDFrame.read(studentList).semiJoin(us1, Student::getName, UserInfo::getKey1).toLists();
+        Assert.assertEquals(SDFrame.read(studentList).retainAllOther(us1, CompareTwo.on(Student::getName, UserInfo::getKey1)).toLists(), semi);
+        Assert.assertEquals(semi, SDFrame.read(studentList).semiJoinParallel(us1, Student::getName, UserInfo::getKey1).toLists());
+        SDFrame.read(semi).show();
+
+        System.out.println("---- antiJoin -----");
+        List<Student> anti = JDFrame.read(studentList).antiJoin(JDFrame.read(us1), Student::getName, UserInfo::getKey1).toLists();
+        Assert.assertEquals(anti, JDFrame.read(studentList).antiJoinParallel(us1, Student::getName, UserInfo::getKey1).toLists());
+        Assert.assertEquals(studentList.size(), semi.size() + anti.size());
+        SDFrame.read(anti).show();
+    }
+
+    @Test
+    public void testJoinIndex(){
+        List<UserInfo> us1 = new ArrayList<>();
+        us1.add(new UserInfo("一中",1,"a"));
+        us1.add(new UserInfo("二中",2,"b"));
+        us1.add(new UserInfo("一中",3,"c"));
+        us1.add(new UserInfo("四中",4,"d"));
+
+        // 索引只构建一次， 可以在多次连接和多个线程中复用
+        JoinIndex<UserInfo, String> index = JoinIndex.of(JDFrame.read(us1), UserInfo::getKey1);
+        SDFrame<Student> sdf = SDFrame.read(studentList);
+
+        List<String> join = sdf.join(index, Student::getSchool, (a, b) -> a.getId() + "-" + b.getKey3()).toLists();
+        Assert.assertEquals(sdf.join(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> a.getId() + "-" + b.getKey3()).toLists(), join);
+        Assert.assertEquals(join, sdf.joinParallel(index, Student::getSchool, (a, b) -> a.getId() + "-" + b.getKey3()).toLists());
+
+        List<String> leftJoin = sdf.leftJoinOnce(index, Student::getSchool, (a, b) -> a.getId() + "-" + (b == null ? null : b.getKey3())).toLists();
+        Assert.assertEquals(sdf.leftJoinOnce(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> a.getId() + "-" + (b == null ? null : b.getKey3())).toLists(), leftJoin);
+
+        // 按本frame的顺序探测索引, 索引中未匹配的行在最后, 匹配结果与按frame连接相同
+        List<String> rightJoin = sdf.rightJoin(index, Student::getSchool, (a, b) -> (a == null ? null : a.getId()) + "-" + b.getKey3()).toLists();
+        List<String> frameRightJoin = sdf.rightJoin(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> (a == null ? null : a.getId()) + "-" + b.getKey3()).toLists();
+        Assert.assertEquals(frameRightJoin.stream().sorted().collect(Collectors.toList()), rightJoin.stream().sorted().collect(Collectors.toList()));
+        Assert.assertEquals("null-d", rightJoin.get(rightJoin.size() - 1));
+        System.out.println(rightJoin);
+
+        List<String> rightJoinOnce = sdf.rightJoinOnce(index, Student::getSchool, (a, b) -> (a == null ? null : a.getId()) + "-" + b.getKey3()).toLists();
+        List<String> frameRightJoinOnce = sdf.rightJoinOnce(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> (a == null ? null : a.getId()) + "-" + b.getKey3()).toLists();
+        Assert.assertEquals(frameRightJoinOnce.stream().sorted().collect(Collectors.toList()), rightJoinOnce.stream().sorted().collect(Collectors.toList()));
+        Assert.assertEquals(us1.size(), rightJoinOnce.size());
+
+        List<String> fullJoin = sdf.fullJoin(index, Student::getSchool, (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).toLists();
+        Assert.assertEquals(sdf.fullJoin(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).toLists(), fullJoin);
+
+        sdf.semiJoin(index, Student::getSchool).show();
+    }
+
+    @Test
+    public void testAsOfJoin(){
+        // key1:学校  key2:生效年龄
+        List<UserInfo> rates = new ArrayList<>();
+        rates.add(new UserInfo("一中",12,"r1"));
+        rates.add(new UserInfo("一中",10,"r0"));
+        rates.add(new UserInfo("二中",14,"r2"));
+        rates.add(new UserInfo("一中",14,"r3"));
+
+        List<Student> students = new ArrayList<>();
+        students.add(new Student(1,"a","一中","一年级",11, new BigDecimal(1)));
+        students.add(new Student(2,"b","一中","一年级",13, new BigDecimal(1)));
+        students.add(new Student(3,"c","二中","一年级",14, new BigDecimal(4)));
+        students.add(new Student(4,"d","一中","三年级",12, new BigDecimal(2)));
+        students.add(new Student(5,"e","二中","一年级",13, new BigDecimal(3)));
+        students.add(new Student(6,"f","三中","二年级",14, new BigDecimal(5)));
+        students.add(new Student(7,"g","一中","二年级",15, new BigDecimal(5)));
+
+        System.out.println("===== asOfJoin ====");
+        List<String> asOf = SDFrame.read(students).asOfJoin(SDFrame.read(rates), Student::getAge, UserInfo::getKey2,
+                Student::getSchool, UserInfo::getKey1, (a, b) -> a.getId() + "-" + (b == null ? null : b.getKey3())).toLists();
+        System.out.println(asOf);
+        Assert.assertEquals(Arrays.asList("1-r0", "2-r1", "3-r2", "4-r1", "5-null", "6-null", "7-r3"), asOf);
+
+        // key2~key4: 年龄区间
+        List<UserInfo> ranges = new ArrayList<>();
+        ranges.add(new UserInfo("c", 13, "16"));
+        ranges.add(new UserInfo("a", 11, "12"));
+        ranges.add(new UserInfo("b", 14, "14"));
+        ranges.add(new UserInfo("d", 0, null));
+
+        System.out.println("===== rangeJoin ====");
+        List<String> rangeJoin = SDFrame.read(students).rangeJoin(SDFrame.read(ranges), Student::getAge, UserInfo::getKey2,
+                e -> e.getKey3() == null ? null : Integer.valueOf(e.getKey3()), (a, b) -> a.getId() + "-" + b.getKey1()).toLists();
+        System.out.println(rangeJoin);
+        List<String> expect = SDFrame.read(students).join(SDFrame.read(ranges),
+                (a, b) -> a.getAge() >= b.getKey2() && (b.getKey3() == null || a.getAge() <= Integer.parseInt(b.getKey3())),
+                (a, b) -> a.getId() + "-" + b.getKey1()).toLists();
+        Assert.assertEquals(expect, rangeJoin);
+    }
+
+    @Test
+    public void testFullJoin(){
+        List<UserInfo> us1 = new ArrayList<>();
+        us1.add(new UserInfo("一中",1,"a"));
+        us1.add(new UserInfo("四中",4,"d"));
+        us1.add(new UserInfo("二中",2,"b"));
+        us1.add(new UserInfo("五中",5,"e"));
+
+        SDFrame<Student> sdf = SDFrame.read(studentList);
+        System.out.println("===== 全连接 ====");
+        List<String> fullJoin = sdf.fullJoin(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).toLists();
+        System.out.println(fullJoin);
+        List<String> expect = sdf.leftJoin(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).toLists();
+        expect.add("null-d");
+        expect.add("null-e");
+        Assert.assertEquals(expect, fullJoin);
+
+        System.out.println("===== 惰性连接流 ====");
+        long count = sdf.joinStream(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> a.getScore()).filter(Objects::nonNull).count();
+        Assert.assertEquals(sdf.join(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> a.getScore()).count(), count);
+        Assert.assertEquals(fullJoin, sdf.fullJoinStream(SDFrame.read(us1), Student::getSchool, UserInfo::getKey1, (a, b) -> (a == null ? null : a.getId()) + "-" + (b == null ? null : b.getKey3())).collect(Collectors.toList()));
+
+        // 并行消费时右边未匹配的行仍然在左边消费完之后生成
+        List<Integer> left = IntStream.range(0, 20000).boxed().collect(Collectors.toList());
+        List<Integer> right = IntStream.range(10000, 30000).boxed().collect(Collectors.toList());
+        List<String> parallelJoin = JDFrame.read(left).fullJoinStream(JDFrame.read(right), Function.identity(), Function.identity(), (a, b) -> a + "-" + b)
+                .parallel().collect(Collectors.toList());
+        Assert.assertEquals(JDFrame.read(left).fullJoin(JDFrame.read(right), Function.identity(), Function.identity(), (a, b) -> a + "-" + b).toLists(), parallelJoin);
+    }
+
+    @Test
+    public void testGroupN(){
+        List<Student> students = new ArrayList<>();
+        students.add(new Student(1,"a","一中","一年级",11, new BigDecimal(1)));
+        students.add(new Student(2,"b","一中","一年级",13, new BigDecimal(1)));
+        students.add(new Student(3,"c","二中","一年级",14, new BigDecimal(4)));
+        students.add(new Student(4,"d","一中","三年级",12, new BigDecimal(2)));
+        students.add(new Student(5,"e",null,"一年级",13, new BigDecimal(3)));
+        students.add(new Student(6,"f","一中","一年级",14, new BigDecimal(5)));
+
+        System.out.println("===== 多级分组 ====");
+        List<FI3<String, String, Long>> group2 = SDFrame.read(students).group2ByCount(Student::getSchool, Student::getLevel).toLists();
+        System.out.println(group2);
+        Assert.assertEquals(4, group2.size());
+        Assert.assertEquals(Long.valueOf(3), group2.get(0).getC3());
+        Assert.assertNull(group2.get(3).getC1());
+        // 同一个一级key的分组排在一起, 一级key内按二级key首次出现的顺序
+        Assert.assertEquals(Arrays.asList("一中-一年级", "一中-三年级", "二中-一年级", "null-一年级"),
+                group2.stream().map(e -> e.getC1() + "-" + e.getC2()).collect(Collectors.toList()));
+        List<FI3<String, String, String>> concat2 = SDFrame.read(students).group2ByConcat(Student::getSchool, Student::getLevel, GroupConcat.concatBy(Student::getName, ",")).toLists();
+        Assert.assertEquals(Arrays.asList("a,b,f", "d", "c", "e"), concat2.stream().map(FI3::getC3).collect(Collectors.toList()));
+
+        List<FI4<String, String, Integer, List<Student>>> group3 = JDFrame.read(students).group3(Student::getSchool, Student::getLevel, Student::getAge).toLists();
+        Assert.assertEquals(6, group3.size());
+
+        System.out.println("===== N级分组 ====");
+        List<Function<Student, ?>> keys = Arrays.asList(Student::getSchool, Student::getLevel);
+        List<FI2<List<Object>, Long>> groupN = SDFrame.read(students).groupN(keys, Collectors.counting()).toLists();
+        System.out.println(groupN);
+        Assert.assertEquals(group2.size(), groupN.size());
+        for (int i = 0; i < group2.size(); i++) {
+            Assert.assertEquals(Arrays.asList(group2.get(i).getC1(), group2.get(i).getC2()), groupN.get(i).getC1());
+            Assert.assertEquals(group2.get(i).getC3(), groupN.get(i).getC2());
+        }
+        Assert.assertEquals(Arrays.asList(1, 2, 6), JDFrame.read(students).groupN(keys).head().getC2().stream().map(Student::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGroupByAgg(){
+        List<Student> students = new ArrayList<>();
+        students.add(new Student(1,"a","一中","一年级",11, new BigDecimal(1)));
+        students.add(new Student(2,"b","一中","一年级",13, new BigDecimal("1.5")));
+        students.add(new Student(3,"c","二中","一年级",14, new BigDecimal(4)));
+        students.add(new Student(4,"d","一中","三年级",12, new BigDecimal(2)));
+        students.add(new Student(5,"e","二中","一年级",13, null));
+
+        System.out.println("===== 多聚合分组 ====");
+        Agg<Student, BigDecimal> sum = Agg.sum(Student::getScore);
+        Agg<Student, Long> count = Agg.count();
+        Agg<Student, BigDecimal> avg = Agg.avg(Student::getAge);
+        Agg<Student, Integer> max = Agg.max(Student::getAge);
+        Agg<Student, BigDecimal> min = Agg.min(Student::getScore);
+        List<AggRow<String>> rows = SDFrame.read(students).groupByAgg(Student::getSchool, Arrays.asList(sum, count, avg, max, min)).toLists();
+        System.out.println(rows);
+        Assert.assertEquals(2, rows.size());
+        AggRow<String> row = rows.get(0);
+        Assert.assertEquals("一中", row.getKey());
+        Assert.assertEquals(new BigDecimal("4.5"), row.get(sum));
+        Assert.assertEquals(Long.valueOf(3), row.get(count));
+        Assert.assertEquals(new BigDecimal("12.00"), row.get(avg));
+        Assert.assertEquals(Integer.valueOf(13), row.get(max));
+        Assert.assertEquals(new BigDecimal(1), row.get(min));
+        Assert.assertEquals(new BigDecimal(4), rows.get(1).get(sum));
+        Assert.assertEquals(Long.valueOf(2), rows.get(1).get(1));
+
+        List<FI3<String, BigDecimal, Long>> sumCount = JDFrame.read(students).groupBySumCount(Student::getSchool, Student::getAge).toLists();
+        Assert.assertEquals(new FI3<>("一中", new BigDecimal(36), 3L), sumCount.get(0));
+        List<AggRow<FI2<String, String>>> rows2 = JDFrame.read(students).group2ByAgg(Student::getSchool, Student::getLevel, Collections.singletonList(count)).toLists();
+        Assert.assertEquals(new FI2<>("一中", "三年级"), rows2.get(1).getKey());
+        Assert.assertEquals(Long.valueOf(2), rows2.get(0).get(count));
+    }
+
+    @Test
+    public void testNumericMode(){
+        List<FI3<String, Double, Long>> list = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(new FI3<>(i % 2 == 0 ? "a" : "b", 0.1, Long.MAX_VALUE / 4));
+        }
+
+        System.out.println("===== 数值模式 ====");
+        BigDecimal decimalSum = SDFrame.read(list).sum(FI3::getC2);
+        BigDecimal primitiveSum = SDFrame.read(list).numericMode(NumericMode.PRIMITIVE).sum(FI3::getC2);
+        Assert.assertEquals(0, new BigDecimal("1.0").compareTo(decimalSum));
+        Assert.assertEquals(0, new BigDecimal("1.0").compareTo(primitiveSum));
+        Assert.assertEquals(1.0, SDFrame.read(list).sumDouble(FI3::getC2), 0);
+
+        // long溢出后转成BigDecimal继续累加
+        BigDecimal longSum = JDFrame.read(list).numericMode(NumericMode.PRIMITIVE).sum(FI3::getC3);
+        Assert.assertEquals(BigDecimal.valueOf(Long.MAX_VALUE / 4).multiply(BigDecimal.TEN), longSum);
+
+        List<FI2<String, BigDecimal>> groupSum = JDFrame.read(list).numericMode(NumericMode.PRIMITIVE).groupBySum(FI3::getC1, FI3::getC3).toLists();
+        Assert.assertEquals(BigDecimal.valueOf(Long.MAX_VALUE / 4).multiply(BigDecimal.valueOf(5)), groupSum.get(0).getC2());
+        List<FI2<String, BigDecimal>> groupAvg = SDFrame.read(list).numericMode(NumericMode.PRIMITIVE).groupByAvg(FI3::getC1, FI3::getC2).toLists();
+        Assert.assertEquals(new BigDecimal("0.10"), groupAvg.get(0).getC2());
+        Assert.assertEquals(groupAvg, SDFrame.read(list).groupByAvgDouble(FI3::getC1, FI3::getC2).toLists());
+        Assert.assertEquals(Long.valueOf(5), JDFrame.read(list).groupBySumLong(FI3::getC1, e -> 1L).head().getC2());
+
+        // 窗口求和同样按数值模式累加
+        List<Double> doubleList = Arrays.asList(1e17, 1.0, 1.0);
+        Window<Double> window = Window.<Double, Double>sortAscBy(Function.identity()).roundBefore2CurrentRow(1);
+        List<FI2<Double, BigDecimal>> decimalWindowSum = SDFrame.read(doubleList).overSum(window, Function.identity()).toLists();
+        Assert.assertEquals(0, new BigDecimal("100000000000000001").compareTo(decimalWindowSum.get(2).getC2()));
+        List<FI2<Double, BigDecimal>> primitiveWindowSum = JDFrame.read(doubleList).numericMode(NumericMode.PRIMITIVE).overSum(window, Function.identity()).toLists();
+        Assert.assertEquals(0, new BigDecimal("1E17").compareTo(primitiveWindowSum.get(2).getC2()));
+        Assert.assertEquals(0, new BigDecimal("2").compareTo(primitiveWindowSum.get(1).getC2()));
+    }
+
+    @Test
+    public void testGroupParallel(){
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            students.add(new Student(i, "a" + i, "学校" + (i % 7), "年级" + (i % 3), i % 19, i % 11 == 0 ? null : new BigDecimal(i % 100)));
+        }
+
+        System.out.println("===== 并行分组 ====");
+        Assert.assertEquals(SDFrame.read(students).group2BySum(Student::getSchool, Student::getLevel, Student::getAge).toLists(),
+                SDFrame.read(students).parallel().group2BySum(Student::getSchool, Student::getLevel, Student::getAge).toLists());
+        Assert.assertEquals(JDFrame.read(students).groupByAvg(Student::getSchool, Student::getAge).toLists(),
+                JDFrame.read(students).parallel().groupByAvg(Student::getSchool, Student::getAge).toLists());
+        Assert.assertEquals(JDFrame.read(students).groupByCount(Student::getAge).toLists(),
+                JDFrame.read(students).parallel().groupByCount(Student::getAge).toLists());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Agg<Student, BigDecimal> sum = Agg.sum(Student::getScore);
+            Agg<Student, Integer> max = Agg.max(Student::getAge);
+            Agg<Student, Long> count = Agg.count(Student::getScore);
+            Assert.assertEquals(SDFrame.read(students).groupByAgg(Student::getLevel, Arrays.asList(sum, max, count)).toLists(),
+                    SDFrame.read(students).parallel(executor).groupByAgg(Student::getLevel, Arrays.asList(sum, max, count)).toLists());
+            List<FI2<String, List<Student>>> group = JDFrame.read(students).parallel(executor).group(Student::getSchool).toLists();
+            Assert.assertEquals(JDFrame.read(students).group(Student::getSchool).toLists(), group);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testApproxCountDistinct(){
+        List<FI2<Integer, String>> list = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            list.add(new FI2<>(i % 2, "user" + (i % 20000)));
+        }
+        list.add(new FI2<>(0, null));
+
+        System.out.println("===== 近似去重计数 ====");
+        long approx = SDFrame.read(list).approxCountDistinct(FI2::getC2);
+        System.out.println(approx);
+        Assert.assertEquals(20000, approx, 20000 * 0.03);
+        Assert.assertEquals(approx, JDFrame.read(list).approxCountDistinct(FI2::getC2));
+
+        List<FI2<Integer, Long>> groupList = JDFrame.read(list).groupByApproxCountDistinct(FI2::getC1, FI2::getC2, 12).toLists();
+        System.out.println(groupList);
+        Assert.assertEquals(10000, groupList.get(0).getC2(), 10000 * 0.05);
+        Assert.assertEquals(3L, SDFrame.read(Arrays.asList("a", "b", "a", "c")).approxCountDistinct(e -> e));
+
+        // 分片合并的结果与串行一致
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Agg<FI2<Integer, String>, Long> approxAgg = Agg.approxCountDistinct(FI2::getC2);
+            Assert.assertEquals(SDFrame.read(list).groupByAgg(FI2::getC1, Collections.singletonList(approxAgg)).toLists(),
+                    SDFrame.read(list).parallel(executor).groupByAgg(FI2::getC1, Collections.singletonList(approxAgg)).toLists());
+            Assert.assertEquals(approx, SDFrame.read(list).parallel(executor).approxCountDistinct(FI2::getC2));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPercentile(){
+        List<FI2<Integer, Integer>> smallList = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            smallList.add(new FI2<>(i % 2, i));
+        }
+        smallList.add(new FI2<>(0, null));
+
+        System.out.println("===== 百分位数 ====");
+        // 少量数据时为精确值
+        Assert.assertEquals(new BigDecimal("5.50"), SDFrame.read(smallList).percentile(FI2::getC2, 0.5));
+        Assert.assertEquals(new BigDecimal("9.10"), JDFrame.read(smallList).percentile(FI2::getC2, 0.9));
+        Assert.assertNull(SDFrame.read(new ArrayList<FI2<Integer, Integer>>()).percentile(FI2::getC2, 0.5));
+
+        List<FI2<Integer, List<BigDecimal>>> groupList = SDFrame.read(smallList).groupByPercentile(FI2::getC1, FI2::getC2, 0, 0.5, 1).toLists();
+        System.out.println(groupList);
+        Assert.assertEquals(Arrays.asList(new BigDecimal("1.00"), new BigDecimal("5.00"), new BigDecimal("9.00")), groupList.get(0).getC2());
+        Assert.assertEquals(new BigDecimal("6.00"), JDFrame.read(smallList).groupByPercentile(FI2::getC1, FI2::getC2, 0.5).toLists().get(1).getC2());
+
+        // 大量数据时为近似值
+        List<FI2<Integer, Integer>> bigList = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            bigList.add(new FI2<>(i % 2, (i * 7919) % 100000));
+        }
+        Agg<FI2<Integer, Integer>, BigDecimal> p99 = Agg.percentile(FI2::getC2, 0.99);
+        BigDecimal median = SDFrame.read(bigList).percentile(FI2::getC2, 0.5);
+        System.out.println(median);
+        Assert.assertEquals(50000, median.doubleValue(), 100000 * 0.005);
+        Assert.assertEquals(99000, SDFrame.read(bigList).percentile(FI2::getC2, 0.99).doubleValue(), 100000 * 0.001);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<AggRow<Integer>> aggList = SDFrame.read(bigList).parallel(executor).groupByAgg(FI2::getC1, Collections.singletonList(p99)).toLists();
+            System.out.println(aggList);
+            Assert.assertEquals(99000, aggList.get(0).get(p99).doubleValue(), 100000 * 0.002);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGroupByTopN(){
+        List<FI3<String, String, Integer>> list = new ArrayList<>();
+        list.add(new FI3<>("s1", "a", 5));
+        list.add(new FI3<>("s1", "b", 9));
+        list.add(new FI3<>("s1", "c", 7));
+        list.add(new FI3<>("s1", "d", 7));
+        list.add(new FI3<>("s1", "e", 1));
+        list.add(new FI3<>("s2", "f", 3));
+        list.add(new FI3<>("s2", "g", 8));
+
+        System.out.println("===== 分组TopN ====");
+        Sorter<FI3<String, String, Integer>> sorter = Sorter.sortDescBy(FI3::getC3);
+        List<FI2<String, List<FI3<String, String, Integer>>>> topList = SDFrame.read(list).groupByTopN(FI3::getC1, sorter, 2).toLists();
+        System.out.println(topList);
+        // 第2名并列时全部保留
+        Assert.assertEquals(Arrays.asList("b", "c", "d"), topList.get(0).getC2().stream().map(FI3::getC2).collect(Collectors.toList()));
+        Assert.assertEquals(Arrays.asList("g", "f"), topList.get(1).getC2().stream().map(FI3::getC2).collect(Collectors.toList()));
+
+        // 与按排名过滤的结果一致
+        List<FI3<String, String, Integer>> rankList = SDFrame.read(list).overRank(Window.sortBy(sorter)).whereLe(FI2::getC2, 3).map(FI2::getC1).toLists();
+        Assert.assertEquals(rankList, JDFrame.read(list).cutFirstRank(sorter, 3).toLists());
+        Assert.assertEquals(rankList, SDFrame.read(list).cutFirstRank(sorter, 3).toLists());
+        Assert.assertTrue(SDFrame.read(list).cutFirstRank(sorter, 0).toLists().isEmpty());
+
+        // 单次遍历求最值, 值相同时保留先出现的
+        Assert.assertEquals("a", JDFrame.read(list).groupByMin(FI3::getC1, e -> Math.max(e.getC3(), 7)).toLists().get(0).getC2().getC2());
+        MaxMin<FI3<String, String, Integer>> maxMin = JDFrame.read(list).groupByMaxMin(FI3::getC1, FI3::getC3).toLists().get(0).getC2();
+        Assert.assertEquals("b", maxMin.getMax().getC2());
+        Assert.assertEquals("e", maxMin.getMin().getC2());
+
+        List<FI3<String, String, Integer>> bigList = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            bigList.add(new FI3<>("s" + (i % 7), "k" + i, (i * 31) % 1000));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Assert.assertEquals(SDFrame.read(bigList).groupByTopN(FI3::getC1, sorter, 10).toLists(),
+                    SDFrame.read(bigList).parallel(executor).groupByTopN(FI3::getC1, sorter, 10).toLists());
+            Assert.assertEquals(SDFrame.read(bigList).overRank(Window.sortBy(sorter)).whereLe(FI2::getC2, 5).map(FI2::getC1).toLists(),
+                    SDFrame.read(bigList).parallel(executor).cutFirstRank(sorter, 5).toLists());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRollup(){
+        List<FI4<String, String, String, Integer>> list = new ArrayList<>();
+        list.add(new FI4<>("east", "shanghai", "s1", 10));
+        list.add(new FI4<>("east", "shanghai", "s2", 20));
+        list.add(new FI4<>("east", "hangzhou", "s3", 5));
+        list.add(new FI4<>("west", "chengdu", "s4", 7));
+        list.add(new FI4<>("west", null, "s5", 3));
+
+        System.out.println("===== 分组集 ====");
+        List<Function<FI4<String, String, String, Integer>, ?>> keys = Arrays.asList(FI4::getC1, FI4::getC2, FI4::getC3);
+        Agg<FI4<String, String, String, Integer>, BigDecimal> sum = Agg.sum(FI4::getC4);
+        Agg<FI4<String, String, String, Integer>, Long> count = Agg.count();
+        List<GroupingRow> rollupList = SDFrame.read(list).rollup(keys, Arrays.asList(sum, count)).toLists();
+        rollupList.forEach(System.out::println);
+        // 5个门店 + 4个城市 + 2个区域 + 总计
+        Assert.assertEquals(12, rollupList.size());
+        GroupingRow total = rollupList.get(rollupList.size() - 1);
+        Assert.assertEquals(7, total.getGroupingId());
+        Assert.assertTrue(total.isGrouping(0));
+        Assert.assertEquals(new BigDecimal("45"), total.get(sum));
+        Assert.assertEquals(Long.valueOf(5), total.get(count));
+
+        // 城市小计与二级分组一致, 城市为null的分组与被汇总的城市通过GROUPING区分
+        List<GroupingRow> cityList = SDFrame.read(rollupList).whereEq(GroupingRow::getGroupingId, 1).toLists();
+        List<FI3<String, String, BigDecimal>> group2List = SDFrame.read(list).group2BySum(FI4::getC1, FI4::getC2, FI4::getC4).toLists();
+        Assert.assertEquals(group2List.size(), cityList.size());
+        for (int i = 0; i < cityList.size(); i++) {
+            Assert.assertEquals(group2List.get(i).getC2(), cityList.get(i).getKey(1));
+            Assert.assertEquals(group2List.get(i).getC3(), cityList.get(i).get(sum));
+            Assert.assertFalse(cityList.get(i).isGrouping(1));
+            Assert.assertTrue(cityList.get(i).isGrouping(2));
+        }
+
+        List<GroupingRow> cubeList = JDFrame.read(list).cube(Arrays.asList(FI4::getC1, FI4::getC2), Collections.singletonList(sum)).toLists();
+        // 4个(区域,城市) + 2个区域 + 4个城市 + 总计
+        Assert.assertEquals(11, cubeList.size());
+
+        List<GroupingRow> setList = JDFrame.read(list).groupingSets(keys, Arrays.asList(new int[]{2}, new int[]{}), Collections.singletonList(count)).toLists();
+        Assert.assertEquals(6, setList.size());
+        Assert.assertEquals("s1", setList.get(0).getKey(2));
+        Assert.assertEquals(6, setList.get(0).getGroupingId());
+
+        // 没有数据时总计仍有一行
+        List<GroupingRow> emptyList = SDFrame.read(new ArrayList<FI4<String, String, String, Integer>>()).rollup(keys, Arrays.asList(sum, count)).toLists();
+        Assert.assertEquals(1, emptyList.size());
+        Assert.assertNull(emptyList.get(0).get(sum));
+        Assert.assertEquals(Long.valueOf(0), emptyList.get(0).get(count));
+    }
+
+    @Test
+    public void testGroupByIncremental(){
+        List<FI2<String, Integer>> list = new ArrayList<>();
+        list.add(new FI2<>("a", 1));
+        list.add(new FI2<>("b", 2));
+        list.add(new FI2<>("a", 3));
+
+        System.out.println("===== 增量分组 ====");
+        Agg<FI2<String, Integer>, BigDecimal> sum = Agg.sum(FI2::getC2);
+        Agg<FI2<String, Integer>, Long> count = Agg.count();
+        IncrementalGroupBy<FI2<String, Integer>, String> groupBy = JDFrame.read(list).groupByIncremental(FI2::getC1, Arrays.asList(sum, count));
+        Assert.assertEquals(new BigDecimal("4"), groupBy.get("a").get(sum));
+
+        List<FI2<String, Integer>> delta = Arrays.asList(new FI2<>("a", 10), new FI2<>("c", 5));
+        groupBy.append(delta);
+        list.addAll(delta);
+        // 与全量重新分组的结果一致
+        Assert.assertEquals(SDFrame.read(list).groupByAgg(FI2::getC1, Arrays.asList(sum, count)).toLists(), groupBy.toLists());
+        groupBy.toSDFrame().show();
+
+        // 撤回后分组没有数据时被移除
+        groupBy.retract(Arrays.asList(new FI2<>("a", 1), new FI2<>("b", 2)));
+        Assert.assertEquals(2, groupBy.size());
+        Assert.assertNull(groupBy.get("b"));
+        Assert.assertEquals(new BigDecimal("13"), groupBy.get("a").get(sum));
+        Assert.assertEquals(Long.valueOf(2), groupBy.get("a").get(count));
+
+        // 校验失败时状态不变
+        try {
+            groupBy.retract(Arrays.asList(new FI2<>("c", 5), new FI2<>("c", 5)));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals(Long.valueOf(1), groupBy.get("c").get(count));
+        }
+
+        IncrementalGroupBy<FI2<String, Integer>, String> maxGroupBy = SDFrame.read(list).groupByIncremental(FI2::getC1, Collections.singletonList(Agg.max(FI2::getC2)));
+        Assert.assertFalse(maxGroupBy.isRetractable());
+        try {
+            maxGroupBy.retract(delta);
+            Assert.fail();
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(3, maxGroupBy.size());
+        }
+    }
+
+    @Test
+    public void testPivot(){
+        List<FI3<String, String, Integer>> list = new ArrayList<>();
+        list.add(new FI3<>("2024-01-01", "app", 10));
+        list.add(new FI3<>("2024-01-01", "web", 20));
+        list.add(new FI3<>("2024-01-02", "app", 5));
+        list.add(new FI3<>("2024-01-01", "app", 1));
+        list.add(new FI3<>("2024-01-03", "mini", 7));
+
+        System.out.println("===== 透视表 ====");
+        PivotTable<String, String, BigDecimal> table = SDFrame.read(list).pivot(FI3::getC1, FI3::getC2, Agg.sum(FI3::getC3));
+        System.out.println(table);
+        Assert.assertEquals(Arrays.asList("app", "web", "mini"), table.getColumnKeys());
+        Assert.assertEquals(Arrays.asList("2024-01-01", "2024-01-02", "2024-01-03"), table.getRowKeys());
+        Assert.assertEquals(new BigDecimal("11"), table.getValue("2024-01-01", "app"));
+        Assert.assertNull(table.getValue("2024-01-02", "web"));
+        Assert.assertEquals(Arrays.asList(new BigDecimal("11"), new BigDecimal("5"), null), table.getColumn("app"));
+        Assert.assertTrue(Double.isNaN(table.toDoubleMatrix()[1][1]));
+
+        // 固定列, 缺失的列填充空聚合结果, 不在固定列中的数据被忽略
+        PivotTable<String, String, Long> countTable = JDFrame.read(list).pivot(FI3::getC1, FI3::getC2, Arrays.asList("web", "app", "pc"), Agg.count());
+        Assert.assertEquals(Arrays.asList(1L, 2L, 0L), countTable.getRow("2024-01-01"));
+        Assert.assertEquals(2, countTable.rowCount());
+        Assert.assertArrayEquals(new double[]{0, 1, 0}, countTable.toDoubleMatrix()[1], 0);
+        Assert.assertEquals(2, SDFrame.read(countTable.toRows()).count());
+    }
+
+    @Test
+    public void testGroupConcatStream(){
+        List<FI2<String, String>> list = new ArrayList<>();
+        list.add(new FI2<>("a", "x"));
+        list.add(new FI2<>("b", "y"));
+        list.add(new FI2<>("a", null));
+        list.add(new FI2<>("a", "z"));
+        list.add(new FI2<>("a", "x"));
+
+        GroupConcat<FI2<String, String>> concat = GroupConcat.concatBy(FI2::getC2, ";", "[", "]");
+        List<FI2<String, String>> result = SDFrame.read(list).groupByConcat(FI2::getC1, concat).toLists();
+        Assert.assertEquals("[x;z;x]", result.get(0).getC2());
+        Assert.assertEquals("[y]", result.get(1).getC2());
+
+        // 去重保持首次出现顺序
+        GroupConcat<FI2<String, String>> distinctConcat = GroupConcat.concatBy(FI2::getC2, ",");
+        result = JDFrame.read(list).groupByConcat(FI2::getC1, distinctConcat.distinct()).toLists();
+        Assert.assertEquals("x,z", result.get(0).getC2());
+
+        // 限制拼接内容长度, 前后缀不计入
+        GroupConcat<FI2<String, String>> limitConcat = GroupConcat.concatBy(FI2::getC2, ";", "<", ">");
+        result = SDFrame.read(list).groupByConcat(FI2::getC1, limitConcat.maxLength(4)).toLists();
+        Assert.assertEquals("<x;z;>", result.get(0).getC2());
+
+        // 并行分片合并后顺序一致
+        List<FI2<Integer, Integer>> bigList = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            bigList.add(new FI2<>(i % 3, i % 7));
+        }
+        GroupConcat<FI2<Integer, Integer>> bigConcat = GroupConcat.concatBy(FI2::getC2, ",");
+        Assert.assertEquals(SDFrame.read(bigList).groupByConcat(FI2::getC1, bigConcat).toLists(),
+                SDFrame.read(bigList).parallel().groupByConcat(FI2::getC1, bigConcat).toLists());
+        GroupConcat<FI2<Integer, Integer>> bigDistinctConcat = GroupConcat.concatBy(FI2::getC2, ",");
+        bigDistinctConcat.distinct().maxLength(9);
+        Assert.assertEquals("0,3,6,2,5", SDFrame.read(bigList).parallel().groupByConcat(FI2::getC1, bigDistinctConcat).toLists().get(0).getC2());
+    }
+
 }
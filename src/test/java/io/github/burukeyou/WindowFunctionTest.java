@@ -3,12 +3,29 @@ package io.github.burukeyou;
 import io.github.burukeyou.data.WebPvDto;
 import io.github.burukeyou.dataframe.iframe.JDFrame;
 import io.github.burukeyou.dataframe.iframe.SDFrame;
+import io.github.burukeyou.dataframe.iframe.function.Monoid;
+import io.github.burukeyou.dataframe.iframe.item.FI2;
+import io.github.burukeyou.dataframe.iframe.item.FI3;
+import io.github.burukeyou.dataframe.iframe.item.FI4;
+import io.github.burukeyou.dataframe.iframe.item.WindowDoubles;
+import io.github.burukeyou.dataframe.iframe.item.WindowInts;
 import io.github.burukeyou.dataframe.iframe.window.Window;
+import io.github.burukeyou.dataframe.iframe.window.WindowFunction;
 import io.github.burukeyou.dataframe.iframe.window.round.Range;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class WindowFunctionTest {
 
@@ -277,6 +294,382 @@ public class WindowFunctionTest {
                 .show(30);
     }
 
+    /**
+     *  Percentile： 窗口内的百分位数, 滑动窗口为精确值, 整个分区和累计窗口不超过500行时为精确值
+     */
+    @Test
+    public void testOverPercentile(){
+        // 等价于 select percentile_cont(0.5) within group (order by pv_count) over(partition by type)
+        List<FI2<WebPvDto, BigDecimal>> medianList = SDFrame.read(dataList)
+                .window(Window.groupBy(WebPvDto::getType))
+                .overPercentile(WebPvDto::getPvCount, 0.5)
+                .toLists();
+        Assert.assertEquals(new BigDecimal("4.00"), medianList.get(0).getC2());
+        Assert.assertEquals(new BigDecimal("3.00"), medianList.get(medianList.size() - 1).getC2());
+
+        // 累计窗口的中位数
+        List<FI2<WebPvDto, BigDecimal>> runningList = JDFrame.read(dataList)
+                .window(Window.groupBy(WebPvDto::getType).sortAsc(WebPvDto::getScore).roundStartRow2CurrentRow())
+                .overPercentile(WebPvDto::getPvCount, 0.5)
+                .toLists();
+        Assert.assertEquals(new BigDecimal("1.00"), runningList.get(0).getC2());
+        Assert.assertEquals(new BigDecimal("3.00"), runningList.get(1).getC2());
+        Assert.assertEquals(new BigDecimal("5.00"), runningList.get(2).getC2());
+        Assert.assertEquals(new BigDecimal("4.00"), runningList.get(3).getC2());
+
+        SDFrame.read(dataList)
+                .window(Window.groupBy(WebPvDto::getType).sortAsc(WebPvDto::getScore).roundBetween(Range.BEFORE(1), Range.AFTER(1)))
+                .overPercentileS(WebPvDto::setValue, WebPvDto::getPvCount, 0.9)
+                .show(30);
+
+        // 滑动窗口超过500行仍为精确值
+        Random random = new Random(13);
+        List<FI2<Integer, Integer>> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(new FI2<>(i, random.nextInt(1000)));
+        }
+        Collections.shuffle(rows, random);
+        List<FI2<FI2<Integer, Integer>, BigDecimal>> slidingList = JDFrame.read(rows)
+                .defaultScale(4)
+                .window(Window.<FI2<Integer, Integer>, Integer>sortAscBy(FI2::getC1).roundBetween(Range.BEFORE(300), Range.AFTER(300)))
+                .overPercentile(FI2::getC2, 0.9)
+                .toLists();
+        int[] values = new int[rows.size()];
+        rows.forEach(e -> values[e.getC1()] = e.getC2());
+        for (FI2<FI2<Integer, Integer>, BigDecimal> e : slidingList) {
+            int i = e.getC1().getC1();
+            int[] window = Arrays.copyOfRange(values, Math.max(0, i - 300), Math.min(values.length, i + 301));
+            Arrays.sort(window);
+            double rank = 0.9 * (window.length - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = Math.min(lower + 1, window.length - 1);
+            double expected = window[lower] + (window[upper] - window[lower]) * (rank - lower);
+            Assert.assertEquals(BigDecimal.valueOf(expected).setScale(4, java.math.RoundingMode.HALF_UP), e.getC2());
+        }
+
+        // 累计窗口和整个分区超过500行同样精确, 与中位数一致
+        Window<FI2<Integer, Integer>> cumulative = Window.<FI2<Integer, Integer>, Integer>sortAscBy(FI2::getC1).roundStartRow2CurrentRow();
+        List<FI2<FI2<Integer, Integer>, BigDecimal>> cumulativeList = JDFrame.read(rows).defaultScale(4).window(cumulative).overPercentile(FI2::getC2, 0.5).toLists();
+        Assert.assertEquals(cumulativeList, JDFrame.read(rows).defaultScale(4).window(cumulative).overMedian(FI2::getC2).toLists());
+        int[] lastWindow = values.clone();
+        Arrays.sort(lastWindow);
+        BigDecimal lastMedian = BigDecimal.valueOf((lastWindow[999] + lastWindow[1000]) / 2.0).setScale(4, java.math.RoundingMode.HALF_UP);
+        Assert.assertEquals(lastMedian, cumulativeList.get(cumulativeList.size() - 1).getC2());
+        List<FI2<FI2<Integer, Integer>, BigDecimal>> partitionList = JDFrame.read(rows).defaultScale(4).window().overPercentile(FI2::getC2, 0.5).toLists();
+        Assert.assertTrue(partitionList.stream().allMatch(e -> lastMedian.equals(e.getC2())));
+    }
+
+    @Test
+    public void testMultiPartition(){
+        List<FI3<String, String, Integer>> list = new ArrayList<>();
+        list.add(new FI3<>("a", "x", 3));
+        list.add(new FI3<>("b", "x", 1));
+        list.add(new FI3<>("a", "y", 2));
+        list.add(new FI3<>("a", "x", 1));
+        list.add(new FI3<>(null, "x", 5));
+        list.add(new FI3<>("b", "x", 0));
+
+        // 分区按key第一次出现的顺序输出, 分区内按排序字段排序
+        Window<FI3<String, String, Integer>> window = Window.<FI3<String, String, Integer>>groupBy(FI3::getC1, FI3::getC2).sortAsc(FI3::getC3);
+        List<FI2<FI3<String, String, Integer>, Integer>> result = JDFrame.read(list).overRowNumber(window).toLists();
+        List<String> actual = new ArrayList<>();
+        for (FI2<FI3<String, String, Integer>, Integer> e : result) {
+            actual.add(e.getC1().getC1() + e.getC1().getC2() + e.getC1().getC3() + ":" + e.getC2());
+        }
+        Assert.assertEquals(Arrays.asList("ax1:1", "ax3:2", "bx0:1", "bx1:2", "ay2:1", "nullx5:1"), actual);
+        // 原数据顺序不变
+        Assert.assertEquals(Integer.valueOf(3), list.get(0).getC3());
+    }
+
+    @Test
+    public void testParallelWindow(){
+        List<FI3<Integer, Integer, Integer>> list = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            // 第0个分区远大于其他分区
+            list.add(new FI3<>(i % 3 == 0 ? 0 : i % 997, i, i % 13));
+        }
+        Window<FI3<Integer, Integer, Integer>> window = Window.<FI3<Integer, Integer, Integer>>groupBy(FI3::getC1).sortDesc(FI3::getC3).roundBefore2CurrentRow(3);
+        Assert.assertEquals(SDFrame.read(list).overSum(window, FI3::getC2).toLists(),
+                SDFrame.read(list).parallel().overSum(window, FI3::getC2).toLists());
+        Assert.assertEquals(JDFrame.read(list).overRank(window).toLists(),
+                JDFrame.read(list).parallel().window(window).overRank().toLists());
+    }
+
+    @Test
+    public void testWindowPlan(){
+        List<FI4<String, Integer, Object, Object>> list = new ArrayList<>();
+        list.add(new FI4<>("a", 3, null, null));
+        list.add(new FI4<>("b", 1, null, null));
+        list.add(new FI4<>("a", 1, null, null));
+        list.add(new FI4<>("a", 2, null, null));
+        list.add(new FI4<>("b", 5, null, null));
+
+        // 一次分区排序同时计算行号、累计和、上一行的值
+        Map<FI4<String, Integer, Object, Object>, Integer> lagMap = new IdentityHashMap<>();
+        Window<FI4<String, Integer, Object, Object>> window = Window.<FI4<String, Integer, Object, Object>>groupBy(FI4::getC1).sortAsc(FI4::getC2).roundStartRow2CurrentRow();
+        List<FI4<String, Integer, Object, Object>> result = JDFrame.read(list).window(window)
+                .compute(WindowFunction.rowNumber(FI4::setC3))
+                .compute(WindowFunction.sum(FI4::setC4, FI4::getC2))
+                .compute(WindowFunction.lag(lagMap::put, FI4::getC2, 1))
+                .execute()
+                .toLists();
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 1, 5), result.stream().map(FI4::getC2).collect(Collectors.toList()));
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 1, 2), result.stream().map(FI4::getC3).collect(Collectors.toList()));
+        Assert.assertEquals(new BigDecimal("6"), result.get(2).getC4());
+        Assert.assertEquals(new BigDecimal("6"), result.get(4).getC4());
+        Assert.assertNull(lagMap.get(result.get(0)));
+        Assert.assertEquals(Integer.valueOf(2), lagMap.get(result.get(2)));
+
+        // 与单独计算的结果一致
+        List<FI2<FI4<String, Integer, Object, Object>, BigDecimal>> sumList = SDFrame.read(list).overSum(window, FI4::getC2).toLists();
+        for (int i = 0; i < sumList.size(); i++) {
+            Assert.assertEquals(sumList.get(i).getC2(), result.get(i).getC4());
+        }
+    }
+
+    @Test
+    public void testRangeWindow(){
+        // (时间, 金额)
+        List<FI2<Long, Integer>> list = new ArrayList<>();
+        list.add(new FI2<>(25L, 5));
+        list.add(new FI2<>(0L, 10));
+        list.add(new FI2<>(10L, 20));
+        list.add(new FI2<>(41L, 2));
+        list.add(new FI2<>(40L, 1));
+
+        // 等价于 sum(c2) over(order by c1 range between 15 preceding and current row)
+        Window<FI2<Long, Integer>> window = Window.rangeBetweenBy(FI2::getC1, Range.BEFORE_VALUE(15), Range.CURRENT_VALUE);
+        List<FI2<FI2<Long, Integer>, BigDecimal>> sumList = SDFrame.read(list).overSum(window, FI2::getC2).toLists();
+        Assert.assertEquals(Arrays.asList(new BigDecimal("10"), new BigDecimal("30"), new BigDecimal("25"), new BigDecimal("6"), new BigDecimal("3")),
+                sumList.stream().map(FI2::getC2).collect(Collectors.toList()));
+        List<FI2<FI2<Long, Integer>, Integer>> maxList = SDFrame.read(list).overMaxValue(window, FI2::getC2).toLists();
+        Assert.assertEquals(Arrays.asList(10, 20, 20, 5, 2), maxList.stream().map(FI2::getC2).collect(Collectors.toList()));
+
+        // 当前行之前10到5之间没有数据时为空窗口
+        Window<FI2<Long, Integer>> emptyWindow = Window.rangeBetweenBy(FI2::getC1, Range.BEFORE_VALUE(10), Range.BEFORE_VALUE(5));
+        List<FI2<FI2<Long, Integer>, BigDecimal>> avgList = JDFrame.read(list).overAvg(emptyWindow, FI2::getC2).toLists();
+        Assert.assertNull(avgList.get(0).getC2());
+        Assert.assertEquals(new BigDecimal("10.00"), avgList.get(1).getC2());
+        Assert.assertEquals(Integer.valueOf(0), JDFrame.read(list).overCount(emptyWindow).toLists().get(4).getC2());
+
+        // 与逐行计算的结果一致
+        Random random = new Random(7);
+        List<FI3<String, Long, Integer>> randomList = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            randomList.add(new FI3<>(random.nextBoolean() ? "a" : "b", (long) random.nextInt(300), random.nextInt(50)));
+        }
+        Window<FI3<String, Long, Integer>> rangeWindow = Window.<FI3<String, Long, Integer>>groupBy(FI3::getC1)
+                .sortAsc(FI3::getC2)
+                .rangeBetween(FI3::getC2, Range.BEFORE_VALUE(Duration.ofMillis(20)), Range.AFTER_VALUE(5));
+        List<FI2<FI3<String, Long, Integer>, Integer>> minList = SDFrame.read(randomList).overMinValue(rangeWindow, FI3::getC3).toLists();
+        List<FI2<FI3<String, Long, Integer>, Integer>> countList = SDFrame.read(randomList).overCount(rangeWindow).toLists();
+        for (int i = 0; i < minList.size(); i++) {
+            FI3<String, Long, Integer> cur = minList.get(i).getC1();
+            List<Integer> frame = randomList.stream()
+                    .filter(e -> e.getC1().equals(cur.getC1()) && e.getC2() >= cur.getC2() - 20 && e.getC2() <= cur.getC2() + 5)
+                    .map(FI3::getC3).collect(Collectors.toList());
+            Assert.assertEquals(Collections.min(frame), minList.get(i).getC2());
+            Assert.assertEquals(Integer.valueOf(frame.size()), countList.get(i).getC2());
+        }
+    }
+
+    @Test
+    public void testPrimitiveWindow(){
+        Window<WebPvDto> window = Window.groupBy(WebPvDto::getType).sortDesc(WebPvDto::getScore);
+        WindowInts<WebPvDto> rankInts = SDFrame.read(dataList).overRankInts(window);
+        List<FI2<WebPvDto, Integer>> rankList = SDFrame.read(dataList).overRank(window).toLists();
+        Assert.assertEquals(rankList, rankInts.toLists());
+        Assert.assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 1, 1, 2, 2}, JDFrame.read(dataList).overDenseRankInts(window).getValues());
+
+        // 滑动窗口求和与BigDecimal的结果一致
+        Window<WebPvDto> slideWindow = Window.groupBy(WebPvDto::getType).sortAsc(WebPvDto::getScore).roundBeforeAfter(1, 2);
+        WindowDoubles<WebPvDto> sumDoubles = SDFrame.read(dataList).overSumDoubles(slideWindow, WebPvDto::getPvCount);
+        List<FI2<WebPvDto, BigDecimal>> sumList = SDFrame.read(dataList).overSum(slideWindow, WebPvDto::getPvCount).toLists();
+        for (int i = 0; i < sumList.size(); i++) {
+            Assert.assertSame(sumList.get(i).getC1(), sumDoubles.getRow(i));
+            Assert.assertEquals(sumList.get(i).getC2().doubleValue(), sumDoubles.get(i), 1e-9);
+        }
+        WindowDoubles<WebPvDto> avgDoubles = JDFrame.read(dataList).overAvgDoubles(Window.groupBy(WebPvDto::getType), WebPvDto::getPvCount);
+        Assert.assertEquals(26 / 7.0, avgDoubles.get(0), 1e-9);
+
+        // 排名直接设置到对象
+        List<FI2<String, Integer>> list = new ArrayList<>();
+        list.add(new FI2<>("a", null));
+        list.add(new FI2<>("b", null));
+        list.add(new FI2<>("a", null));
+        List<FI2<String, Integer>> result = JDFrame.read(list).overRowNumberS(FI2::setC2, Window.groupBy(FI2::getC1)).toLists();
+        Assert.assertEquals(Arrays.asList(1, 2, 1), result.stream().map(FI2::getC2).collect(Collectors.toList()));
+
+        // 其他窗口函数直接设置到对象, 与二元组的结果一致
+        Window<WebPvDto> frameWindow = Window.groupBy(WebPvDto::getType).sortAsc(WebPvDto::getScore).roundBeforeAfter(1, 2);
+        assertSetValue(SDFrame.read(dataList).overLag(frameWindow, WebPvDto::getPvCount, 1).toLists(),
+                SDFrame.read(dataList).overLagS(WebPvDto::setValue, frameWindow, WebPvDto::getPvCount, 1).toLists());
+        assertSetValue(SDFrame.read(dataList).overLead(frameWindow, WebPvDto::getPvCount, 2).toLists(),
+                JDFrame.read(dataList).overLeadS(WebPvDto::setValue, frameWindow, WebPvDto::getPvCount, 2).toLists());
+        assertSetValue(SDFrame.read(dataList).overNthValue(frameWindow, WebPvDto::getPvCount, 2).toLists(),
+                SDFrame.read(dataList).overNthValueS(WebPvDto::setValue, frameWindow, WebPvDto::getPvCount, 2).toLists());
+        assertSetValue(SDFrame.read(dataList).overLastValue(frameWindow, WebPvDto::getPvCount).toLists(),
+                JDFrame.read(dataList).overLastValueS(WebPvDto::setValue, frameWindow, WebPvDto::getPvCount).toLists());
+        assertSetValue(SDFrame.read(dataList).overMaxValue(frameWindow, WebPvDto::getPvCount).toLists(),
+                SDFrame.read(dataList).overMaxValueS(WebPvDto::setValue, frameWindow, WebPvDto::getPvCount).toLists());
+        assertSetValue(SDFrame.read(dataList).overMinValue(frameWindow, WebPvDto::getPvCount).toLists(),
+                JDFrame.read(dataList).overMinValueS(WebPvDto::setValue, frameWindow, WebPvDto::getPvCount).toLists());
+        assertSetValue(SDFrame.read(dataList).overCount(frameWindow).toLists(),
+                SDFrame.read(dataList).overCountS(WebPvDto::setValue, frameWindow).toLists());
+        // 窗口的最后一行不超出分区
+        Assert.assertEquals(Arrays.asList(7, 3, 2, 4, 4, 4, 4, 4, 2, 2, 2), JDFrame.read(dataList)
+                .overLastValue(frameWindow, WebPvDto::getPvCount).toLists().stream().map(FI2::getC2).collect(Collectors.toList()));
+
+        // 滑动求和增量加减且有补偿, 不受分区内大数的影响
+        List<FI2<Integer, Double>> doubleList = new ArrayList<>();
+        doubleList.add(new FI2<>(0, 1e17));
+        for (int i = 1; i <= 1000; i++) {
+            doubleList.add(new FI2<>(i, 1.0));
+        }
+        WindowDoubles<FI2<Integer, Double>> smallSums = SDFrame.read(doubleList)
+                .overSumDoubles(Window.<FI2<Integer, Double>, Integer>sortAscBy(FI2::getC1).roundBefore2CurrentRow(1), FI2::getC2);
+        for (int i = 2; i < smallSums.size(); i++) {
+            Assert.assertEquals(2.0, smallSums.get(i), 0);
+        }
+    }
+
+    private static <F> void assertSetValue(List<FI2<WebPvDto, F>> expected, List<WebPvDto> actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame(expected.get(i).getC1(), actual.get(i));
+            Assert.assertEquals(expected.get(i).getC2(), actual.get(i).getValue());
+        }
+    }
+
+    @Test
+    public void testOverAggregate(){
+        // 可逆聚合与overSum一致
+        Window<WebPvDto> slideWindow = Window.groupBy(WebPvDto::getType).sortAsc(WebPvDto::getPvCount).roundBeforeAfter(1, 2);
+        Monoid<Integer> sum = Monoid.of(0, Integer::sum, (a, b) -> a - b);
+        List<FI2<WebPvDto, Integer>> sumList = SDFrame.read(dataList).overAggregate(slideWindow, WebPvDto::getScore, sum).toLists();
+        List<FI2<WebPvDto, BigDecimal>> expectSumList = SDFrame.read(dataList).overSum(slideWindow, WebPvDto::getScore).toLists();
+        for (int i = 0; i < sumList.size(); i++) {
+            Assert.assertEquals(expectSumList.get(i).getC2().intValue(), sumList.get(i).getC2().intValue());
+        }
+
+        // 不满足交换律的聚合保持窗口内的顺序
+        Monoid<String> concat = Monoid.of("", String::concat);
+        Function<WebPvDto, String> score = e -> String.valueOf(e.getScore());
+        int[][] frames = {{1, 2}, {3, 0}, {Integer.MAX_VALUE, 0}, {0, Integer.MAX_VALUE}, {Integer.MAX_VALUE, Integer.MAX_VALUE}};
+        Window<WebPvDto> sorted = Window.groupBy(WebPvDto::getType).sortAsc(WebPvDto::getPvCount);
+        for (int[] frame : frames) {
+            Window<WebPvDto> window = sorted.roundBetween(
+                    frame[0] == Integer.MAX_VALUE ? Range.START_ROW : Range.BEFORE(frame[0]),
+                    frame[1] == Integer.MAX_VALUE ? Range.END_ROW : Range.AFTER(frame[1]));
+            List<FI2<WebPvDto, String>> resultList = JDFrame.read(dataList).overAggregate(window, score, concat).toLists();
+            List<WebPvDto> rows = resultList.stream().map(FI2::getC1).collect(Collectors.toList());
+            for (int i = 0; i < rows.size(); i++) {
+                StringBuilder expect = new StringBuilder();
+                for (int j = 0; j < rows.size(); j++) {
+                    boolean samePartition = rows.get(j).getType().equals(rows.get(i).getType());
+                    long offset = (long) j - i;
+                    if (samePartition && offset >= -(long) frame[0] && offset <= frame[1]){
+                        expect.append(score.apply(rows.get(j)));
+                    }
+                }
+                Assert.assertEquals(expect.toString(), resultList.get(i).getC2());
+            }
+        }
+
+        // 不可逆的最大值与overMaxValue一致, 结果直接设置到对象
+        Monoid<Integer> max = Monoid.of(Integer.MIN_VALUE, Math::max);
+        List<Integer> maxList = SDFrame.read(dataList).overAggregate(slideWindow, WebPvDto::getScore, max).toLists()
+                .stream().map(FI2::getC2).collect(Collectors.toList());
+        List<Integer> expectMaxList = SDFrame.read(dataList).overMaxValue(slideWindow, WebPvDto::getScore).toLists()
+                .stream().map(FI2::getC2).collect(Collectors.toList());
+        Assert.assertEquals(expectMaxList, maxList);
+        List<WebPvDto> copyList = dataList.stream().map(e -> new WebPvDto(e.getType(), e.getScore(), e.getPvCount())).collect(Collectors.toList());
+        List<WebPvDto> setList = SDFrame.read(copyList).overAggregateS(WebPvDto::setValue, slideWindow, WebPvDto::getScore, max).toLists();
+        Assert.assertEquals(expectMaxList, setList.stream().map(WebPvDto::getValue).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSlidingMedianDistinctMode(){
+        Random random = new Random(7);
+        List<WebPvDto> randomList = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Integer pvCount = random.nextInt(10) == 0 ? null : random.nextInt(8);
+            randomList.add(new WebPvDto("t" + random.nextInt(3), i, pvCount));
+        }
+        // 打乱输入顺序, 结果必须跟随窗口排序后的行
+        Collections.shuffle(randomList, random);
+        // {前N行, 后N行}, MAX_VALUE 表示无边界
+        int[][] frames = {{20, 0}, {2, 2}, {Integer.MAX_VALUE, 0}, {0, Integer.MAX_VALUE}, {Integer.MAX_VALUE, Integer.MAX_VALUE}, {1, 3}};
+        for (int[] frame : frames) {
+            Window<WebPvDto> window = Window.groupBy(WebPvDto::getType).sortAsc(WebPvDto::getScore).roundBetween(
+                    frame[0] == Integer.MAX_VALUE ? Range.START_ROW : Range.BEFORE(frame[0]),
+                    frame[1] == Integer.MAX_VALUE ? Range.END_ROW : Range.AFTER(frame[1]));
+            WindowDoubles<WebPvDto> medians = SDFrame.read(randomList).overMedianDoubles(window, WebPvDto::getPvCount);
+            List<FI2<WebPvDto, BigDecimal>> medianList = JDFrame.read(randomList).overMedian(window, WebPvDto::getPvCount).toLists();
+            WindowInts<WebPvDto> distincts = JDFrame.read(randomList).overCountDistinctInts(window, WebPvDto::getPvCount);
+            List<FI2<WebPvDto, Integer>> distinctList = SDFrame.read(randomList).overCountDistinct(window, WebPvDto::getPvCount).toLists();
+            List<FI2<WebPvDto, Integer>> modes = SDFrame.read(randomList).overMode(window, WebPvDto::getPvCount).toLists();
+            List<WebPvDto> rows = medians.getRows();
+            for (int i = 0; i < rows.size(); i++) {
+                List<Integer> frameValues = new ArrayList<>();
+                for (int j = 0; j < rows.size(); j++) {
+                    long offset = (long) j - i;
+                    if (rows.get(j).getType().equals(rows.get(i).getType()) && offset >= -(long) frame[0] && offset <= frame[1]
+                            && rows.get(j).getPvCount() != null){
+                        frameValues.add(rows.get(j).getPvCount());
+                    }
+                }
+                Collections.sort(frameValues);
+                int size = frameValues.size();
+                double expectMedian = size == 0 ? Double.NaN : (frameValues.get((size - 1) / 2) + frameValues.get(size / 2)) / 2.0;
+                Assert.assertEquals(expectMedian, medians.get(i), 1e-9);
+                Assert.assertSame(rows.get(i), medianList.get(i).getC1());
+                Assert.assertEquals(expectMedian, medianList.get(i).getC2() == null ? Double.NaN : medianList.get(i).getC2().doubleValue(), 1e-9);
+                Assert.assertEquals(frameValues.stream().distinct().count(), distincts.get(i));
+                Assert.assertSame(rows.get(i), distinctList.get(i).getC1());
+                Assert.assertEquals(distincts.get(i), distinctList.get(i).getC2().intValue());
+
+                Integer expectMode = null;
+                int maxCount = 0;
+                for (Integer value : frameValues) {
+                    int count = Collections.frequency(frameValues, value);
+                    if (count > maxCount){
+                        maxCount = count;
+                        expectMode = value;
+                    }
+                }
+                Assert.assertSame(rows.get(i), modes.get(i).getC1());
+                Assert.assertEquals(expectMode, modes.get(i).getC2());
+            }
+        }
+
+        // 只有当前行的窗口, 众数就是当前行的值
+        List<FI2<String, Object>> list = new ArrayList<>();
+        list.add(new FI2<>("c", null));
+        list.add(new FI2<>("a", null));
+        list.add(new FI2<>("b", null));
+        Window<FI2<String, Object>> currentRow = Window.<FI2<String, Object>, String>sortAscBy(FI2::getC1).roundBetween(Range.CURRENT_ROW, Range.CURRENT_ROW);
+        List<FI2<FI2<String, Object>, String>> modeList = SDFrame.read(list).overMode(currentRow, FI2::getC1).toLists();
+        for (FI2<FI2<String, Object>, String> e : modeList) {
+            Assert.assertEquals(e.getC1().getC1(), e.getC2());
+        }
+        List<FI2<String, Object>> planList = JDFrame.read(list).window(currentRow).compute(WindowFunction.mode(FI2::setC2, FI2::getC1)).execute().toLists();
+        for (FI2<String, Object> e : planList) {
+            Assert.assertEquals(e.getC1(), e.getC2());
+        }
+
+        // 1.0与1.00按equals区分, 移出其中一个不影响另一个
+        List<FI2<Integer, BigDecimal>> decimalList = new ArrayList<>();
+        decimalList.add(new FI2<>(1, new BigDecimal("1.0")));
+        decimalList.add(new FI2<>(2, new BigDecimal("1.00")));
+        decimalList.add(new FI2<>(3, new BigDecimal("5")));
+        Window<FI2<Integer, BigDecimal>> decimalWindow = Window.<FI2<Integer, BigDecimal>, Integer>sortAscBy(FI2::getC1).roundBefore2CurrentRow(1);
+        Assert.assertEquals(Arrays.asList(new BigDecimal("1.0"), new BigDecimal("1.0"), new BigDecimal("1.00")),
+                SDFrame.read(decimalList).overMode(decimalWindow, FI2::getC2).toLists().stream().map(FI2::getC2).collect(Collectors.toList()));
+        Assert.assertEquals(Arrays.asList(1, 2, 2),
+                JDFrame.read(decimalList).overCountDistinct(decimalWindow, FI2::getC2).toLists().stream().map(FI2::getC2).collect(Collectors.toList()));
+    }
+
     public static void main(String[] args) {
         SDFrame.read(dataList).cutPage(2, 3).show(30);
     }